@@ -2,9 +2,11 @@ package kakao.login;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 
 @SpringBootApplication
+@EnableScheduling // 토큰 정리, 날짜 구분 메시지 자정 rollover
 public class LoginApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,130 @@
+package kakao.login.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * brokerChannel로 나가는 메시지 중 forwardPrefixes(기본: /topic/chat/, /topic/announcements, /user/)에 해당하는 메시지를
+ * ClusterMessageBus로 다른 노드에 발행하고, 다른 노드에서 받은 메시지는 로컬 brokerChannel로 다시 보냅니다.
+ * - /user/ 메시지는 변환 전 목적지 그대로 전달되므로, 각 노드의 UserDestinationMessageHandler가 자기 세션으로 변환
+ * - 다른 노드에서 받은 메시지에는 ORIGIN_HEADER를 붙여 다시 발행하지 않음
+ * ClusterMessageBus 빈이 없으면(chat.cluster.mode=none) 아무 동작도 하지 않습니다.
+ */
+@Component
+@Slf4j
+public class ClusterBrokerRelay implements ChannelInterceptor {
+
+    public static final String ORIGIN_HEADER = "clusterOrigin";
+
+    private final ClusterMessageBus bus;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final List<String> forwardPrefixes;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder redelivered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    @Autowired
+    public ClusterBrokerRelay(ObjectProvider<ClusterMessageBus> bus,
+                              ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                              @Value("${chat.cluster.forward-prefixes:/topic/chat/,/topic/announcements,/user/}") List<String> forwardPrefixes) {
+        this.bus = bus.getIfAvailable();
+        this.messagingTemplate = messagingTemplate;
+        this.forwardPrefixes = List.copyOf(forwardPrefixes);
+        if (this.bus != null) {
+            this.bus.subscribe(this::redeliver);
+            log.info("Cluster broker relay enabled on node {} for {}", this.bus.getNodeId(), this.forwardPrefixes);
+        }
+    }
+
+    public boolean isEnabled() {
+        return bus != null;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (bus == null) {
+            return message;
+        }
+        MessageHeaders headers = message.getHeaders();
+        if (headers.containsKey(ORIGIN_HEADER)
+                || SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || !shouldForward(destination)) {
+            return message;
+        }
+
+        byte[] payload;
+        if (message.getPayload() instanceof byte[] bytes) {
+            payload = bytes;
+        } else if (message.getPayload() instanceof String text) {
+            payload = text.getBytes(StandardCharsets.UTF_8);
+        } else {
+            skipped.increment();
+            log.debug("Skipping cluster publish for {}: unsupported payload {}", destination,
+                    message.getPayload().getClass().getName());
+            return message;
+        }
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        bus.publish(new ClusterEnvelope(bus.getNodeId(), destination,
+                contentType != null ? contentType.toString() : null, payload));
+        published.increment();
+        return message;
+    }
+
+    /**
+     * 다른 노드에서 받은 메시지를 로컬 브로커(구독 중인 세션)로 전달
+     */
+    void redeliver(ClusterEnvelope envelope) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.getDestination());
+        if (envelope.getContentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.getContentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, envelope.getOriginNodeId());
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(envelope.getPayload(), accessor.getMessageHeaders());
+        messagingTemplate.getObject().send(envelope.getDestination(), message);
+        redelivered.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", bus != null);
+        stats.put("nodeId", bus != null ? bus.getNodeId() : null);
+        stats.put("forwardPrefixes", forwardPrefixes);
+        stats.put("published", published.sum());
+        stats.put("redelivered", redelivered.sum());
+        stats.put("skipped", skipped.sum());
+        return stats;
+    }
+
+    private boolean shouldForward(String destination) {
+        for (String prefix : forwardPrefixes) {
+            if (destination.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
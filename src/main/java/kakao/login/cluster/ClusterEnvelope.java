@@ -0,0 +1,50 @@
+package kakao.login.cluster;
+
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 노드 간에 전달되는 브로커 메시지 (destination + 직렬화된 payload)
+ */
+@Getter
+public final class ClusterEnvelope {
+
+    // 비정상 프레임으로 큰 배열을 할당하지 않도록 payload 크기 상한
+    static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    private final String originNodeId;
+    private final String destination;
+    private final String contentType; // null 가능
+    private final byte[] payload;
+
+    public ClusterEnvelope(String originNodeId, String destination, String contentType, byte[] payload) {
+        this.originNodeId = originNodeId;
+        this.destination = destination;
+        this.contentType = contentType;
+        this.payload = payload;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeUTF(originNodeId);
+        out.writeUTF(destination);
+        out.writeUTF(contentType != null ? contentType : "");
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    static ClusterEnvelope readFrom(DataInputStream in) throws IOException {
+        String originNodeId = in.readUTF();
+        String destination = in.readUTF();
+        String contentType = in.readUTF();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+            throw new IOException("Invalid cluster frame length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new ClusterEnvelope(originNodeId, destination, contentType.isEmpty() ? null : contentType, payload);
+    }
+}
@@ -0,0 +1,22 @@
+package kakao.login.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * 노드 간 브로커 메시지 전달 계층.
+ * publish한 메시지는 자기 자신을 제외한 다른 노드의 listener로 전달됩니다 (전달 보장 없음, 발행 노드 기준 순서 유지).
+ */
+public interface ClusterMessageBus {
+
+    String getNodeId();
+
+    /**
+     * 다른 노드로 메시지 발행. 호출 스레드를 블로킹하지 않음
+     */
+    void publish(ClusterEnvelope envelope);
+
+    /**
+     * 다른 노드에서 수신한 메시지를 처리할 listener 등록
+     */
+    void subscribe(Consumer<ClusterEnvelope> listener);
+}
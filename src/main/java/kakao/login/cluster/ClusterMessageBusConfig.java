@@ -0,0 +1,71 @@
+package kakao.login.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * chat.cluster.mode에 따라 ClusterMessageBus 구현을 선택합니다.
+ * - none(기본): 단일 노드, 빈을 만들지 않음
+ * - loopback: 같은 JVM의 컨텍스트끼리 연결 (테스트용)
+ * - tcp: chat.cluster.tcp.peers의 노드들과 직접 연결 (chat.cluster.tcp.secret 필수, bind-address 기본값은 loopback)
+ */
+@Configuration
+public class ClusterMessageBusConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "chat.cluster.mode", havingValue = "loopback")
+    public LoopbackClusterMessageBus loopbackClusterMessageBus(@Value("${chat.cluster.node-id:}") String nodeId) {
+        return new LoopbackClusterMessageBus(resolveNodeId(nodeId), LoopbackClusterMessageBus.SHARED_HUB);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "chat.cluster.mode", havingValue = "tcp")
+    public TcpClusterMessageBus tcpClusterMessageBus(@Value("${chat.cluster.node-id:}") String nodeId,
+                                                     @Value("${chat.cluster.tcp.bind-address:127.0.0.1}") String bindAddress,
+                                                     @Value("${chat.cluster.tcp.port:7400}") int port,
+                                                     @Value("${chat.cluster.tcp.peers:}") String peers,
+                                                     @Value("${chat.cluster.tcp.secret:}") String secret,
+                                                     @Value("${chat.cluster.tcp.queue-capacity:10000}") int queueCapacity) throws IOException {
+        if (!StringUtils.hasText(secret)) {
+            throw new IllegalArgumentException("chat.cluster.tcp.secret is required when chat.cluster.mode=tcp");
+        }
+        TcpClusterMessageBus bus = new TcpClusterMessageBus(resolveNodeId(nodeId), bindAddress, port, parsePeers(peers),
+                secret.getBytes(StandardCharsets.UTF_8), queueCapacity);
+        bus.start();
+        return bus;
+    }
+
+    private static String resolveNodeId(String nodeId) {
+        return StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // "host1:7400,host2:7400"
+    static List<InetSocketAddress> parsePeers(String peers) {
+        if (!StringUtils.hasText(peers)) {
+            return List.of();
+        }
+        return Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(peer -> {
+                    int colon = peer.lastIndexOf(':');
+                    if (colon <= 0 || colon == peer.length() - 1) {
+                        throw new IllegalArgumentException("Invalid cluster peer (host:port expected): " + peer);
+                    }
+                    return InetSocketAddress.createUnresolved(peer.substring(0, colon),
+                            Integer.parseInt(peer.substring(colon + 1)));
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,84 @@
+package kakao.login.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 같은 JVM 안의 여러 노드를 Hub로 연결하는 구현 (테스트/로컬에서 멀티 노드 동작 확인용).
+ * 노드별 단일 스레드로 전달하므로 발행 노드 기준 순서가 유지됩니다.
+ */
+@Slf4j
+public class LoopbackClusterMessageBus implements ClusterMessageBus, AutoCloseable {
+
+    /** 같은 JVM에서 뜬 애플리케이션 컨텍스트끼리 공유하는 기본 Hub */
+    public static final Hub SHARED_HUB = new Hub();
+
+    private final String nodeId;
+    private final Hub hub;
+    private final List<Consumer<ClusterEnvelope>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService deliveryExecutor;
+
+    public LoopbackClusterMessageBus(String nodeId, Hub hub) {
+        this.nodeId = nodeId;
+        this.hub = hub;
+        this.deliveryExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "cluster-loopback-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        hub.join(this);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        for (LoopbackClusterMessageBus peer : hub.nodes) {
+            if (peer != this) {
+                peer.deliver(envelope);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        hub.nodes.remove(this);
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void deliver(ClusterEnvelope envelope) {
+        if (deliveryExecutor.isShutdown()) {
+            return;
+        }
+        deliveryExecutor.execute(() -> {
+            for (Consumer<ClusterEnvelope> listener : listeners) {
+                try {
+                    listener.accept(envelope);
+                } catch (Exception e) {
+                    log.warn("Loopback cluster listener failed on {}: {}", nodeId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    public static final class Hub {
+        private final List<LoopbackClusterMessageBus> nodes = new CopyOnWriteArrayList<>();
+
+        private void join(LoopbackClusterMessageBus bus) {
+            nodes.add(bus);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package kakao.login.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 외부 브로커 없이 노드끼리 TCP로 직접 연결하는 구현.
+ * - 각 노드는 bindPort에서 다른 노드의 연결을 받고, peers 목록의 노드마다 송신 연결 하나를 유지
+ * - 피어별 bounded 큐 + 전용 송신 스레드. 큐가 가득 차면 해당 피어로 가는 메시지는 버림 (발행 스레드를 막지 않음)
+ * - 연결이 끊기면 backoff 후 재연결. 끊긴 동안의 메시지는 전달되지 않음
+ * 보안
+ * - 기본적으로 loopback(bindAddress)에만 바인딩. 다른 호스트와 연결하려면 내부망 주소를 명시
+ * - peers 목록에 있는 호스트의 IP에서 온 연결만 받음 (peers 목록은 노드끼리 서로 포함해야 함)
+ * - 공유 비밀키(secret)로 상호 인증하는 handshake 후, 모든 프레임에 세션 키 HMAC-SHA256(순번 || 프레임)을 붙여
+ *   위조/변조/재전송된 프레임은 listener에 전달하지 않고 연결을 끊음
+ */
+@Slf4j
+public class TcpClusterMessageBus implements ClusterMessageBus, AutoCloseable {
+
+    private static final int MAGIC = 0x4B434C32; // "KCL2"
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int HANDSHAKE_TIMEOUT_MS = 5000;
+    private static final long MAX_BACKOFF_MS = 5000;
+    private static final int NONCE_BYTES = 16;
+    private static final int MAC_BYTES = 32;
+    private static final int MIN_SECRET_BYTES = 16;
+    // 프레임 길이 상한 (envelope 헤더 여유분 포함)
+    private static final int MAX_FRAME_BYTES = ClusterEnvelope.MAX_PAYLOAD_BYTES + 64 * 1024;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final String nodeId;
+    private final String bindAddress;
+    private final int bindPort;
+    private final byte[] secret;
+    private final List<PeerLink> peers;
+    private final List<Consumer<ClusterEnvelope>> listeners = new CopyOnWriteArrayList<>();
+    private final Set<Socket> inboundSockets = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+
+    public TcpClusterMessageBus(String nodeId, String bindAddress, int bindPort, List<InetSocketAddress> peerAddresses,
+                                byte[] secret, int queueCapacity) {
+        if (secret == null || secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("Cluster secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.nodeId = nodeId;
+        this.bindAddress = bindAddress;
+        this.bindPort = bindPort;
+        this.secret = secret.clone();
+        this.peers = peerAddresses.stream()
+                .map(address -> new PeerLink(address, queueCapacity))
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        running = true;
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), bindPort));
+        acceptThread = new Thread(this::acceptLoop, "cluster-tcp-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        peers.forEach(PeerLink::start);
+        log.info("TCP cluster bus {} listening on {}:{} with peers {}", nodeId, bindAddress, getBoundPort(),
+                peers.stream().map(p -> p.address.toString()).collect(Collectors.joining(",")));
+    }
+
+    /** 실제 바인딩된 포트 (bindPort=0으로 시작한 경우 확인용) */
+    public int getBoundPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : bindPort;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        for (PeerLink peer : peers) {
+            peer.enqueue(envelope);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        closeQuietly(serverSocket);
+        inboundSockets.forEach(TcpClusterMessageBus::closeQuietly);
+        peers.forEach(PeerLink::stop);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                if (!isPeerAddress(socket.getInetAddress())) {
+                    log.warn("Rejected cluster connection from unknown host {}", socket.getRemoteSocketAddress());
+                    closeQuietly(socket);
+                    continue;
+                }
+                socket.setTcpNoDelay(true);
+                inboundSockets.add(socket);
+                Thread reader = new Thread(() -> readLoop(socket), "cluster-tcp-read-" + socket.getRemoteSocketAddress());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("TCP cluster accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 설정된 peers 호스트의 IP인지 확인 (DNS 변경을 반영하도록 연결마다 다시 resolve)
+    private boolean isPeerAddress(InetAddress remote) {
+        for (PeerLink peer : peers) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(peer.address.getHostString())) {
+                    if (address.equals(remote)) {
+                        return true;
+                    }
+                }
+            } catch (UnknownHostException e) {
+                log.debug("Cluster peer {} could not be resolved: {}", peer.address, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void readLoop(Socket socket) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            FrameMac frameMac = acceptHandshake(socket, in, out);
+            if (frameMac == null) {
+                return;
+            }
+            while (running) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME_BYTES) {
+                    log.warn("Cluster peer {} sent invalid frame length {}", socket.getRemoteSocketAddress(), length);
+                    return;
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                byte[] mac = new byte[MAC_BYTES];
+                in.readFully(mac);
+                if (!frameMac.verify(frame, mac)) {
+                    log.warn("Cluster peer {} sent frame with invalid MAC; closing", socket.getRemoteSocketAddress());
+                    return;
+                }
+                ClusterEnvelope envelope = ClusterEnvelope.readFrom(new DataInputStream(new ByteArrayInputStream(frame)));
+                if (nodeId.equals(envelope.getOriginNodeId())) {
+                    continue;
+                }
+                for (Consumer<ClusterEnvelope> listener : listeners) {
+                    try {
+                        listener.accept(envelope);
+                    } catch (Exception e) {
+                        log.warn("TCP cluster listener failed: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            log.debug("Cluster peer {} disconnected", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            log.warn("Cluster peer {} read failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            inboundSockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * 수신 측 handshake: MAGIC + serverNonce 전송 → 송신 노드의 MAC 검증 → 서버 MAC 응답. 실패하면 null
+     */
+    private FrameMac acceptHandshake(Socket socket, DataInputStream in, DataOutputStream out) throws IOException {
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        byte[] serverNonce = nonce();
+        out.writeInt(MAGIC);
+        out.write(serverNonce);
+        out.flush();
+
+        if (in.readInt() != MAGIC) {
+            log.warn("Rejected non-cluster connection from {}", socket.getRemoteSocketAddress());
+            return null;
+        }
+        String peerNodeId = in.readUTF();
+        byte[] clientNonce = new byte[NONCE_BYTES];
+        in.readFully(clientNonce);
+        byte[] clientMac = new byte[MAC_BYTES];
+        in.readFully(clientMac);
+        byte[] expected = hmac(secret, "client".getBytes(StandardCharsets.UTF_8), serverNonce, clientNonce,
+                peerNodeId.getBytes(StandardCharsets.UTF_8));
+        if (!MessageDigest.isEqual(expected, clientMac)) {
+            log.warn("Rejected cluster connection from {}: authentication failed", socket.getRemoteSocketAddress());
+            return null;
+        }
+        out.write(hmac(secret, "server".getBytes(StandardCharsets.UTF_8), serverNonce, clientNonce));
+        out.flush();
+        socket.setSoTimeout(0);
+        log.info("Accepted cluster peer {} from {}", peerNodeId, socket.getRemoteSocketAddress());
+        return new FrameMac(sessionKey(serverNonce, clientNonce));
+    }
+
+    private byte[] sessionKey(byte[] serverNonce, byte[] clientNonce) {
+        return hmac(secret, "session".getBytes(StandardCharsets.UTF_8), serverNonce, clientNonce);
+    }
+
+    private static byte[] nonce() {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        return nonce;
+    }
+
+    private static byte[] hmac(byte[] key, byte[]... parts) {
+        Mac mac = newMac(key);
+        for (byte[] part : parts) {
+            mac.update(part);
+        }
+        return mac.doFinal();
+    }
+
+    private static Mac newMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * 연결 하나의 프레임 MAC (세션 키, 방향별 순번). 순번을 MAC에 포함하므로 프레임 재전송/순서 변경도 검출
+     */
+    private static final class FrameMac {
+        private final Mac mac;
+        private long counter;
+
+        private FrameMac(byte[] sessionKey) {
+            this.mac = newMac(sessionKey);
+        }
+
+        byte[] sign(byte[] frame) {
+            mac.update(longBytes(counter++));
+            mac.update(frame);
+            return mac.doFinal();
+        }
+
+        boolean verify(byte[] frame, byte[] received) {
+            return MessageDigest.isEqual(sign(frame), received);
+        }
+
+        private static byte[] longBytes(long value) {
+            byte[] bytes = new byte[8];
+            for (int i = 7; i >= 0; i--) {
+                bytes[i] = (byte) value;
+                value >>>= 8;
+            }
+            return bytes;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 피어 한 곳으로의 송신 연결
+     */
+    private final class PeerLink {
+        private final InetSocketAddress address;
+        private final BlockingQueue<ClusterEnvelope> queue;
+        private Thread sender;
+        private Socket socket;
+        private DataOutputStream out;
+        private FrameMac frameMac;
+        private long dropped;
+
+        private PeerLink(InetSocketAddress address, int queueCapacity) {
+            this.address = address;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+
+        void start() {
+            sender = new Thread(this::sendLoop, "cluster-tcp-send-" + address);
+            sender.setDaemon(true);
+            sender.start();
+        }
+
+        void stop() {
+            if (sender != null) {
+                sender.interrupt();
+            }
+            closeQuietly(socket);
+        }
+
+        void enqueue(ClusterEnvelope envelope) {
+            if (!queue.offer(envelope)) {
+                synchronized (this) {
+                    dropped++;
+                    if (dropped == 1 || dropped % 1000 == 0) {
+                        log.warn("Cluster peer {} queue full; {} messages dropped", address, dropped);
+                    }
+                }
+            }
+        }
+
+        private void sendLoop() {
+            long backoffMs = 100;
+            while (running) {
+                ClusterEnvelope envelope;
+                try {
+                    envelope = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    ensureConnected();
+                    writeFrame(envelope);
+                    // 큐에 쌓인 메시지는 한 번에 보내고 flush
+                    ClusterEnvelope next;
+                    while ((next = queue.poll()) != null) {
+                        writeFrame(next);
+                    }
+                    out.flush();
+                    backoffMs = 100;
+                } catch (IOException e) {
+                    log.warn("Cluster peer {} send failed: {}", address, e.getMessage());
+                    disconnect();
+                    try {
+                        Thread.sleep(backoffMs);
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                    backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+                }
+            }
+        }
+
+        private void ensureConnected() throws IOException {
+            if (socket != null && socket.isConnected() && !socket.isClosed()) {
+                return;
+            }
+            Socket connected = new Socket();
+            connected.setTcpNoDelay(true);
+            // 피어 주소는 재연결할 때마다 다시 resolve
+            connected.connect(new InetSocketAddress(address.getHostString(), address.getPort()), CONNECT_TIMEOUT_MS);
+            try {
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connected.getOutputStream()));
+                frameMac = connectHandshake(connected,
+                        new DataInputStream(new BufferedInputStream(connected.getInputStream())), output);
+                socket = connected;
+                out = output;
+            } catch (IOException e) {
+                closeQuietly(connected);
+                throw e;
+            }
+            log.info("Connected to cluster peer {}", address);
+        }
+
+        /**
+         * 송신 측 handshake: serverNonce 수신 → (nodeId, clientNonce, MAC) 전송 → 수신 노드의 MAC 검증
+         */
+        private FrameMac connectHandshake(Socket connected, DataInputStream in, DataOutputStream output) throws IOException {
+            connected.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a cluster node");
+            }
+            byte[] serverNonce = new byte[NONCE_BYTES];
+            in.readFully(serverNonce);
+            byte[] clientNonce = nonce();
+            output.writeInt(MAGIC);
+            output.writeUTF(nodeId);
+            output.write(clientNonce);
+            output.write(hmac(secret, "client".getBytes(StandardCharsets.UTF_8), serverNonce, clientNonce,
+                    nodeId.getBytes(StandardCharsets.UTF_8)));
+            output.flush();
+
+            byte[] serverMac = new byte[MAC_BYTES];
+            in.readFully(serverMac);
+            if (!MessageDigest.isEqual(hmac(secret, "server".getBytes(StandardCharsets.UTF_8), serverNonce, clientNonce),
+                    serverMac)) {
+                throw new IOException("Cluster peer authentication failed");
+            }
+            connected.setSoTimeout(0);
+            return new FrameMac(sessionKey(serverNonce, clientNonce));
+        }
+
+        // [길이][envelope][HMAC(순번 || envelope)]
+        private void writeFrame(ClusterEnvelope envelope) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            envelope.writeTo(new DataOutputStream(buffer));
+            byte[] frame = buffer.toByteArray();
+            out.writeInt(frame.length);
+            out.write(frame);
+            out.write(frameMac.sign(frame));
+        }
+
+        private void disconnect() {
+            closeQuietly(socket);
+            socket = null;
+            out = null;
+            frameMac = null;
+        }
+    }
+}
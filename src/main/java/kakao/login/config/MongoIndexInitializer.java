@@ -0,0 +1,50 @@
+package kakao.login.config;
+
+import kakao.login.dto.response.diagnostics.QueryPlanReportDto;
+import kakao.login.service.ChatMessageIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 시 chat_messages 인덱스를 생성하고, 주요 쿼리가 컬렉션 스캔(COLLSCAN)으로 실행되는지 점검합니다.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private final ChatMessageIndexService chatMessageIndexService;
+
+    @Value("${chat.mongo.verify-indexes-on-startup:true}")
+    private boolean verifyOnStartup;
+
+    @Autowired
+    public MongoIndexInitializer(ChatMessageIndexService chatMessageIndexService) {
+        this.chatMessageIndexService = chatMessageIndexService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            chatMessageIndexService.ensureIndexes();
+        } catch (Exception e) {
+            log.error("Mongo index initialization failed", e);
+            return;
+        }
+
+        if (!verifyOnStartup) {
+            return;
+        }
+        for (QueryPlanReportDto report : chatMessageIndexService.explainRepositoryQueries()) {
+            if (report.isRegression()) {
+                log.warn("[index-check] {} uses COLLSCAN: stages={}", report.getQueryName(), report.getStages());
+            } else if (report.getError() == null) {
+                log.info("[index-check] {}: stages={}, indexes={}",
+                        report.getQueryName(), report.getStages(), report.getIndexNames());
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package kakao.login.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * STOMP 채널(clientInbound, clientOutbound, broker)별 executor.
+ * chat.stomp.{inbound|outbound|broker}.* 설정으로 풀 크기/큐 용량을 지정하고,
+ * chat.stomp.{channel}.virtual-threads=true이면 작업마다 가상 스레드에서 실행합니다 (블로킹 DB 호출이 플랫폼 스레드를 점유하지 않음).
+ * broker 채널은 기본적으로 executor 없이 발행 스레드에서 바로 처리(같은 채팅방 메시지 순서 유지)하며,
+ * chat.stomp.broker.pool-size 또는 virtual-threads를 지정한 경우에만 executor를 사용합니다.
+ * 채널별 대기/실행 중 작업 수는 getStats()로 확인합니다.
+ */
+@Component
+@Slf4j
+public class StompChannelExecutors {
+
+    private final InstrumentedExecutor inbound;
+    private final InstrumentedExecutor outbound;
+    private final InstrumentedExecutor broker; // null이면 발행 스레드에서 처리
+
+    @Autowired
+    public StompChannelExecutors(Environment environment) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.inbound = create(environment, "inbound", cores * 2);
+        this.outbound = create(environment, "outbound", cores * 2);
+        this.broker = environment.containsProperty("chat.stomp.broker.pool-size")
+                || environment.getProperty("chat.stomp.broker.virtual-threads", Boolean.class, false)
+                ? create(environment, "broker", cores) : null;
+    }
+
+    public Executor inbound() {
+        return inbound;
+    }
+
+    public Executor outbound() {
+        return outbound;
+    }
+
+    /**
+     * broker 채널 executor (설정하지 않았으면 null)
+     */
+    public Executor broker() {
+        return broker;
+    }
+
+    /**
+     * 채널별 executor 상태 (관리자 진단용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inbound", inbound.getStats());
+        stats.put("outbound", outbound.getStats());
+        stats.put("broker", broker != null ? broker.getStats() : Map.of("mode", "caller"));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        inbound.shutdown();
+        outbound.shutdown();
+        if (broker != null) {
+            broker.shutdown();
+        }
+    }
+
+    private static InstrumentedExecutor create(Environment environment, String channel, int defaultPoolSize) {
+        String prefix = "chat.stomp." + channel + ".";
+        if (environment.getProperty(prefix + "virtual-threads", Boolean.class, false)) {
+            log.info("STOMP {} channel: virtual thread per task", channel);
+            return new InstrumentedExecutor(channel, null,
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-" + channel + "-v", 0).factory()));
+        }
+
+        int poolSize = environment.getProperty(prefix + "pool-size", Integer.class, 0);
+        int maxPoolSize = environment.getProperty(prefix + "max-pool-size", Integer.class, 0);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, 10000);
+        int core = poolSize > 0 ? poolSize : defaultPoolSize;
+        int max = Math.max(core, maxPoolSize > 0 ? maxPoolSize : core * 2);
+
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("ws-" + channel + "-");
+        pool.setCorePoolSize(core);
+        pool.setMaxPoolSize(max);
+        // 큐가 가득 찬 뒤에만 max까지 스레드가 늘어나고, 그 이후에는 거절 (메시지 전송 실패로 전달됨)
+        pool.setQueueCapacity(queueCapacity);
+        pool.setAllowCoreThreadTimeOut(true);
+        pool.setKeepAliveSeconds(60);
+        pool.initialize();
+        log.info("STOMP {} channel: pool {}-{}, queue {}", channel, core, max, queueCapacity);
+        return new InstrumentedExecutor(channel, pool, null);
+    }
+
+    /**
+     * 제출/시작/완료/거절 수를 세는 executor 래퍼.
+     * queued = 제출 후 아직 시작하지 않은 작업, active = 실행 중인 작업
+     */
+    static final class InstrumentedExecutor implements Executor {
+        private final String channel;
+        private final ThreadPoolTaskExecutor pool; // 플랫폼 스레드 풀 모드
+        private final ExecutorService virtual;     // 가상 스레드 모드
+
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private InstrumentedExecutor(String channel, ThreadPoolTaskExecutor pool, ExecutorService virtual) {
+            this.channel = channel;
+            this.pool = pool;
+            this.virtual = virtual;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            Runnable tracked = () -> {
+                started.increment();
+                try {
+                    task.run();
+                } finally {
+                    completed.increment();
+                }
+            };
+            submitted.increment();
+            try {
+                if (pool != null) {
+                    pool.execute(tracked);
+                } else {
+                    virtual.execute(tracked);
+                }
+            } catch (RejectedExecutionException e) {
+                submitted.decrement();
+                rejected.increment();
+                log.warn("STOMP {} channel executor rejected a message ({} rejected so far)", channel, rejected.sum());
+                throw e;
+            }
+        }
+
+        Map<String, Object> getStats() {
+            long startedCount = started.sum();
+            long completedCount = completed.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("mode", pool != null ? "pool" : "virtual");
+            stats.put("queued", Math.max(0, submitted.sum() - startedCount));
+            stats.put("active", Math.max(0, startedCount - completedCount));
+            stats.put("completed", completedCount);
+            stats.put("rejected", rejected.sum());
+            if (pool != null) {
+                ThreadPoolExecutor executor = pool.getThreadPoolExecutor();
+                stats.put("poolSize", executor.getPoolSize());
+                stats.put("largestPoolSize", executor.getLargestPoolSize());
+                stats.put("corePoolSize", executor.getCorePoolSize());
+                stats.put("maxPoolSize", executor.getMaximumPoolSize());
+                stats.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+            }
+            return stats;
+        }
+
+        void shutdown() {
+            if (pool != null) {
+                pool.shutdown();
+            } else {
+                virtual.shutdown();
+            }
+        }
+    }
+}
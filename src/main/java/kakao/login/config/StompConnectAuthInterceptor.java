@@ -0,0 +1,81 @@
+package kakao.login.config;
+
+import io.jsonwebtoken.Claims;
+import kakao.login.provider.JwtProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * clientInboundChannel 인증 인터셉터.
+ * 토큰 검증은 CONNECT에서 한 번만 수행하고, 설정한 user는 세션에 저장되어 이후 SEND/SUBSCRIBE 등의 프레임에 자동으로 포함됩니다.
+ * 토큰 만료 시각에 세션을 닫도록 StompSessionExpiryRegistry에 예약합니다.
+ */
+class StompConnectAuthInterceptor implements ChannelInterceptor {
+
+    private final JwtProvider jwtProvider;
+    private final StompSessionExpiryRegistry sessionExpiryRegistry;
+
+    StompConnectAuthInterceptor(JwtProvider jwtProvider, StompSessionExpiryRegistry sessionExpiryRegistry) {
+        this.jwtProvider = jwtProvider;
+        this.sessionExpiryRegistry = sessionExpiryRegistry;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor =
+                MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String token = extractTokenFromHeaders(accessor);
+        if (token == null) {
+            return message;
+        }
+
+        Claims claims = jwtProvider.parseAccessToken(token);
+        if (claims == null || claims.getSubject() == null) {
+            return message;
+        }
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                claims.getSubject(),
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        accessor.setUser(authentication);
+
+        // 토큰 만료 시각에 세션 종료 예약
+        if (claims.getExpiration() != null) {
+            sessionExpiryRegistry.scheduleExpiry(accessor.getSessionId(), claims.getExpiration().toInstant());
+        }
+        return message;
+    }
+
+    static String extractTokenFromHeaders(MessageHeaderAccessor accessor) {
+        // STOMP 헤더에서 토큰 추출
+        Object nativeHeaders = accessor.getHeader("nativeHeaders");
+        if (nativeHeaders instanceof Map) {
+            @SuppressWarnings("unchecked")
+            List<String> authHeaders = (List<String>) ((Map<String, List<String>>) nativeHeaders).get("Authorization");
+
+            if (authHeaders != null && !authHeaders.isEmpty()) {
+                String authHeader = authHeaders.get(0);
+                if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                    return authHeader.substring(7);
+                }
+            }
+        }
+        return null;
+    }
+}
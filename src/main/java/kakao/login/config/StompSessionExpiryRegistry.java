@@ -0,0 +1,90 @@
+package kakao.login.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 연결된 WebSocket 세션과 CONNECT 시 검증한 토큰의 만료 시각을 관리합니다.
+ * 토큰이 만료되면 세션을 서버에서 먼저 닫아, 클라이언트가 새 토큰으로 다시 연결하도록 합니다.
+ */
+@Component
+@Slf4j
+public class StompSessionExpiryRegistry {
+
+    static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("Access token expired");
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> expiryTasks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stomp-session-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    void register(WebSocketSession session) {
+        sessions.put(session.getId(), session);
+    }
+
+    void unregister(String sessionId) {
+        sessions.remove(sessionId);
+        ScheduledFuture<?> task = expiryTasks.remove(sessionId);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * 세션을 expiresAt에 닫도록 예약 (같은 세션에 다시 호출하면 이전 예약을 대체)
+     */
+    void scheduleExpiry(String sessionId, Instant expiresAt) {
+        if (sessionId == null || expiresAt == null) {
+            return;
+        }
+        long delayMs = Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis());
+        ScheduledFuture<?> task = scheduler.schedule(() -> expire(sessionId), delayMs, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = expiryTasks.put(sessionId, task);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        // CONNECT 처리 중에 연결이 이미 끊긴 경우
+        if (!sessions.containsKey(sessionId)) {
+            unregister(sessionId);
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void expire(String sessionId) {
+        expiryTasks.remove(sessionId);
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        try {
+            log.info("Closing WebSocket session {}: access token expired", sessionId);
+            session.close(TOKEN_EXPIRED);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to close expired WebSocket session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
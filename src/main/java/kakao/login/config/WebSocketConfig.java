@@ -1,6 +1,7 @@
 package kakao.login.config;
 
 import jakarta.servlet.http.HttpServletRequest;
+import kakao.login.cluster.ClusterBrokerRelay;
 import kakao.login.provider.JwtProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -8,25 +9,23 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
-import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -35,11 +34,19 @@ import java.util.Map;
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtProvider jwtProvider;
+    private final StompSessionExpiryRegistry sessionExpiryRegistry;
+    private final ClusterBrokerRelay clusterBrokerRelay;
+    private final StompChannelExecutors channelExecutors;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        // /topic/chat/**, /topic/announcements/**, /user/** 메시지를 다른 노드에도 전달 (chat.cluster.mode=none이면 동작하지 않음)
+        config.configureBrokerChannel().interceptors(clusterBrokerRelay);
+        if (channelExecutors.broker() != null) {
+            config.configureBrokerChannel().executor(channelExecutors.broker());
+        }
     }
 
     @Override
@@ -89,45 +96,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     }
 
     @Override
-    public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new ChannelInterceptor() {
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 토큰 만료 시 서버에서 세션을 닫을 수 있도록 WebSocket 세션을 등록
+        registration.addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
             @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                StompHeaderAccessor accessor =
-                        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-
-                if (accessor != null) {
-                    // Extract JWT token from headers
-                    String token = extractTokenFromHeaders(accessor);
-
-                    if (token != null) {
-                        try {
-                            // Validate token
-                            String userId = jwtProvider.validate(token);
-
-                            if (userId != null) {
-                                // Create authentication object
-                                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                        userId,
-                                        null,
-                                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                                );
-
-                                // Set authentication in message headers
-                                accessor.setUser(authentication);
-                            }
-                        } catch (Exception e) {
-                            // 로그 기록 (선택사항)
-                            System.err.println("Error validating token: " + e.getMessage());
-                        }
-                    }
-                }
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessionExpiryRegistry.register(session);
+                super.afterConnectionEstablished(session);
+            }
 
-                return message;
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessionExpiryRegistry.unregister(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
             }
         });
     }
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutors.outbound());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // chat.stomp.inbound.* 설정의 executor (virtual-threads=true이면 가상 스레드)
+        registration.executor(channelExecutors.inbound());
+        // 토큰 검증은 CONNECT에서 한 번만 수행 (프레임 처리량 비교: StompInboundAuthBenchmark)
+        registration.interceptors(new StompConnectAuthInterceptor(jwtProvider, sessionExpiryRegistry));
+    }
+
     private String extractToken(HttpServletRequest request) {
         String token = request.getParameter("accessToken");
         if (token != null) return token;
@@ -139,22 +137,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
         return null;
     }
-
-
-    private String extractTokenFromHeaders(MessageHeaderAccessor accessor) {
-        // STOMP 헤더에서 토큰 추출
-        Object nativeHeaders = accessor.getHeader("nativeHeaders");
-        if (nativeHeaders instanceof Map) {
-            @SuppressWarnings("unchecked")
-            List<String> authHeaders = (List<String>) ((Map<String, List<String>>) nativeHeaders).get("Authorization");
-
-            if (authHeaders != null && !authHeaders.isEmpty()) {
-                String authHeader = authHeaders.get(0);
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    return authHeader.substring(7);
-                }
-            }
-        }
-        return null;
-    }
-}
\ No newline at end of file
+}
@@ -1,9 +1,17 @@
 package kakao.login.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import kakao.login.cluster.ClusterBrokerRelay;
+import kakao.login.config.StompChannelExecutors;
+import kakao.login.dto.response.diagnostics.QueryPlanReportDto;
 import kakao.login.entity.UserEntity;
 import kakao.login.provider.JwtProvider;
 import kakao.login.repository.UserRepository;
+import kakao.login.service.ChatMessageIndexService;
+import kakao.login.service.ChatRoomSummaryBuffer;
+import kakao.login.service.DateSeparatorTracker;
+import kakao.login.service.SenderIdentityCache;
+import kakao.login.service.UnreadCountPublisher;
 import kakao.login.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController  // Controller 클래스에 @RestController 추가
 //@RequiredArgsConstructor  // 생성자 주입을 위한 어노테이션 추가
@@ -27,12 +36,33 @@ public class AdminController {
     private final UserService userService;  // UserService 주입
     private final UserRepository userRepository;
     private final JwtProvider jwtProvider;  // JwtProvider 변수 선언
+    private final ChatMessageIndexService chatMessageIndexService;
+    private final SenderIdentityCache senderIdentityCache;
+    private final ClusterBrokerRelay clusterBrokerRelay;
+    private final StompChannelExecutors stompChannelExecutors;
+    private final DateSeparatorTracker dateSeparatorTracker;
+    private final ChatRoomSummaryBuffer chatRoomSummaryBuffer;
+    private final UnreadCountPublisher unreadCountPublisher;
 
     @Autowired
-    public AdminController(UserService userService, UserRepository userRepository, JwtProvider jwtProvider) {
+    public AdminController(UserService userService, UserRepository userRepository, JwtProvider jwtProvider,
+                           ChatMessageIndexService chatMessageIndexService,
+                           SenderIdentityCache senderIdentityCache,
+                           ClusterBrokerRelay clusterBrokerRelay,
+                           StompChannelExecutors stompChannelExecutors,
+                           DateSeparatorTracker dateSeparatorTracker,
+                           ChatRoomSummaryBuffer chatRoomSummaryBuffer,
+                           UnreadCountPublisher unreadCountPublisher) {
         this.userService = userService;
         this.userRepository = userRepository;  // 생성자 주입
         this.jwtProvider = jwtProvider;
+        this.chatMessageIndexService = chatMessageIndexService;
+        this.senderIdentityCache = senderIdentityCache;
+        this.clusterBrokerRelay = clusterBrokerRelay;
+        this.stompChannelExecutors = stompChannelExecutors;
+        this.dateSeparatorTracker = dateSeparatorTracker;
+        this.chatRoomSummaryBuffer = chatRoomSummaryBuffer;
+        this.unreadCountPublisher = unreadCountPublisher;
     }
 
     @GetMapping("/users")
@@ -41,4 +71,67 @@ public class AdminController {
         List<UserEntity> users = userService.findAllUsers();
         return ResponseEntity.ok(users);
     }
-}
\ No newline at end of file
+
+    /**
+     * chat_messages 주요 쿼리의 explain() 결과. collectionScan=true이면서 의도된 스캔이 아닌 항목은 인덱스 회귀
+     */
+    @GetMapping("/diagnostics/chat-message-indexes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<QueryPlanReportDto>> getChatMessageQueryPlans() {
+        return ResponseEntity.ok(chatMessageIndexService.explainRepositoryQueries());
+    }
+
+    /**
+     * 채팅 발신자 정보 캐시 상태 (size, hits, misses, evictions, hitRate)
+     */
+    @GetMapping("/diagnostics/sender-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSenderCacheStats() {
+        return ResponseEntity.ok(senderIdentityCache.getStats());
+    }
+
+    /**
+     * 노드 간 메시지 전달 상태 (nodeId, published, redelivered)
+     */
+    @GetMapping("/diagnostics/cluster")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getClusterStats() {
+        return ResponseEntity.ok(clusterBrokerRelay.getStats());
+    }
+
+    /**
+     * STOMP 채널(inbound/outbound/broker)별 대기 작업 수(queued)와 실행 중 작업 수(active)
+     */
+    @GetMapping("/diagnostics/stomp-channels")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStompChannelStats() {
+        return ResponseEntity.ok(stompChannelExecutors.getStats());
+    }
+
+    /**
+     * 날짜 구분 메시지 상태 캐시 (추적 중인 채팅방 수, 지연 적재 수, 삽입 수)
+     */
+    @GetMapping("/diagnostics/date-separators")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDateSeparatorStats() {
+        return ResponseEntity.ok(dateSeparatorTracker.getStats());
+    }
+
+    /**
+     * 채팅방 요약 write-behind 상태 (저장 대기 채팅방 수, 기록 수, flush 횟수, 저장 행 수, 실패 수)
+     */
+    @GetMapping("/diagnostics/room-summaries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRoomSummaryStats() {
+        return ResponseEntity.ok(chatRoomSummaryBuffer.getStats());
+    }
+
+    /**
+     * unread-count 알림 flush 상태 (대기 채팅방 수, 실행 중 채팅방 수, flush/지연/거절 수, worker 큐)
+     */
+    @GetMapping("/diagnostics/unread-publisher")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getUnreadPublisherStats() {
+        return ResponseEntity.ok(unreadCountPublisher.getStats());
+    }
+}
@@ -0,0 +1,72 @@
+package kakao.login.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import kakao.login.dto.request.message.AnnouncementDto;
+import kakao.login.dto.request.message.AnnouncementRequestDto;
+import kakao.login.entity.Announcement;
+import kakao.login.service.AnnouncementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 공지 채널 API. 공지는 대상별로 한 건만 저장되고, 받은 공지 목록과 읽음 상태는 사용자별 워터마크로 계산됩니다.
+ */
+@RestController
+@RequestMapping("/api/v1/chat/announcements")
+@Slf4j
+public class AnnouncementController {
+
+    private final AnnouncementService announcementService;
+
+    @Autowired
+    public AnnouncementController(AnnouncementService announcementService) {
+        this.announcementService = announcementService;
+    }
+
+    @Operation(summary = "공지 발송", description = "전체/부서/직원 대상으로 공지를 한 건 저장하고 대상 토픽으로 발행합니다. "
+            + "관리자는 모든 대상, 공지 담당자(ANNOUNCER)는 본인 부서에만 발송할 수 있습니다.")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANNOUNCER')")
+    @PostMapping
+    public ResponseEntity<?> publish(@RequestBody AnnouncementRequestDto request,
+                                     @AuthenticationPrincipal String loginUserId,
+                                     Authentication authentication) {
+        try {
+            Announcement saved = announcementService.publish(loginUserId, request, AnnouncementService.isAdmin(authentication));
+            return ResponseEntity.ok(AnnouncementDto.of(saved, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "받은 공지 목록", description = "최신순으로 before 이전 공지를 limit개 조회합니다.")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getInbox(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal String loginUserId) {
+        List<AnnouncementDto> announcements = announcementService.getInbox(loginUserId, before, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("announcements", announcements);
+        response.put("lastReadAt", announcementService.getLastReadAt(loginUserId));
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "공지 읽음 처리", description = "받은 공지를 모두 읽음 처리합니다 (워터마크 이동).")
+    @PostMapping("/read")
+    public ResponseEntity<Map<String, Object>> markRead(@AuthenticationPrincipal String loginUserId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("lastReadAt", announcementService.markRead(loginUserId));
+        return ResponseEntity.ok(response);
+    }
+}
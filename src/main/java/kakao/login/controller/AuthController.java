@@ -4,6 +4,7 @@
     import jakarta.validation.Valid;
     import kakao.login.dto.request.auth.*;
     import kakao.login.dto.response.auth.*;
+    import kakao.login.provider.VerifiedTokenCache;
     import kakao.login.service.AuthService;
     import lombok.RequiredArgsConstructor;
     import org.springframework.http.*;
@@ -20,6 +21,7 @@
 
         private final AuthService authService;  // 인증 서비스 주입
         private final SimpMessagingTemplate messagingTemplate;
+        private final VerifiedTokenCache verifiedTokenCache;
 
         // ID 중복 확인 엔드포인트
         @PostMapping("/id-check")
@@ -73,6 +75,8 @@
             String userId = SecurityContextHolder.getContext().getAuthentication().getName();
             // 웹소켓 연결 종료 메시지 전송
             messagingTemplate.convertAndSendToUser(userId, "/queue/disconnect", "disconnect");
+            // 캐시된 access token 검증 결과 제거
+            verifiedTokenCache.invalidateUser(userId);
 
             return ResponseEntity.ok("로그아웃 완료");
         }
@@ -93,6 +97,8 @@
             String userId = SecurityContextHolder.getContext().getAuthentication().getName();
             // 웹소켓 연결 종료 메시지 전송
             messagingTemplate.convertAndSendToUser(userId, "/queue/disconnect", "disconnect");
+            // 캐시된 access token 검증 결과 제거
+            verifiedTokenCache.invalidateUser(userId);
 
             return ResponseEntity.ok("로그아웃 완료");
         }
@@ -115,6 +121,8 @@
             String userId = SecurityContextHolder.getContext().getAuthentication().getName();
             // 웹소켓 연결 종료 메시지 전송
             messagingTemplate.convertAndSendToUser(userId, "/queue/disconnect", "disconnect");
+            // 캐시된 access token 검증 결과 제거
+            verifiedTokenCache.invalidateUser(userId);
 
             return ResponseEntity.ok("로그아웃 완료");
         }
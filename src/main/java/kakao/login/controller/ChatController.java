@@ -5,22 +5,31 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import kakao.login.dto.request.message.AnnouncementRequestDto;
 import kakao.login.dto.request.message.BulkMessageRequestDto;
+import kakao.login.dto.request.message.ChatMessageCursor;
 import kakao.login.dto.request.message.ChatMessageRequestDto;
+import kakao.login.dto.request.message.ChatMessageSliceDto;
 import kakao.login.dto.request.message.ChatRoomListDto;
+import kakao.login.dto.request.message.ChatSyncRequestDto;
+import kakao.login.dto.request.message.ChatSyncResponseDto;
 import kakao.login.dto.request.message.MessageRequestDto;
 import kakao.login.dto.request.room.ChatRoomRequestDto;
+import kakao.login.entity.Announcement;
 import kakao.login.entity.ChatMessage;
 import kakao.login.entity.ChatRoom;
 import kakao.login.entity.EmployeeEntity;
 import kakao.login.repository.ChatRoomRepository;
 import kakao.login.repository.EmployeeRepository;
+import kakao.login.service.AnnouncementService;
+import kakao.login.service.BulkDeliveryService;
 import kakao.login.service.ChatMessageService;
 import kakao.login.service.ChatRoomService;
+import kakao.login.service.ChatSendPipeline;
 import kakao.login.service.EmployeeService;
 import kakao.login.service.FileStorageService;
+import kakao.login.service.SenderIdentityCache;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
@@ -33,10 +42,10 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
@@ -44,9 +53,8 @@ import org.springframework.web.server.ResponseStatusException;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.time.LocalDateTime;
+import java.security.Principal;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -63,6 +71,10 @@ public class ChatController {
     private final EmployeeRepository employeeRepository;
     private final FileStorageService fileStorageService;
     private final ChatRoomRepository chatRoomRepository;
+    private final ChatSendPipeline chatSendPipeline;
+    private final SenderIdentityCache senderIdentityCache;
+    private final BulkDeliveryService bulkDeliveryService;
+    private final AnnouncementService announcementService;
 
     @Autowired
     public ChatController(ChatMessageService chatMessageService,
@@ -71,7 +83,11 @@ public class ChatController {
                           ChatRoomService chatRoomService,
                           EmployeeRepository employeeRepository,
                           FileStorageService fileStorageService,
-                          ChatRoomRepository chatRoomRepository ) {
+                          ChatRoomRepository chatRoomRepository,
+                          ChatSendPipeline chatSendPipeline,
+                          SenderIdentityCache senderIdentityCache,
+                          BulkDeliveryService bulkDeliveryService,
+                          AnnouncementService announcementService) {
         this.chatService = chatMessageService;
         this.employeeService = employeeService;
         this.messagingTemplate = messagingTemplate;
@@ -79,6 +95,10 @@ public class ChatController {
         this.employeeRepository = employeeRepository;
         this.fileStorageService = fileStorageService;
         this.chatRoomRepository = chatRoomRepository;
+        this.chatSendPipeline = chatSendPipeline;
+        this.senderIdentityCache = senderIdentityCache;
+        this.bulkDeliveryService = bulkDeliveryService;
+        this.announcementService = announcementService;
     }
 
     @Operation(
@@ -155,7 +175,7 @@ public class ChatController {
         }
 
         // 1) 초대 시스템 메시지
-        EmployeeEntity inviter = employeeRepository.findByUser_UserId(inviterId);
+        SenderIdentityCache.SenderIdentity inviter = senderIdentityCache.get(inviterId);
         EmployeeEntity employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found: " + employeeId));
 
@@ -204,28 +224,8 @@ public class ChatController {
             @RequestParam String messageId,
             @RequestParam String userId) {
 
+        // 읽음 처리 및 unread-count 브로드캐스트는 서비스에서 한 번만 수행
         chatService.markMessagesAsRead(messageId, userId);
-        ChatRoom room = chatRoomService.getChatRoom(Long.valueOf(roomId))
-                .orElseThrow(() -> new RuntimeException("Chat room not found: " + roomId));
-
-        Map<String, Long> unreadCounts = room.getActiveParticipants().stream()
-                .map(p -> p.getUser().getUserId())
-                .collect(Collectors.toMap(Function.identity(),
-                        uid -> chatService.getUnreadCount(Long.valueOf(roomId), uid)));
-
-        String lastMsgContent = Optional.ofNullable(room.getLastMessageContent()).orElse("");
-        LocalDateTime lastActivity = room.getLastActivity();
-
-        Map<String,Object> payload = new HashMap<>();
-        payload.put("userId", userId);
-        payload.put("unreadCounts", unreadCounts);
-        payload.put("lastMessageContent", lastMsgContent);
-        payload.put("lastActivity", lastActivity);
-
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + roomId + "/unread-count",
-                payload
-        );
         return ResponseEntity.ok().build();
     }
 
@@ -312,51 +312,43 @@ public class ChatController {
 
     @Hidden
     @MessageMapping("/chat.sendMessage")
-    @Transactional
-    public void handleChatMessage(@Payload Map<String, Object> messageMap) {
-        String senderId = (String) messageMap.get("senderId");
+    public void handleChatMessage(@Payload Map<String, Object> messageMap, Principal principal) {
+        // 발신자는 CONNECT 시 인증된 세션 Principal로 결정 (payload의 senderId는 신뢰하지 않음)
+        if (principal == null) {
+            throw new AccessDeniedException("Unauthenticated STOMP session");
+        }
+        String senderId = principal.getName();
+        Object claimedSenderId = messageMap.get("senderId");
+        if (claimedSenderId != null && !senderId.equals(claimedSenderId.toString())) {
+            log.warn("Rejected message from {} claiming senderId {}", senderId, claimedSenderId);
+            messagingTemplate.convertAndSendToUser(senderId, "/queue/errors",
+                    Map.of("code", "SENDER_MISMATCH", "message", "발신자 정보가 로그인 사용자와 다릅니다."));
+            return;
+        }
         String content = (String) messageMap.get("content");
         Long roomId = Long.valueOf(messageMap.get("roomId").toString());
-
-        ChatRoom chatRoom = chatService.getChatRoomById(roomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-
-        // 메시지 저장
-        ChatMessage savedMessage;
-        if (!chatRoom.isGroupChat()) {
-            savedMessage = chatService.sendDirectMessage(roomId, senderId, content, false);
-        } else {
-            ChatMessage chatMessage = chatService.createMessageFromRequest(roomId, senderId, content);
-            savedMessage = chatService.sendMessage(chatMessage);
-        }
-
-        LocalDateTime lastActivity = LocalDateTime.now();
-
-        // 채팅방의 lastMessageContent 업데이트
-        chatRoom.setLastMessageContent(content);
-        chatRoom.setLastActivity(lastActivity);
-        chatRoomRepository.save(chatRoom);
-
-        // 메시지 브로드캐스트
-        ChatMessageRequestDto dto = ChatMessageRequestDto.of(savedMessage);
-        messagingTemplate.convertAndSend("/topic/chat/" + roomId, dto);
-
-        // unread-count 브로드캐스트 (lastMessageContent 포함)
-        Map<String, Long> unreadCounts = chatRoom.getActiveParticipants().stream()
-                .map(p -> p.getUser().getUserId())
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        uid -> chatService.getUnreadCount(roomId, uid)
-                ));
-
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + roomId + "/unread-count",
-                Map.of(
-                        "unreadCounts", unreadCounts,
-                        "lastMessageContent", content,
-                        "lastActivity", lastActivity
-                )
-        );
+        Object clientMessageId = messageMap.get("clientMessageId");
+
+        // 저장 → 브로드캐스트 → unread 카운터는 채팅방별 lane에서 순서대로 처리 (STOMP 수신 스레드는 바로 반환)
+        chatSendPipeline.send(roomId, senderId, content).whenComplete((saved, error) -> {
+            if (error != null) {
+                log.error("Failed to send message from {} to room {}", senderId, roomId, error);
+                Map<String, Object> failure = new HashMap<>();
+                failure.put("code", "SEND_FAILED");
+                failure.put("roomId", roomId);
+                failure.put("clientMessageId", clientMessageId);
+                failure.put("message", "메시지 전송에 실패했습니다.");
+                messagingTemplate.convertAndSendToUser(senderId, "/queue/errors", failure);
+                return;
+            }
+            // 저장 즉시 발신자에게 확인 응답 (clientMessageId로 보낸 메시지와 저장된 메시지를 매칭)
+            Map<String, Object> ack = new HashMap<>();
+            ack.put("roomId", roomId);
+            ack.put("messageId", saved.getId());
+            ack.put("seq", saved.getSeq());
+            ack.put("clientMessageId", clientMessageId);
+            messagingTemplate.convertAndSendToUser(senderId, "/queue/ack", ack);
+        });
     }
 
     @PostMapping("/direct/message")
@@ -366,9 +358,9 @@ public class ChatController {
         Long roomId = Long.valueOf(messageRequest.get("roomId").toString());
         boolean invite = Boolean.parseBoolean(messageRequest.getOrDefault("invite", "false").toString());
 
+        // 브로드캐스트는 서비스에서 한 번만 수행
         ChatMessage message = chatService.sendDirectMessage(roomId, senderId, content, invite);
         if (!invite && message != null) {
-            messagingTemplate.convertAndSend("/topic/chat/" + roomId, message);
             return ResponseEntity.ok(message);
         } else {
             return ResponseEntity.ok().build();
@@ -382,7 +374,7 @@ public class ChatController {
             String userId = auth.getName();
             log.info("User {} attempting to exit room {}", userId, roomId);
 
-            EmployeeEntity employee = employeeRepository.findByUser_UserId(userId);
+            SenderIdentityCache.SenderIdentity employee = senderIdentityCache.find(userId).orElse(null);
             if (employee == null) {
                 log.error("User not found: {}", userId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
@@ -440,21 +432,17 @@ public class ChatController {
         // --- 1) 사용자 정보 조회 ---
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String senderId = auth.getName();
-        EmployeeEntity sender = employeeRepository.findByUser_UserId(senderId);
-        if (sender == null) {
-            throw new RuntimeException("Sender not found with userId: " + senderId);
+        SenderIdentityCache.SenderIdentity sender = senderIdentityCache.find(senderId)
+                .orElseThrow(() -> new RuntimeException("Sender not found with userId: " + senderId));
+
+        // --- 2) 참가 여부 확인 (로스터 캐시) ---
+        if (!chatService.isParticipant(roomId, senderId)) {
+            throw new RuntimeException("User " + senderId + " is not a participant of chat room " + roomId);
         }
 
-        // --- 2) 날짜 구분 메시지 삽입 ---
+        // --- 3) 날짜 구분 메시지 삽입 & 참가자 수 ---
         chatService.insertDateSeparatorIfNeeded(roomId);
-
-        // --- 3) 채팅방·참가자 로드 ---
-        ChatRoom room = chatRoomService.getChatRoom(roomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found: " + roomId));
-        Hibernate.initialize(room.getChatRoomParticipants());
-        int activeCount = (int) room.getActiveParticipants().stream()
-                .filter(p -> !p.getUser().getUserId().equals(senderId))
-                .count();
+        int activeCount = chatService.countOtherActiveParticipants(roomId, senderId);
 
         // --- 4) 파일 저장 & 절대 URL 생성 ---
         String relativePath = fileStorageService.store(file);
@@ -484,13 +472,8 @@ public class ChatController {
         }
 
         // --- 6) 메시지 엔티티 생성 & 저장 ---
-        ChatMessage msg = new ChatMessage();
-        msg.setRoomId(roomId);
-        msg.setSenderId(senderId);
-        msg.setSenderName(sender.getName());
-        msg.setTimestamp(LocalDateTime.now());
+        ChatMessage msg = sender.toMessage(roomId, "");
         msg.setType(ChatMessage.MessageType.CHAT);
-        msg.setContent("");
         msg.setAttachmentType(isImage ? "image" : "file");
         msg.setAttachmentUrl(absoluteUrl);
         msg.setAttachmentName(file.getOriginalFilename());
@@ -503,28 +486,7 @@ public class ChatController {
         ChatMessageRequestDto dto = ChatMessageRequestDto.of(saved);
         messagingTemplate.convertAndSend("/topic/chat/" + roomId, dto);
 
-        // --- 8) 최신 ChatRoom 다시 조회 & lastMessageContent 획득 ---
-        ChatRoom updatedRoom = chatRoomService.getChatRoom(roomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found: " + roomId));
-        String lastMsgContent = updatedRoom.getLastMessageContent();
-        LocalDateTime lastActivity = updatedRoom.getLastActivity();
-
-        // --- 9) WebSocket: unread-count 브로드캐스트 (lastMessageContent 포함) ---
-        Map<String, Long> unreadCounts = updatedRoom.getActiveParticipants().stream()
-                .map(p -> p.getUser().getUserId())
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        uid -> chatService.getUnreadCount(roomId, uid)
-                ));
-
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + roomId + "/unread-count",
-                Map.of(
-                        "unreadCounts",       unreadCounts,
-                        "lastMessageContent", lastMsgContent,
-                        "lastActivity", lastActivity
-                )
-        );
+        // --- 8) unread-count 브로드캐스트는 saveMessageEntity에서 예약 (lastMessageContent 포함) ---
 
         return ResponseEntity.ok(dto);
     }
@@ -581,13 +543,60 @@ public class ChatController {
     }
 
 
+    @Operation(
+            summary = "메시지 히스토리 조회",
+            description = "before/after 커서 또는 limit을 전달하면 커서 기반으로, 그렇지 않으면 기존 page/size 방식으로 조회합니다.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "조회 성공"),
+                    @ApiResponse(responseCode = "400", description = "잘못된 커서")
+            }
+    )
     @GetMapping("/rooms/{roomId}/messages")
-    public ResponseEntity<Page<ChatMessageRequestDto>> getMessages(
+    public ResponseEntity<?> getMessages(
             @PathVariable Long roomId,
             Pageable pageable,
-            @RequestParam String userId) {
-        Page<ChatMessageRequestDto> dtos = chatService.getMessagesWithUnread(roomId, pageable, userId);
-        return ResponseEntity.ok(dtos);
+            @RequestParam String userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        if (before == null && after == null && limit == null) {
+            Page<ChatMessageRequestDto> dtos = chatService.getMessagesWithUnread(roomId, pageable, userId);
+            return ResponseEntity.ok(dtos);
+        }
+        if (before != null && after != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("code", "INVALID_REQUEST", "message", "before and after cannot be used together"));
+        }
+        try {
+            ChatMessageCursor beforeCursor = before != null ? ChatMessageCursor.decode(before) : null;
+            ChatMessageCursor afterCursor = after != null ? ChatMessageCursor.decode(after) : null;
+            ChatMessageSliceDto slice = chatService.getMessagesByCursor(roomId, userId, beforeCursor, afterCursor, limit);
+            return ResponseEntity.ok(slice);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("code", "INVALID_REQUEST", "message", "Invalid cursor"));
+        }
+    }
+
+    @Operation(
+            summary = "재연결 동기화",
+            description = "채팅방별 마지막 seq/cursor 이후의 새 메시지와 since 이후의 삭제·읽음 변경을 한 번에 조회합니다.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "조회 성공"),
+                    @ApiResponse(responseCode = "400", description = "잘못된 요청 또는 커서")
+            }
+    )
+    @PostMapping("/sync")
+    public ResponseEntity<?> syncMessages(
+            @RequestBody ChatSyncRequestDto request,
+            @AuthenticationPrincipal String loginUserId) {
+        try {
+            ChatSyncResponseDto response = chatService.syncRooms(loginUserId, request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("code", "INVALID_REQUEST", "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/rooms/{roomId}/unread-count")
@@ -602,46 +611,39 @@ public class ChatController {
         ));
     }
     
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANNOUNCER')")
     @PostMapping("/broadcast/all")
     public ResponseEntity<?> broadcastToAll(
             @RequestBody MessageRequestDto request,
-            @AuthenticationPrincipal String loginUserId) {
-
-        String content = request.getMessage();
-        List<EmployeeEntity> all = employeeService.getAllEmployees();
-
-        for (EmployeeEntity e : all) {
-            String targetUserId = e.getUser().getUserId();
-            if (targetUserId.equals(loginUserId)) continue;
-
-            // 1:1 대화방 생성 또는 조회
-            ChatRoom room = chatRoomService.getOrCreateDirectChatRoom(loginUserId, targetUserId);
-
-            // 메시지 저장
-            ChatMessage saved = chatService.sendDirectMessage(
-                    room.getId(), loginUserId, content, false);
+            @AuthenticationPrincipal String loginUserId,
+            Authentication authentication) {
 
-            // DTO로 변환
-            ChatMessageRequestDto dto = ChatMessageRequestDto.of(saved);
-
-            // WebSocket 브로드캐스트
-            messagingTemplate.convertAndSend(
-                    "/topic/chat/" + room.getId(),
-                    dto
-            );
+        // 직원별 1:1 채팅방 대신 전체 대상 공지 한 건으로 저장하고 /topic/announcements로 한 번 발행
+        AnnouncementRequestDto announcement = new AnnouncementRequestDto();
+        announcement.setMessage(request.getMessage());
+        announcement.setAudience(Announcement.Audience.ALL);
+        try {
+            Announcement saved = announcementService.publish(loginUserId, announcement,
+                    AnnouncementService.isAdmin(authentication));
+            return ResponseEntity.ok(Map.of(
+                    "status", "broadcasted to all",
+                    "announcementId", saved.getId()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-
-        return ResponseEntity.ok(Map.of("status", "broadcasted to all"));
     }
 
 
     /**
      * 2) 특정 부서 직원에게만 메시지 보내기
      */
+    @PreAuthorize("hasAnyRole('ADMIN', 'ANNOUNCER')")
     @PostMapping("/broadcast/department")
     public ResponseEntity<?> broadcastToDepartment(
             @RequestBody MessageRequestDto request,
-            @AuthenticationPrincipal String loginUserId) {
+            @AuthenticationPrincipal String loginUserId,
+            Authentication authentication) {
 
         // 1) departmentIds 반드시 체크
         List<String> deptIds = request.getDepartmentIds();
@@ -651,44 +653,27 @@ public class ChatController {
         }
 
         // 2) 로그인 유저 조회
-        EmployeeEntity me = employeeRepository.findByUser_UserId(loginUserId);
+        SenderIdentityCache.SenderIdentity me = senderIdentityCache.find(loginUserId).orElse(null);
         if (me == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "로그인 정보 없음"));
         }
-        String myUserId = me.getUser().getUserId();
-
-        String content = request.getMessage();
-        Map<String, String> results = new LinkedHashMap<>();
-
-        for (String deptIdOrName : request.getDepartmentIds()) {
-            List<EmployeeEntity> list = employeeService.getEmployeesByDepartment(deptIdOrName);
-            for (EmployeeEntity e : list) {
-                String targetUserId = e.getUser().getUserId();
-                if (targetUserId.equals(myUserId)) continue;
-
-                ChatRoom room = chatRoomService.getOrCreateDirectChatRoom(myUserId, targetUserId);
-                ChatMessage saved = chatService.sendDirectMessage(
-                        room.getId(), myUserId, content, false
-                );
-
-                // 1) 메시지를 DTO 로 변환
-                ChatMessageRequestDto dto = ChatMessageRequestDto.of(saved);
 
-                // 2) WebSocket 브로드캐스트
-                messagingTemplate.convertAndSend(
-                        "/topic/chat/" + room.getId(),
-                        dto
-                );
-
-                results.put(targetUserId, saved.getId());
-            }
+        // 3) 부서 대상 공지 한 건으로 저장하고 부서별 토픽으로 한 번씩 발행
+        AnnouncementRequestDto announcement = new AnnouncementRequestDto();
+        announcement.setMessage(request.getMessage());
+        announcement.setAudience(Announcement.Audience.DEPARTMENT);
+        announcement.setDepartmentIds(deptIds);
+        try {
+            Announcement saved = announcementService.publish(me.getUserId(), announcement,
+                    AnnouncementService.isAdmin(authentication));
+            return ResponseEntity.ok(Map.of(
+                    "status", "broadcasted to departments",
+                    "announcementId", saved.getId()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-
-        return ResponseEntity.ok(Map.of(
-                "status", "broadcasted to departments",
-                "results", results
-        ));
     }
 
     /**
@@ -699,30 +684,30 @@ public class ChatController {
             @RequestBody BulkMessageRequestDto req,
             @AuthenticationPrincipal String loginUserId) {
 
-        EmployeeEntity me = employeeRepository.findByUser_UserId(loginUserId);
+        SenderIdentityCache.SenderIdentity me = senderIdentityCache.find(loginUserId).orElse(null);
         if (me == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인 정보 없음");
         }
-        String myUserId = me.getUser().getUserId();
+        String myUserId = me.getUserId();
+
+        List<Long> employeeIds = req.getEmployeeIds() != null ? req.getEmployeeIds() : List.of();
+        List<EmployeeEntity> targets = employeeRepository.findAllById(employeeIds);
+        BulkDeliveryService.BulkDeliveryResult delivery =
+                bulkDeliveryService.deliver(myUserId, targets, req.getMessage());
 
         Map<Long, String> results = new HashMap<>();
-        for (Long empId : req.getEmployeeIds()) {
-            try {
-                EmployeeEntity target = employeeRepository.findById(empId)
-                        .orElseThrow(() -> new RuntimeException("직원 없음: " + empId));
-                String targetUserId = target.getUser().getUserId();
-
-                ChatRoom room = chatRoomService.getOrCreateDirectChatRoom(myUserId, targetUserId);
-                ChatMessage saved = chatService.sendDirectMessage(
-                        room.getId(), myUserId, req.getMessage(), false
-                );
-                results.put(empId, "sent (msgId=" + saved.getId() + ")");
-            } catch (Exception ex) {
-                results.put(empId, "error: " + ex.getMessage());
+        for (Long empId : employeeIds) {
+            String messageId = delivery.getMessageIdByEmployeeId().get(empId);
+            if (messageId != null) {
+                results.put(empId, "sent (msgId=" + messageId + ")");
+            } else if (targets.stream().noneMatch(t -> t.getId().equals(empId))) {
+                results.put(empId, "error: 직원 없음: " + empId);
+            } else {
+                results.put(empId, "error: 발송 대상이 아닙니다");
             }
         }
 
-        return ResponseEntity.ok(Map.of("status","completed", "results", results));
+        return ResponseEntity.ok(Map.of("status", "completed", "results", results, "stats", delivery.toStats()));
     }
 
     @PostMapping("/rooms/{roomId}/read")
@@ -731,28 +716,8 @@ public class ChatController {
             @RequestBody Map<String, String> body) {
 
         String userId = body.get("userId");
+        // 일괄 읽음 처리 및 read/unread-count 브로드캐스트는 서비스에서 한 번만 수행
         chatService.markAllMessagesAsRead(roomId, userId);
-        ChatRoom room = chatRoomService.getChatRoom(roomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found: " + roomId));
-
-        Map<String, Long> unreadCounts = room.getActiveParticipants().stream()
-                .map(p -> p.getUser().getUserId())
-                .collect(Collectors.toMap(Function.identity(),
-                        uid -> chatService.getUnreadCount(roomId, uid)));
-
-        String lastMsgContent = Optional.ofNullable(room.getLastMessageContent()).orElse("");
-        LocalDateTime lastActivity = room.getLastActivity();
-
-        Map<String,Object> payload = new HashMap<>();
-        payload.put("userId", userId);
-        payload.put("unreadCounts", unreadCounts);
-        payload.put("lastMessageContent", lastMsgContent);
-        payload.put("lastActivity", lastActivity);
-
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + roomId + "/unread-count",
-                payload
-        );
         return ResponseEntity.ok().build();
     }
 
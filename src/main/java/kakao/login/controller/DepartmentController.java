@@ -4,6 +4,7 @@ import kakao.login.entity.DepartmentEntity;
 import kakao.login.entity.EmployeeEntity;
 import kakao.login.repository.DepartmentRepository;
 import kakao.login.repository.EmployeeRepository;
+import kakao.login.service.SenderIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +20,9 @@ public class DepartmentController {
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @Autowired
+    private SenderIdentityCache senderIdentityCache;
+
 
     // 부서 목록 조회 (flag가 "delete"인 항목은 제외)
     @GetMapping("/departments")
@@ -46,10 +50,13 @@ public class DepartmentController {
             return ResponseEntity.notFound().build();
         }
         DepartmentEntity department = departmentOpt.get();
+        String previousName = department.getDepartmentName();
         // 필요에 따라 부서명을 수정할 수 있지만, 기본 키가 부서명이므로 주의가 필요합니다.
         department.setDepartmentName(departmentDetails.getDepartmentName());
         department.setFlag("update");
         DepartmentEntity updatedDepartment = departmentRepository.save(department);
+        // 채팅 발신자 정보 캐시에 남은 이전 부서명 제거
+        senderIdentityCache.evictDepartment(previousName);
         return ResponseEntity.ok(updatedDepartment);
     }
 
@@ -228,7 +228,7 @@ public class EmployeeController {
             response.put("department", employee.getDepartment() != null ? employee.getDepartment().getDepartmentName() : null);
             response.put("section", employee.getSection() != null ? employee.getSection().getSectionName() : null);
             response.put("position", employee.getPosition());
-            response.put("profileImage", employee.getProfileImageBase64());
+            response.put("profileImageUrl", employee.getProfileImageUrl());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -1,16 +1,18 @@
 package kakao.login.controller;
 
-import kakao.login.service.EmployeeService;
+import kakao.login.service.ProfileImageService;
+import kakao.login.service.ProfileImageService.CachedImage;
+import kakao.login.service.ProfileImageService.Variant;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @RestController
@@ -18,23 +20,50 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class EmployeeProfileController {
 
-    private final EmployeeService employeeService;
+    private final ProfileImageService profileImageService;
 
-    @GetMapping(value = "/{employeeId}/profile-image", produces = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE})
+    /**
+     * 프로필 이미지 조회.
+     * 채팅 메시지의 senderImageVersion을 v 파라미터로 전달하면 URL이 이미지 내용별로 고정되므로 장기 캐시(immutable)를 허용하고,
+     * 그 외에는 ETag(If-None-Match)로 재검증합니다.
+     * size=thumb이면 목록/채팅용 썸네일, 그 외에는 원본 크기 이미지를 반환합니다.
+     */
+    @GetMapping("/{employeeId}/profile-image")
     @PreAuthorize("isAuthenticated()") // "로그인한 사용자"는 누구나 접근 가능하도록 설정
-    public ResponseEntity<byte[]> getEmployeeProfileImage(@PathVariable Long employeeId) {
-        byte[] image = employeeService.getProfileImage(employeeId);
-
-        if (image == null || image.length == 0) {
+    public ResponseEntity<byte[]> getEmployeeProfileImage(
+            @PathVariable Long employeeId,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Variant variant = Variant.from(size);
+        Optional<String> currentVersion = profileImageService.getVersion(employeeId, variant);
+        if (currentVersion.isEmpty()) {
             // 이미지가 없으면 404 Not Found 응답
             return ResponseEntity.notFound().build();
         }
 
-        // 브라우저가 24시간 동안 이미지를 캐시하도록 설정 (성능 향상)
-        CacheControl cacheControl = CacheControl.maxAge(24, TimeUnit.HOURS).noTransform().mustRevalidate();
+        String etag = "\"" + currentVersion.get() + "-" + variant.name().toLowerCase() + "\"";
+        CacheControl cacheControl = currentVersion.get().equals(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache();
+
+        // 이미지가 바뀌지 않았으면 이미지를 읽지 않고 304 응답
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        Optional<CachedImage> image = profileImageService.find(employeeId, variant);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
         return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.get().getContentType()))
+                .eTag(etag)
                 .cacheControl(cacheControl)
-                .body(image);
+                .body(image.get().getBytes());
     }
-}
\ No newline at end of file
+}
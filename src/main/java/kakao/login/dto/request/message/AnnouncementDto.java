@@ -0,0 +1,35 @@
+package kakao.login.dto.request.message;
+
+import kakao.login.entity.Announcement;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class AnnouncementDto {
+    private String id;
+    private String senderId;
+    private String senderName;
+    private String senderDepartment;
+    private Long senderEmployeeId;
+    private String content;
+    private Announcement.Audience audience;
+    private LocalDateTime createdAt;
+    private boolean read;
+
+    public static AnnouncementDto of(Announcement announcement, LocalDateTime lastReadAt) {
+        AnnouncementDto dto = new AnnouncementDto();
+        dto.setId(announcement.getId());
+        dto.setSenderId(announcement.getSenderId());
+        dto.setSenderName(announcement.getSenderName());
+        dto.setSenderDepartment(announcement.getSenderDepartment());
+        dto.setSenderEmployeeId(announcement.getSenderEmployeeId());
+        dto.setContent(announcement.getContent());
+        dto.setAudience(announcement.getAudience());
+        dto.setCreatedAt(announcement.getCreatedAt());
+        dto.setRead(lastReadAt != null && !announcement.getCreatedAt().isAfter(lastReadAt));
+        return dto;
+    }
+}
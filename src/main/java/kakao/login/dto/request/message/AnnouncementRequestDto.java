@@ -0,0 +1,23 @@
+package kakao.login.dto.request.message;
+
+import kakao.login.entity.Announcement;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AnnouncementRequestDto {
+    // 공지 내용
+    private String message;
+
+    // 공지 대상 (ALL, DEPARTMENT, EMPLOYEES)
+    private Announcement.Audience audience;
+
+    // 대상 부서 이름 리스트 (audience가 DEPARTMENT인 경우)
+    private List<String> departmentIds;
+
+    // 대상 직원 ID 리스트 (audience가 EMPLOYEES인 경우)
+    private List<Long> employeeIds;
+}
@@ -0,0 +1,56 @@
+package kakao.login.dto.request.message;
+
+import kakao.login.entity.ChatMessage;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * 채팅 히스토리 페이지네이션용 불투명(opaque) 커서.
+ * (timestamp, messageId) 쌍을 Base64 URL-safe 문자열로 인코딩합니다.
+ */
+@Getter
+public class ChatMessageCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final LocalDateTime timestamp;
+    private final String messageId;
+
+    public ChatMessageCursor(LocalDateTime timestamp, String messageId) {
+        this.timestamp = timestamp;
+        this.messageId = messageId;
+    }
+
+    public static ChatMessageCursor of(ChatMessage message) {
+        return new ChatMessageCursor(message.getTimestamp(), message.getId());
+    }
+
+    public String encode() {
+        long epochMillis = timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String raw = epochMillis + SEPARATOR + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 커서 형식이 올바르지 않은 경우
+     */
+    public static ChatMessageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx <= 0 || idx == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            long epochMillis = Long.parseLong(raw.substring(0, idx));
+            LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+            return new ChatMessageCursor(timestamp, raw.substring(idx + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
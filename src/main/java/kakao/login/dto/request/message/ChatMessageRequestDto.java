@@ -6,8 +6,10 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Getter
@@ -15,9 +17,12 @@ import java.util.Set;
 @Slf4j
 public class ChatMessageRequestDto {
     private String id;
+    private Long seq; // 채팅방 내 메시지 순번 (누락 감지용)
     private String departmentName;
     private String senderId;
     private String senderName;
+    private Long senderEmployeeId;
+    private String senderImageVersion;
     private String content;
     private LocalDateTime timestamp;
     private String attachmentType;
@@ -31,10 +36,21 @@ public class ChatMessageRequestDto {
     private String status; // "uploading", "done" 등
 
     public static ChatMessageRequestDto of(ChatMessage msg) {
+        return of(msg, Collections.emptyMap());
+    }
+
+    /**
+     * @param readWatermarks 참가자 userId → 읽음 워터마크(lastReadAt).
+     *                       메시지 시각이 워터마크 이전이면 해당 참가자는 읽은 것으로 계산
+     */
+    public static ChatMessageRequestDto of(ChatMessage msg, Map<String, LocalDateTime> readWatermarks) {
         ChatMessageRequestDto dto = new ChatMessageRequestDto();
         dto.setId(msg.getId());
+        dto.setSeq(msg.getSeq());
         dto.setSenderId(msg.getSenderId());
         dto.setSenderName(msg.getSenderName());
+        dto.setSenderEmployeeId(msg.getSenderEmployeeId());
+        dto.setSenderImageVersion(msg.getSenderImageVersion());
         dto.setContent(msg.getContent());
         dto.setTimestamp(msg.getTimestamp());
         dto.setAttachmentType(msg.getAttachmentType());
@@ -46,8 +62,16 @@ public class ChatMessageRequestDto {
         dto.setStatus(msg.getStatus());
 
         // unreadCount 계산 (발신자 본인은 읽음 처리)
+        // 기존 readBy 기록 + 워터마크가 메시지 시각 이후인 참가자
         Set<String> readBySet = msg.getReadBy() != null ?
                 new HashSet<>(msg.getReadBy()) : new HashSet<>();
+        if (msg.getTimestamp() != null) {
+            readWatermarks.forEach((userId, lastReadAt) -> {
+                if (lastReadAt != null && !msg.getTimestamp().isAfter(lastReadAt)) {
+                    readBySet.add(userId);
+                }
+            });
+        }
         readBySet.remove(msg.getSenderId());
         int readCount = readBySet.size();
 
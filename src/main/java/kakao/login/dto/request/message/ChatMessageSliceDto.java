@@ -0,0 +1,26 @@
+package kakao.login.dto.request.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 커서 기반 메시지 히스토리 응답.
+ * messages는 항상 오래된 순(오름차순)으로 정렬됩니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageSliceDto {
+    private List<ChatMessageRequestDto> messages;
+    /** 더 오래된 메시지를 조회할 때 before 파라미터로 전달할 커서 */
+    private String beforeCursor;
+    /** 더 최신 메시지를 조회할 때 after 파라미터로 전달할 커서 */
+    private String afterCursor;
+    /** 조회 방향으로 메시지가 더 남아 있는지 여부 */
+    private boolean hasMore;
+}
@@ -1,6 +1,7 @@
 package kakao.login.dto.request.message;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import kakao.login.entity.Announcement;
 import kakao.login.entity.ChatRoom;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -23,6 +24,9 @@ public class ChatRoomListDto {
     private String lastMessageContent;
     private long unreadCount;
     private int activeParticipantCount;
+    private boolean announcement; // 공지함 항목 여부 (id=ANNOUNCEMENT_INBOX_ID, /api/v1/chat/announcements로 조회)
+
+    public static final long ANNOUNCEMENT_INBOX_ID = 0L;
 
     public static ChatRoomListDto of(ChatRoom chatRoom, String currentUserId, long unreadCount) {
         ChatRoomListDto dto = new ChatRoomListDto();
@@ -37,4 +41,20 @@ public class ChatRoomListDto {
         return dto;
     }
 
+    /**
+     * 채팅방 목록에 함께 표시하는 공지함 항목 (가장 최근 공지와 읽지 않은 공지 수)
+     */
+    public static ChatRoomListDto announcementInbox(Announcement latest, long unreadCount) {
+        ChatRoomListDto dto = new ChatRoomListDto();
+        dto.setId(ANNOUNCEMENT_INBOX_ID);
+        dto.setName("공지사항");
+        dto.setDisplayName("공지사항");
+        dto.setGroupChat(true);
+        dto.setLastActivity(latest.getCreatedAt());
+        dto.setLastMessageContent(latest.getContent());
+        dto.setUnreadCount(unreadCount);
+        dto.setAnnouncement(true);
+        return dto;
+    }
+
 }
\ No newline at end of file
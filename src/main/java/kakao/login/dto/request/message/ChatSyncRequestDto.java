@@ -0,0 +1,35 @@
+package kakao.login.dto.request.message;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 재연결 동기화 요청.
+ * rooms에 채팅방별 마지막으로 받은 위치를 전달하거나, since만 전달하면 그 이후 새 메시지·읽음 변경·메시지 삭제가 있는 모든 채팅방을 동기화합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChatSyncRequestDto {
+    /** roomId → 마지막으로 받은 메시지 위치 */
+    private Map<Long, RoomCursor> rooms = new HashMap<>();
+    /** 이전 동기화 응답의 syncedAt. 이 시점 이후의 삭제/읽음 변경을 함께 반환 */
+    private LocalDateTime since;
+    /** 채팅방당 최대 메시지 수 */
+    private Integer limit;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class RoomCursor {
+        /** 마지막으로 받은 메시지의 seq (우선 사용) */
+        private Long lastSeq;
+        /** seq가 없는 메시지의 경우 히스토리 조회에서 받은 afterCursor */
+        private String after;
+    }
+}
@@ -0,0 +1,42 @@
+package kakao.login.dto.request.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재연결 동기화 응답. 다음 요청 시 syncedAt을 since로 전달합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSyncResponseDto {
+    private LocalDateTime syncedAt;
+    private List<RoomSync> rooms = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class RoomSync {
+        private Long roomId;
+        /** 새 메시지 (오래된 순) */
+        private List<ChatMessageRequestDto> messages;
+        /** since 이후 삭제된 메시지 ID */
+        private List<String> deletedMessageIds;
+        /** since 이후 읽음 위치가 바뀐 참가자 (userId → lastReadAt) */
+        private Map<String, LocalDateTime> readWatermarks;
+        private long unreadCount;
+        /** limit을 초과해 아직 받지 못한 메시지가 있는지 여부 */
+        private boolean hasMore;
+        /** 다음 동기화에 사용할 위치 */
+        private Long lastSeq;
+        private String afterCursor;
+    }
+}
@@ -5,8 +5,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.util.Base64;
-
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +15,7 @@ public class EmployeeRequestDTO {
     private String position;
     private String departmentName;
     private String sectionName;
-    private String profileImage;
+    private String profileImageUrl; // 이미지 바이트 대신 조회 URL만 전달
     private String kakaoUuid;
     // 생성자, getter, setter 추가
 
@@ -30,12 +28,7 @@ public class EmployeeRequestDTO {
         dto.setPhone(employee.getPhone());
         dto.setDepartmentName(employee.getDepartment().getDepartmentName());
         dto.setSectionName(employee.getSection() != null ? employee.getSection().getSectionName() : "구역 없음");
-        if (employee.getProfileImage() != null && employee.getProfileImage().length > 0) {
-            String base64Image = Base64.getEncoder().encodeToString(employee.getProfileImage());
-            dto.setProfileImage(base64Image);
-        } else {
-            dto.setProfileImage(null); // 혹은 기본 이미지 URL 등
-        }
+        dto.setProfileImageUrl(employee.getProfileImageUrl()); // 이미지가 없으면 null
         dto.setKakaoUuid(employee.getKakaoUuid()); // 최신 카카오 UUID 설정
         return dto;
     }
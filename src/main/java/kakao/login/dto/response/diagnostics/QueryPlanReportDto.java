@@ -0,0 +1,27 @@
+package kakao.login.dto.response.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 리포지토리 쿼리 하나에 대한 explain() 결과 요약
+ */
+@Getter
+@AllArgsConstructor
+public class QueryPlanReportDto {
+    private String queryName;
+    /** winningPlan에 포함된 stage 목록 (예: LIMIT, FETCH, IXSCAN) */
+    private List<String> stages;
+    /** 사용된 인덱스 이름 (없으면 빈 목록) */
+    private List<String> indexNames;
+    private boolean collectionScan;
+    /** 설계상 컬렉션 스캔이 허용되는 쿼리 (예: 부분 문자열 검색) */
+    private boolean collectionScanExpected;
+    private String error;
+
+    public boolean isRegression() {
+        return collectionScan && !collectionScanExpected;
+    }
+}
@@ -0,0 +1,48 @@
+package kakao.login.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 공지 (대상별로 한 건만 저장).
+ * 수신자별 문서를 만들지 않고, 조회 시 사용자의 부서/직원 ID로 대상 여부를 판단합니다.
+ */
+@Document(collection = "announcements")
+@CompoundIndexes({
+        // 전체 공지 최신순 조회
+        @CompoundIndex(name = "audience_created", def = "{'audience': 1, 'createdAt': -1}"),
+        // 부서 공지 (departmentNames 멀티키)
+        @CompoundIndex(name = "departments_created", def = "{'departmentNames': 1, 'createdAt': -1}"),
+        // 개별 직원 공지 (employeeIds 멀티키)
+        @CompoundIndex(name = "employees_created", def = "{'employeeIds': 1, 'createdAt': -1}")
+})
+@Getter
+@Setter
+public class Announcement {
+    @Id
+    private String id;
+
+    private String senderId;         // employee.user.userId
+    private String senderName;
+    private String senderDepartment;
+    private Long senderEmployeeId;
+    private String content;
+    private Audience audience;
+    private List<String> departmentNames = new ArrayList<>(); // audience가 DEPARTMENT인 경우
+    private List<Long> employeeIds = new ArrayList<>();       // audience가 EMPLOYEES인 경우
+    private LocalDateTime createdAt;
+
+    public enum Audience {
+        ALL,
+        DEPARTMENT,
+        EMPLOYEES
+    }
+}
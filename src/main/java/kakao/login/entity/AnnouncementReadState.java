@@ -0,0 +1,22 @@
+package kakao.login.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 공지 읽음 워터마크. lastReadAt 이후에 작성된 공지를 읽지 않은 공지로 계산합니다.
+ */
+@Document(collection = "announcement_read_states")
+@Getter
+@Setter
+public class AnnouncementReadState {
+    @Id
+    private String userId;
+
+    private LocalDateTime lastReadAt;
+    private LocalDateTime updatedAt;
+}
@@ -3,13 +3,30 @@ package kakao.login.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "chat_messages")
+@CompoundIndexes({
+        // 채팅방 히스토리/최근 메시지 조회 (roomId 일치 + timestamp 정렬, 커서 페이지네이션의 _id 타이브레이크 포함)
+        @CompoundIndex(name = "room_timestamp_id", def = "{'roomId': 1, 'timestamp': -1, '_id': -1}"),
+        // 채팅방 내 순번 (seq가 없는 기존 메시지는 제외)
+        @CompoundIndex(name = "room_seq", def = "{'roomId': 1, 'seq': 1}", unique = true,
+                partialFilter = "{'seq': {$exists: true}}"),
+        // 날짜 구분 메시지는 채팅방·날짜당 하나 (여러 노드가 같은 날짜를 동시에 claim해도 한 건만 저장)
+        @CompoundIndex(name = "room_separator_date", def = "{'roomId': 1, 'separatorDate': 1}", unique = true,
+                partialFilter = "{'separatorDate': {$exists: true}}"),
+        // unread 카운트 (roomId, deleted 일치 + timestamp 범위)
+        @CompoundIndex(name = "room_deleted_timestamp", def = "{'roomId': 1, 'deleted': 1, 'timestamp': -1}"),
+        // 발신자별 메시지 조회
+        @CompoundIndex(name = "sender_timestamp", def = "{'senderId': 1, 'timestamp': -1}")
+})
 @Getter
 @Setter
 public class ChatMessage {
@@ -18,6 +35,8 @@ public class ChatMessage {
 
     // Change from String to Long to match MySQL ChatRoom ID
     private Long roomId;
+    /** 채팅방별 단조 증가 순번 (저장 시 ChatMessageSequenceGenerator가 할당) */
+    private Long seq;
     private String senderId;     // employee.user.userId
     private String senderName;   // employee.name
     private String senderDepartment; // employee.department.departmentName
@@ -26,11 +45,14 @@ public class ChatMessage {
     private LocalDateTime timestamp;
     private MessageType type = MessageType.CHAT;
     private List<String> readBy = new ArrayList<>();
-    private String profileImageBase64; // Base64 encoded profile image
+    private Long senderEmployeeId; // 프로필 이미지 조회용 (/api/v1/employees/{id}/profile-image)
+    private String senderImageVersion; // 전송 시점의 프로필 이미지 버전 (이미지 URL 캐시 키)
     private boolean exitMessage = false; // 퇴장 메시지 여부
     private boolean inviteMessage = false; // 초대 메시지 여부
     private boolean dateMessage; //날짜 메시지 여부
+    private LocalDate separatorDate; // 날짜 구분 메시지의 날짜 (room_separator_date 유니크 키, 그 외 메시지는 null)
     private boolean deleted = false; //메시지 삭제 여부
+    private LocalDateTime deletedAt; // 삭제 시각 (재연결 동기화 시 삭제 목록 조회용)
     private String status; // "uploading", "done" 등
     // ↓ 추가된 필드 ↓
     /** 첨부 타입: "image" 또는 "file" */
@@ -59,7 +81,8 @@ public class ChatMessage {
                 employee.getDepartment().getDepartmentName() : "";
         this.senderPosition = employee.getPosition();
         this.content = content;
-        this.profileImageBase64 = employee.getProfileImageBase64();
+        this.senderEmployeeId = employee.getId();
+        this.senderImageVersion = employee.getProfileImageVersion();
         this.timestamp = LocalDateTime.now();
     }
 
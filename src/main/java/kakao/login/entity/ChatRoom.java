@@ -8,17 +8,37 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
 @Entity
-@Table(name = "chat_rooms")
+@Table(name = "chat_rooms",
+        // 1:1 채팅방은 직원 쌍당 하나만 존재 (그룹 채팅방은 null이므로 제약 대상 아님)
+        uniqueConstraints = @UniqueConstraint(name = "uk_chat_rooms_direct_pair_key", columnNames = "direct_pair_key"))
+@EntityListeners(ChatRoomRosterListener.class) // 채팅방 삭제 시 로스터 캐시 무효화
+// 참가자 로스터(참가자 → 직원 → 유저/부서/구역)를 채팅방과 함께 한 번에 조회하기 위한 그래프
+@NamedEntityGraph(
+        name = ChatRoom.ROSTER_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "chatRoomParticipants", subgraph = "participant"),
+        subgraphs = {
+                @NamedSubgraph(name = "participant",
+                        attributeNodes = @NamedAttributeNode(value = "employee", subgraph = "employee")),
+                @NamedSubgraph(name = "employee",
+                        attributeNodes = {
+                                @NamedAttributeNode("user"),
+                                @NamedAttributeNode("department"),
+                                @NamedAttributeNode("section")
+                        })
+        })
 @Getter
 @Setter
 @Slf4j
 public class ChatRoom {
 
+    public static final String ROSTER_GRAPH = "ChatRoom.roster";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,15 +51,20 @@ public class ChatRoom {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @Column(name = "last_activity")
+    // lastActivity/lastMessageContent는 생성 이후 ChatRoomSummaryBuffer가 JDBC batch로만 갱신 (엔티티 저장 시 덮어쓰지 않음)
+    @Column(name = "last_activity", updatable = false)
     private LocalDateTime lastActivity;
 
     @Column(name = "is_group_chat")
     private boolean isGroupChat;
 
-    @Column(name = "last_message_content", length = 1000) // 메시지 길이에 따라 적절히 조절
+    @Column(name = "last_message_content", length = 1000, updatable = false) // 메시지 길이에 따라 적절히 조절
     private String lastMessageContent;
 
+    /** 1:1 채팅방의 직원 쌍 키 "작은 employeeId:큰 employeeId" (directPairKeyOf) */
+    @Column(name = "direct_pair_key", length = 64)
+    private String directPairKey;
+
     @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private Set<ChatRoomParticipant> chatRoomParticipants = new HashSet<>();
@@ -50,6 +75,17 @@ public class ChatRoom {
         this.lastActivity = LocalDateTime.now();
     }
 
+    /**
+     * 두 직원의 1:1 채팅방 키 (인자 순서와 무관)
+     */
+    public static String directPairKeyOf(Long employeeId1, Long employeeId2) {
+        return Math.min(employeeId1, employeeId2) + ":" + Math.max(employeeId1, employeeId2);
+    }
+
+    private boolean isDirectPairMember(Long employeeId) {
+        return Arrays.asList(directPairKey.split(":")).contains(String.valueOf(employeeId));
+    }
+
     public ChatRoom(String name, String creatorId, boolean isGroupChat) {
         this.name = name;
         this.createdBy = creatorId;
@@ -76,6 +112,11 @@ public class ChatRoom {
             participant = new ChatRoomParticipant(this, employee);
             chatRoomParticipants.add(participant);
             log.info("Added new participant {} to room {}", employee.getUser().getUserId(), id);
+            // 쌍이 아닌 직원이 초대되면 더 이상 두 직원의 1:1 채팅방이 아니므로 키를 해제 (다음 1:1 전송은 새 채팅방)
+            if (directPairKey != null && !isDirectPairMember(employee.getId())) {
+                log.info("Room {} is no longer the direct room of pair {}", id, directPairKey);
+                directPairKey = null;
+            }
         }
     }
 
@@ -2,13 +2,17 @@ package kakao.login.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "chat_room_participants")
+@DynamicUpdate // 읽음 워터마크 갱신 시 변경된 컬럼만 UPDATE
+@EntityListeners(ChatRoomRosterListener.class)
 @Getter
 @Setter
 public class ChatRoomParticipant {
@@ -34,6 +38,16 @@ public class ChatRoomParticipant {
     @Column(name = "is_active")
     private boolean active = true;
 
+    // 읽음 워터마크: 이 시점까지의 메시지는 모두 읽은 것으로 간주 (null이면 기존 readBy 기반)
+    @Column(name = "last_read_at")
+    private LocalDateTime lastReadAt;
+
+    // 참가 상태(active/joinedAt)가 바뀌었는지 여부 (로스터 캐시 무효화 판단용, 새로 생성된 참가자는 true)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean membershipChanged = true;
+
     // 기본 생성자
     public ChatRoomParticipant() {
         this.joinedAt = LocalDateTime.now();
@@ -49,13 +63,34 @@ public class ChatRoomParticipant {
 
     // 사용자가 채팅방을 나갈 때 호출
     public void leave() {
+        this.membershipChanged = true;
         this.active = false;
         this.lastLeftAt = LocalDateTime.now();
     }
 
     // 사용자가 채팅방에 다시 들어올 때 호출
     public void rejoin() {
+        this.membershipChanged = true;
         this.active = true;
         this.joinedAt = LocalDateTime.now();
     }
+
+    @PostLoad
+    private void clearMembershipChanged() {
+        this.membershipChanged = false;
+    }
+
+    // 참가 상태 변경 여부를 확인하고 초기화 (엔티티 리스너에서 호출)
+    boolean consumeMembershipChanged() {
+        boolean changed = membershipChanged;
+        membershipChanged = false;
+        return changed;
+    }
+
+    // 읽음 워터마크를 앞으로만 이동
+    public void advanceLastReadAt(LocalDateTime readAt) {
+        if (readAt != null && (this.lastReadAt == null || this.lastReadAt.isBefore(readAt))) {
+            this.lastReadAt = readAt;
+        }
+    }
 }
\ No newline at end of file
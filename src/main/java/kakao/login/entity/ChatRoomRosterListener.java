@@ -0,0 +1,44 @@
+package kakao.login.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import kakao.login.service.ChatRoomRosterCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 참가자 추가/퇴장/재입장과 채팅방 삭제 시 ChatRoomRosterCache의 해당 채팅방만 무효화합니다.
+ * 읽음 워터마크(lastReadAt)나 채팅방 lastActivity 갱신처럼 참가 상태가 바뀌지 않는 UPDATE는 무시합니다.
+ */
+@Component
+public class ChatRoomRosterListener {
+
+    // 엔티티 리스너는 Hibernate가 생성하므로 캐시 빈이 없는 환경(JPA 슬라이스 테스트 등)에서도 동작하도록 지연 조회
+    @Autowired
+    private ObjectProvider<ChatRoomRosterCache> rosterCache;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        if (entity instanceof ChatRoomParticipant participant
+                && participant.consumeMembershipChanged()
+                && participant.getChatRoom() != null) {
+            invalidate(participant.getChatRoom().getId());
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof ChatRoomParticipant participant && participant.getChatRoom() != null) {
+            invalidate(participant.getChatRoom().getId());
+        } else if (entity instanceof ChatRoom room) {
+            invalidate(room.getId());
+        }
+    }
+
+    private void invalidate(Long roomId) {
+        rosterCache.ifAvailable(cache -> cache.invalidate(roomId));
+    }
+}
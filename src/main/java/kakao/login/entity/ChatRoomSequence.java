@@ -0,0 +1,18 @@
+package kakao.login.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 채팅방별 마지막으로 할당된 메시지 순번
+ */
+@Document(collection = "chat_room_sequences")
+@Getter
+@Setter
+public class ChatRoomSequence {
+    @Id
+    private Long roomId;
+    private long seq;
+}
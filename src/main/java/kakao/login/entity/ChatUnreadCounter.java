@@ -0,0 +1,42 @@
+package kakao.login.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * (roomId, userId)별 읽지 않은 메시지 수 카운터.
+ * 메시지 전송 시 $inc로 증가하고, 읽음 처리 시 워터마크 이후 증가분만 남기도록 한 번의 update로 초기화합니다.
+ * count가 바뀔 때마다 같은 증감량을 사용자별 합계(ChatUnreadTotal)에도 반영합니다.
+ */
+@Document(collection = "chat_unread_counters")
+@Getter
+@Setter
+public class ChatUnreadCounter {
+    @Id
+    private String id; // "roomId:userId"
+
+    private Long roomId;
+    private String userId;
+    private long count;
+    /** 카운터를 계산한 시점의 참가자 joinedAt (재입장 시 카운터를 다시 계산하기 위한 기준) */
+    private LocalDateTime joinedAt;
+    /** 마지막 읽음 처리 워터마크. 이 시각 이전 메시지의 증가는 적용하지 않음 */
+    private LocalDateTime readAt;
+    /** 최근 증가를 일으킨 메시지 시각 (읽음 처리 시 워터마크 이후 증가분을 다시 세기 위해 보관) */
+    private List<LocalDateTime> recent = new ArrayList<>();
+    /** 최근 이 카운터를 변경한 update 식별자 (여러 카운터를 한 번에 변경한 뒤 실제로 변경된 카운터를 찾기 위해 보관) */
+    private List<String> ops = new ArrayList<>();
+    /** 마지막 읽음 처리 직전의 count (배지 합계 증감 계산용) */
+    private long prevCount;
+    private LocalDateTime updatedAt;
+
+    public static String idOf(Long roomId, String userId) {
+        return roomId + ":" + userId;
+    }
+}
@@ -0,0 +1,23 @@
+package kakao.login.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 전체 unread 합계 (배지 표시용).
+ * 사용자의 ChatUnreadCounter.count 합계와 같도록 카운터를 바꾸는 update마다 같은 증감량을 $inc로 반영합니다.
+ */
+@Document(collection = "chat_unread_totals")
+@Getter
+@Setter
+public class ChatUnreadTotal {
+    @Id
+    private String userId;
+
+    private long total;
+    private LocalDateTime updatedAt;
+}
@@ -13,8 +13,11 @@ import lombok.Setter;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Base64;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
+@EntityListeners(UserAccountListener.class) // 삭제/변경 시 검증된 토큰 캐시 제거
 @Entity
 @Table(name = "employee")
 @Getter
@@ -44,27 +47,33 @@ public class EmployeeEntity {
 
     private String position;
 
-    @Lob
-    @JsonIgnore
-    @Column(name = "profile_image")
-    private byte[] profileImage;
+    // 프로필 이미지 내용 해시 (이미지 URL 버전 및 ETag로 사용, 이미지가 바뀔 때만 변경)
+    @Column(name = "profile_image_version", length = 64)
+    private String profileImageVersion;
 
     // 카카오 UUID는 UserEntity에서 가져옵니다.
     @Column(name = "kakao_uuid")
     private String kakaoUuid;
 
-    @Transient
-    private String profileImageBase64;
+    // 프로필 이미지 조회 URL (이미지 바이트는 직원 정보에 포함하지 않음, 버전이 바뀌면 URL도 바뀜)
+    @JsonProperty("profile_image_url")
+    public String getProfileImageUrl() {
+        if (id == null || profileImageVersion == null) {
+            return null;
+        }
+        return "/api/v1/employees/" + id + "/profile-image?v=" + profileImageVersion;
+    }
 
-    @JsonProperty("profile_image")
-    public String getProfileImageBase64() {
-        if (profileImage != null && profileImage.length > 0) {
-            String base64 = Base64.getEncoder().encodeToString(profileImage);
-//            System.out.println("Base64 Encoded Image: " + base64.substring(0, 50) + "...");
-            return base64;
+    public static String versionOf(byte[] image) {
+        if (image == null || image.length == 0) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(image);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        System.out.println("profileImage is null or empty");
-        return null;
     }
 
     public String getKakaoUuid() {
@@ -0,0 +1,50 @@
+package kakao.login.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 직원 프로필 이미지 저장소 (employee 테이블과 분리하여 직원 조회 시 이미지 BLOB을 읽지 않도록 함)
+ * 업로드 시 썸네일/원본 크기 두 가지를 한 번만 생성해 저장합니다.
+ */
+@Entity
+@Table(name = "employee_profile_image")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmployeeProfileImageEntity {
+
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "thumbnail", nullable = false)
+    private byte[] thumbnail;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "full_image", nullable = false)
+    private byte[] fullImage;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    // EmployeeEntity.profileImageVersion과 동일한 값 (원본 이미지 내용 해시)
+    @Column(name = "version", nullable = false, length = 64)
+    private String version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void updateTimestamp() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
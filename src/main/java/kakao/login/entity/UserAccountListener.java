@@ -0,0 +1,46 @@
+package kakao.login.entity;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import kakao.login.provider.VerifiedTokenCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 사용자/직원 삭제·변경(role 변경, 퇴사 처리 등) 시 VerifiedTokenCache에서 해당 userId의 검증 결과를 제거합니다.
+ * 커밋 전에 다른 요청이 이전 값으로 다시 캐시할 수 있으므로 트랜잭션 종료 후 한 번 더 제거합니다.
+ */
+@Component
+public class UserAccountListener {
+
+    // 엔티티 리스너는 Hibernate가 생성하므로 캐시 빈이 없는 환경(JPA 슬라이스 테스트 등)에서도 동작하도록 지연 조회
+    @Autowired
+    private ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        if (entity instanceof UserEntity user) {
+            invalidate(user.getUserId());
+        } else if (entity instanceof EmployeeEntity employee && employee.getUser() != null) {
+            invalidate(employee.getUser().getUserId());
+        }
+    }
+
+    private void invalidate(String userId) {
+        verifiedTokenCache.ifAvailable(cache -> {
+            cache.invalidateUser(userId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.invalidateUser(userId);
+                    }
+                });
+            }
+        });
+    }
+}
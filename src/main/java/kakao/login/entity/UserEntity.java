@@ -14,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(UserAccountListener.class) // 삭제/변경 시 검증된 토큰 캐시 제거
 @Entity(name="user")  // "user" 테이블과 매핑되는 엔티티 클래스
 @Table(name="user")  // 테이블 이름 지정
 public class UserEntity {
@@ -1,11 +1,13 @@
 package kakao.login.filter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import kakao.login.entity.UserEntity;
 import kakao.login.provider.JwtProvider;
+import kakao.login.provider.VerifiedTokenCache;
 import kakao.login.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
@@ -29,6 +31,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
     private final UserRepository userRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -45,22 +48,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            String userId = String.valueOf(jwtProvider.validate(token));
-            if (userId == null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
+            // 이미 검증한 토큰이면 서명 검증과 role 조회를 건너뜀
+            String tokenHash = VerifiedTokenCache.hashOf(token);
+            VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(tokenHash);
+            String userId;
+            List<GrantedAuthority> authorities;
+            if (verified != null) {
+                userId = verified.getUserId();
+                authorities = verified.getAuthorities();
+            } else {
+                Claims claims = jwtProvider.parseAccessToken(token);
+                if (claims == null || claims.getSubject() == null) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                userId = claims.getSubject();
 
-            UserEntity userEntity = userRepository.findByUserId(userId);
-            if (userEntity == null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
+                UserEntity userEntity = userRepository.findByUserId(userId);
+                if (userEntity == null) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-            String roleFromDb = userEntity.getRole();
-            String formattedRole = roleFromDb.startsWith("ROLE_") ? roleFromDb : "ROLE_" + roleFromDb;
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            authorities.add(new SimpleGrantedAuthority(formattedRole));
+                String roleFromDb = userEntity.getRole();
+                String formattedRole = roleFromDb.startsWith("ROLE_") ? roleFromDb : "ROLE_" + roleFromDb;
+                authorities = new ArrayList<>();
+                authorities.add(new SimpleGrantedAuthority(formattedRole));
+                verifiedTokenCache.put(tokenHash, userId, authorities,
+                        claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+            }
 
             AbstractAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(userId, null, authorities);
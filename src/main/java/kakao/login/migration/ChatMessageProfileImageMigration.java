@@ -0,0 +1,61 @@
+package kakao.login.migration;
+
+import kakao.login.entity.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * chat_messages 문서에 복사되어 있던 profileImageBase64 필드를 배치 단위로 제거합니다.
+ * 한 번에 batchSize개의 _id만 조회한 뒤 $unset하므로 대용량 컬렉션에서도 메모리/락 부담이 작습니다.
+ */
+@Component
+@Slf4j
+@Profile("strip-profile-images") // Only run when 'strip-profile-images' profile is active
+public class ChatMessageProfileImageMigration implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${migration.strip-profile-images.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    public ChatMessageProfileImageMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        String collection = mongoTemplate.getCollectionName(ChatMessage.class);
+        long total = 0;
+        while (true) {
+            Query idQuery = new Query(Criteria.where("profileImageBase64").exists(true)).limit(batchSize);
+            idQuery.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(idQuery, Document.class, collection).stream()
+                    .map(doc -> doc.get("_id"))
+                    .collect(Collectors.toList());
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            long modified = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("_id").in(ids)),
+                    new Update().unset("profileImageBase64"),
+                    collection).getModifiedCount();
+            total += modified;
+            log.info("Stripped profileImageBase64 from {} messages ({} total)", modified, total);
+        }
+        log.info("Profile image strip migration completed: {} messages updated", total);
+    }
+}
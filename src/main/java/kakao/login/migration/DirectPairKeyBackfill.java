@@ -0,0 +1,80 @@
+package kakao.login.migration;
+
+import kakao.login.entity.ChatRoom;
+import kakao.login.repository.ChatRoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * 기존 1:1 채팅방에 직원 쌍 키(direct_pair_key)를 채웁니다.
+ * id 순으로 batchSize개씩 처리하며, 참가 직원이 정확히 두 명인 채팅방만 대상입니다.
+ * 같은 직원 쌍의 채팅방이 여러 개면 가장 먼저 만들어진 방에만 키를 부여하고 나머지는 그대로 둡니다.
+ * 완료 후에는 chat.direct-room.legacy-lookup=false로 키가 없는 채팅방 조회를 끌 수 있습니다.
+ */
+@Component
+@Slf4j
+@Profile("backfill-direct-pair-keys") // Only run when 'backfill-direct-pair-keys' profile is active
+public class DirectPairKeyBackfill implements CommandLineRunner {
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${migration.backfill-direct-pair-keys.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public DirectPairKeyBackfill(ChatRoomRepository chatRoomRepository, PlatformTransactionManager transactionManager) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        long afterId = 0;
+        int updated = 0;
+        int skipped = 0;
+        while (true) {
+            List<Long> roomIds = chatRoomRepository.findDirectRoomIdsWithoutPairKey(afterId, PageRequest.of(0, batchSize));
+            if (roomIds.isEmpty()) {
+                break;
+            }
+            afterId = roomIds.get(roomIds.size() - 1);
+
+            Map<Long, Set<Long>> employeesByRoom = new LinkedHashMap<>();
+            roomIds.forEach(roomId -> employeesByRoom.put(roomId, new HashSet<>()));
+            for (Object[] row : chatRoomRepository.findParticipantEmployeeIds(roomIds)) {
+                employeesByRoom.get((Long) row[0]).add((Long) row[1]);
+            }
+
+            for (Map.Entry<Long, Set<Long>> entry : employeesByRoom.entrySet()) {
+                if (entry.getValue().size() != 2) {
+                    skipped++;
+                    continue;
+                }
+                Iterator<Long> it = entry.getValue().iterator();
+                String key = ChatRoom.directPairKeyOf(it.next(), it.next());
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            chatRoomRepository.updateDirectPairKey(entry.getKey(), key));
+                    updated++;
+                } catch (DataIntegrityViolationException e) {
+                    // 같은 쌍의 더 오래된 채팅방(또는 백필 이후 생성된 채팅방)이 이미 키를 가짐
+                    log.info("Skipping duplicate direct room {} for pair {}", entry.getKey(), key);
+                    skipped++;
+                }
+            }
+            log.info("Direct pair key backfill: up to room {} ({} updated, {} skipped)", afterId, updated, skipped);
+        }
+        log.info("Direct pair key backfill completed: {} updated, {} skipped", updated, skipped);
+    }
+}
@@ -0,0 +1,95 @@
+package kakao.login.migration;
+
+import kakao.login.entity.EmployeeEntity;
+import kakao.login.repository.EmployeeRepository;
+import kakao.login.service.ProfileImageService;
+import kakao.login.service.SenderIdentityCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * employee.profile_image(기존 BLOB 컬럼)의 이미지를 employee_profile_image로 옮깁니다.
+ * id 순서로 batchSize개씩 id만 조회하고, 이미지는 한 건씩 읽어 변환/저장한 뒤 기존 컬럼을 비웁니다.
+ * 중간에 중단되어도 다시 실행하면 남은 직원부터 이어서 처리합니다.
+ */
+@Component
+@Slf4j
+@Profile("migrate-profile-images") // Only run when 'migrate-profile-images' profile is active
+public class EmployeeProfileImageMigration implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final ProfileImageService profileImageService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SenderIdentityCache senderIdentityCache;
+
+    @Value("${migration.profile-images.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public EmployeeProfileImageMigration(JdbcTemplate jdbcTemplate,
+                                         EmployeeRepository employeeRepository,
+                                         ProfileImageService profileImageService,
+                                         PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.employeeRepository = employeeRepository;
+        this.profileImageService = profileImageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        long lastId = 0;
+        int migrated = 0;
+        int failed = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM employee WHERE profile_image IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                    Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Long id : ids) {
+                lastId = id;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> migrate(id));
+                    migrated++;
+                } catch (Exception e) {
+                    failed++;
+                    log.error("Failed to migrate profile image for employee {}", id, e);
+                }
+            }
+            log.info("Migrated profile images up to employee {} ({} migrated, {} failed)", lastId, migrated, failed);
+        }
+        log.info("Profile image migration completed: {} migrated, {} failed", migrated, failed);
+    }
+
+    private void migrate(Long employeeId) {
+        byte[] original = jdbcTemplate.queryForObject(
+                "SELECT profile_image FROM employee WHERE id = ?", byte[].class, employeeId);
+        EmployeeEntity employee = employeeRepository.findById(employeeId).orElse(null);
+        if (employee == null || original == null || original.length == 0) {
+            return;
+        }
+        try {
+            profileImageService.store(employee, original);
+        } catch (IOException e) {
+            throw new RuntimeException("프로필 이미지 변환 실패: " + employeeId, e);
+        }
+        employeeRepository.save(employee);
+        senderIdentityCache.evict(employee); // 이미지 버전 변경 반영
+        jdbcTemplate.update("UPDATE employee SET profile_image = NULL WHERE id = ?", employeeId);
+    }
+}
@@ -2,6 +2,7 @@ package kakao.login.provider;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -46,13 +47,27 @@ public class JwtProvider {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     private Key signingKey;
     private Key refreshSigningKey;
+    // JwtParser는 불변/스레드 안전하므로 한 번만 생성해 재사용
+    private JwtParser accessTokenParser;
+    private JwtParser refreshTokenParser;
 
     @PostConstruct
     public void init() {
         this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
         this.refreshSigningKey = Keys.hmacShaKeyFor(refreshKey.getBytes(StandardCharsets.UTF_8));
+        this.accessTokenParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setAllowedClockSkewSeconds(30) // Consistent 30-second skew
+                .build();
+        this.refreshTokenParser = Jwts.parserBuilder()
+                .setSigningKey(refreshSigningKey)
+                .setAllowedClockSkewSeconds(30)
+                .build();
         log.info("Access Token Expiration: {}ms", accessTokenExpiration);
         log.info("Refresh Token Expiration: {}ms", refreshTokenExpiration);
     }
@@ -89,14 +104,16 @@ public class JwtProvider {
     }
 
     public String validate(String token) {
+        Claims claims = parseAccessToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * access token 서명/만료 검증 후 claims 반환 (유효하지 않으면 null)
+     */
+    public Claims parseAccessToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .setAllowedClockSkewSeconds(30) // Consistent 30-second skew
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getSubject();
+            return accessTokenParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             log.error("Access token expired: {}", e.getMessage());
             return null;
@@ -108,12 +125,7 @@ public class JwtProvider {
 
     public Optional<String> validateRefreshToken(String refreshToken) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(refreshSigningKey)
-                    .setAllowedClockSkewSeconds(30)
-                    .build()
-                    .parseClaimsJws(refreshToken)
-                    .getBody();
+            Claims claims = refreshTokenParser.parseClaimsJws(refreshToken).getBody();
 
             String tokenType = claims.get("type", String.class);
             if (!"refresh".equals(tokenType)) {
@@ -133,11 +145,7 @@ public class JwtProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .setAllowedClockSkewSeconds(30)
-                    .build()
-                    .parseClaimsJws(token);
+            accessTokenParser.parseClaimsJws(token);
             return true;
         } catch (ExpiredJwtException e) {
             log.error("Token expired: {}", e.getMessage());
@@ -150,12 +158,7 @@ public class JwtProvider {
 
     public String getTokenIdFromRefreshToken(String refreshToken) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(refreshSigningKey)
-                    .setAllowedClockSkewSeconds(30)
-                    .build()
-                    .parseClaimsJws(refreshToken)
-                    .getBody();
+            Claims claims = refreshTokenParser.parseClaimsJws(refreshToken).getBody();
             return claims.getId();
         } catch (Exception e) {
             log.error("Failed to extract token ID: {}", e.getMessage());
@@ -226,6 +229,7 @@ public class JwtProvider {
             if (!token.isExpired()) {
                 token.setRevoked(true);
                 refreshTokenRepository.save(token);
+                verifiedTokenCache.invalidateUser(token.getUser().getUserId());
                 log.info("Refresh token revoked: {}", refreshToken); // 디버깅 로그 추가
             } else {
                 log.warn("Attempted to revoke already expired token: {}", refreshToken);
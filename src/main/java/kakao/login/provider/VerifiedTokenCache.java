@@ -0,0 +1,126 @@
+package kakao.login.provider;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 검증이 끝난 access token → (userId, 권한, 만료 시각) 캐시.
+ * 같은 토큰으로 반복되는 요청은 서명 검증과 사용자 role 조회(DB)를 건너뜁니다.
+ * - 키는 토큰 원문이 아닌 SHA-256 해시
+ * - 토큰 만료 시각과 ttl 중 이른 시각까지 유효 (role 변경이 ttl 안에 반영되도록)
+ * - 로그아웃/refresh token 폐기 시 해당 사용자의 항목을 모두 제거
+ * - 요청마다 전역 락을 잡지 않도록 ConcurrentHashMap 사용, 최대 크기를 넘으면 만료 항목부터 정리하는 근사 eviction
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>(256);
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.verified-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * 캐시된 검증 결과 (없거나 만료되었으면 null)
+     */
+    public VerifiedToken get(String tokenHash) {
+        VerifiedToken verified = entries.get(tokenHash);
+        if (verified == null) {
+            return null;
+        }
+        if (!Instant.now().isBefore(verified.getValidUntil())) {
+            entries.remove(tokenHash, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    public void put(String tokenHash, String userId, List<GrantedAuthority> authorities, Instant expiresAt) {
+        Instant cap = Instant.now().plus(ttl);
+        Instant validUntil = expiresAt != null && expiresAt.isBefore(cap) ? expiresAt : cap;
+        entries.put(tokenHash, new VerifiedToken(userId, List.copyOf(authorities), validUntil));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 최대 크기 초과 시 한 스레드만 정리: 만료 항목을 먼저 제거하고, 그래도 많으면 임의 항목을 최대 크기의 90%까지 제거
+     * (매 put마다 전체를 훑지 않도록 여유를 둠, 제거된 토큰은 다음 요청에서 다시 검증)
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            entries.values().removeIf(verified -> !now.isBefore(verified.getValidUntil()));
+            int target = maxSize - maxSize / 10;
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 사용자의 모든 캐시 항목 제거 (로그아웃, refresh token 폐기 시)
+     */
+    public void invalidateUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        int before = entries.size();
+        entries.values().removeIf(verified -> userId.equals(verified.getUserId()));
+        log.debug("Verified token cache invalidated for {}: {} entries removed", userId, before - entries.size());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String hashOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    public static final class VerifiedToken {
+        private final String userId;
+        private final List<GrantedAuthority> authorities;
+        private final Instant validUntil;
+
+        private VerifiedToken(String userId, List<GrantedAuthority> authorities, Instant validUntil) {
+            this.userId = userId;
+            this.authorities = authorities;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package kakao.login.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatMessageRepositoryCustomImpl의 Query/Criteria 빌더.
+ * 리포지토리와 인덱스 진단(explain)이 같은 빌더를 사용하므로 진단 결과가 실제 쿼리 형태와 어긋나지 않습니다.
+ */
+public final class ChatMessageQueries {
+
+    private ChatMessageQueries() {
+    }
+
+    /**
+     * 커서(timestamp, id) 이전의 메시지를 최신순으로 limit개 (cursorTimestamp가 null이면 가장 최근부터)
+     */
+    public static Query visibleBefore(Long roomId, LocalDateTime visibleSince,
+                                      LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        Criteria criteria = visibleCriteria(roomId, visibleSince);
+        if (cursorTimestamp != null) {
+            // (timestamp, _id) < (cursorTimestamp, cursorId)
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(cursorTimestamp),
+                    new Criteria().andOperator(
+                            Criteria.where("timestamp").is(cursorTimestamp),
+                            Criteria.where("_id").lt(toIdValue(cursorId)))));
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id")))
+                .limit(limit);
+    }
+
+    /**
+     * 커서(timestamp, id) 이후의 메시지를 오래된순으로 limit개
+     */
+    public static Query visibleAfter(Long roomId, LocalDateTime visibleSince,
+                                     LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        // (timestamp, _id) > (cursorTimestamp, cursorId)
+        Criteria criteria = new Criteria().andOperator(visibleCriteria(roomId, visibleSince), new Criteria().orOperator(
+                Criteria.where("timestamp").gt(cursorTimestamp),
+                new Criteria().andOperator(
+                        Criteria.where("timestamp").is(cursorTimestamp),
+                        Criteria.where("_id").gt(toIdValue(cursorId)))));
+        return new Query(criteria)
+                .with(Sort.by(Sort.Order.asc("timestamp"), Sort.Order.asc("_id")))
+                .limit(limit);
+    }
+
+    public static Query visiblePage(Long roomId, LocalDateTime visibleSince, long offset, int limit) {
+        return new Query(visibleCriteria(roomId, visibleSince))
+                .with(Sort.by(Sort.Order.asc("timestamp"), Sort.Order.asc("_id")))
+                .skip(offset)
+                .limit(limit);
+    }
+
+    public static Query countVisible(Long roomId, LocalDateTime visibleSince) {
+        return new Query(visibleCriteria(roomId, visibleSince));
+    }
+
+    public static Query unreadSince(Long roomId, String userId, LocalDateTime since) {
+        return new Query(new Criteria().andOperator(
+                Criteria.where("roomId").is(roomId)
+                        .and("timestamp").gt(since)
+                        .and("senderId").ne(userId)
+                        .and("deleted").is(false),
+                notExitSystemMessage()));
+    }
+
+    public static Query visibleAfterSeq(Long roomId, LocalDateTime visibleSince, long afterSeq, int limit) {
+        return new Query(visibleCriteria(roomId, visibleSince).and("seq").gt(afterSeq))
+                .with(Sort.by(Sort.Order.asc("seq")))
+                .limit(limit);
+    }
+
+    public static Query deletedIdsSince(Long roomId, LocalDateTime since) {
+        Query query = new Query(Criteria.where("roomId").is(roomId)
+                .and("deleted").is(true)
+                .and("deletedAt").gt(since));
+        query.fields().include("_id");
+        return query;
+    }
+
+    public static Query roomsWithDeletionsSince(Collection<Long> roomIds, LocalDateTime since) {
+        return new Query(Criteria.where("roomId").in(roomIds)
+                .and("deleted").is(true)
+                .and("deletedAt").gt(since));
+    }
+
+    /**
+     * countUnreadByRoom의 $match 조건
+     */
+    public static Criteria unreadByRoom(String userId, Map<Long, LocalDateTime> sinceByRoom, Collection<Long> readByRoomIds) {
+        // 채팅방마다 기준 시점이 다르므로 (roomId, timestamp 범위) 조건을 $or로 묶음 (각 조건은 room_deleted_timestamp 인덱스 사용)
+        List<Criteria> roomRanges = new ArrayList<>();
+        sinceByRoom.forEach((roomId, since) -> {
+            Criteria range = Criteria.where("roomId").is(roomId).and("timestamp").gt(since);
+            if (readByRoomIds.contains(roomId)) {
+                range = range.and("readBy").nin(userId);
+            }
+            roomRanges.add(range);
+        });
+        return new Criteria().andOperator(
+                new Criteria().orOperator(roomRanges.toArray(new Criteria[0])),
+                Criteria.where("senderId").ne(userId).and("deleted").is(false),
+                notExitSystemMessage());
+    }
+
+    private static Criteria visibleCriteria(Long roomId, LocalDateTime visibleSince) {
+        return Criteria.where("roomId").is(roomId).and("timestamp").gt(visibleSince);
+    }
+
+    // 삭제되지 않은 퇴장 시스템 메시지는 unread에 포함하지 않음
+    private static Criteria notExitSystemMessage() {
+        return new Criteria().orOperator(
+                Criteria.where("senderName").ne("시스템"),
+                Criteria.where("exitMessage").ne(true));
+    }
+
+    // 메시지 ID는 기본적으로 ObjectId로 저장되므로 비교 시에도 ObjectId로 변환
+    private static Object toIdValue(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
@@ -0,0 +1,72 @@
+package kakao.login.repository;
+
+import kakao.login.entity.ChatMessage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoTemplate 기반으로 구현되는 ChatMessage 커스텀 쿼리.
+ * visibleSince(입장/채팅방 생성 시점) 이후 메시지만 조회하도록 조건을 Mongo 쿼리에 포함합니다.
+ */
+public interface ChatMessageRepositoryCustom {
+
+    /**
+     * 커서(timestamp, id) 이전의 메시지를 최신순으로 limit개 조회 (cursorTimestamp가 null이면 가장 최근부터)
+     */
+    List<ChatMessage> findVisibleBefore(Long roomId, LocalDateTime visibleSince,
+                                        LocalDateTime cursorTimestamp, String cursorId, int limit);
+
+    /**
+     * 커서(timestamp, id) 이후의 메시지를 오래된순으로 limit개 조회
+     */
+    List<ChatMessage> findVisibleAfter(Long roomId, LocalDateTime visibleSince,
+                                       LocalDateTime cursorTimestamp, String cursorId, int limit);
+
+    /**
+     * 오프셋 기반 페이지 조회 (기존 Page API 호환용, 오래된순)
+     */
+    List<ChatMessage> findVisiblePage(Long roomId, LocalDateTime visibleSince, long offset, int limit);
+
+    long countVisible(Long roomId, LocalDateTime visibleSince);
+
+    /**
+     * 읽음 워터마크(since) 이후 userId가 읽지 않은 메시지 수 (roomId + timestamp 범위 카운트)
+     * 삭제된 메시지와 퇴장 시스템 메시지는 제외
+     */
+    long countUnreadSince(Long roomId, String userId, LocalDateTime since);
+
+    /**
+     * 순번(seq) 이후의 메시지를 순번 오름차순으로 limit개 조회 (재연결 동기화용)
+     */
+    List<ChatMessage> findVisibleAfterSeq(Long roomId, LocalDateTime visibleSince, long afterSeq, int limit);
+
+    /**
+     * since 이후 삭제 처리된 메시지 ID 목록
+     */
+    List<String> findDeletedIdsSince(Long roomId, LocalDateTime since);
+
+    /**
+     * 주어진 채팅방 중 since 이후 삭제 처리된 메시지가 있는 채팅방 ID (distinct 한 번)
+     */
+    List<Long> findRoomIdsWithDeletionsSince(Collection<Long> roomIds, LocalDateTime since);
+
+    /**
+     * 여러 채팅방의 unread 수를 한 번의 aggregation($match → $group roomId)으로 계산 (roomId → count, 0인 채팅방은 제외)
+     * sinceByRoom: 채팅방별 기준 시점, readByRoomIds: 워터마크가 없어 readBy 조건을 함께 적용할 채팅방
+     */
+    Map<Long, Long> countUnreadByRoom(String userId, Map<Long, LocalDateTime> sinceByRoom, Collection<Long> readByRoomIds);
+
+    /**
+     * 여러 채팅방의 마지막 메시지를 한 번의 aggregation으로 조회 (roomId → content/attachmentType/timestamp만 채운 메시지)
+     */
+    Map<Long, ChatMessage> findLastMessagesByRoomIds(Collection<Long> roomIds);
+
+    /**
+     * 날짜 구분 메시지를 순서 없는 bulk insert 한 번으로 저장하고 실제로 저장된 메시지만 반환.
+     * (roomId, separatorDate) 중복 키로 실패한 메시지는 다른 노드가 먼저 저장한 것으로 보고 제외하며, 그 외 오류는 그대로 던집니다.
+     */
+    List<ChatMessage> insertDateSeparators(List<ChatMessage> separators);
+}
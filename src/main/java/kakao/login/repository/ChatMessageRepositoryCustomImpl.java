@@ -0,0 +1,155 @@
+package kakao.login.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import kakao.login.entity.ChatMessage;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class ChatMessageRepositoryCustomImpl implements ChatMessageRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public ChatMessageRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<ChatMessage> findVisibleBefore(Long roomId, LocalDateTime visibleSince,
+                                               LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        return mongoTemplate.find(ChatMessageQueries.visibleBefore(roomId, visibleSince, cursorTimestamp, cursorId, limit),
+                ChatMessage.class);
+    }
+
+    @Override
+    public List<ChatMessage> findVisibleAfter(Long roomId, LocalDateTime visibleSince,
+                                              LocalDateTime cursorTimestamp, String cursorId, int limit) {
+        return mongoTemplate.find(ChatMessageQueries.visibleAfter(roomId, visibleSince, cursorTimestamp, cursorId, limit),
+                ChatMessage.class);
+    }
+
+    @Override
+    public List<ChatMessage> findVisiblePage(Long roomId, LocalDateTime visibleSince, long offset, int limit) {
+        return mongoTemplate.find(ChatMessageQueries.visiblePage(roomId, visibleSince, offset, limit), ChatMessage.class);
+    }
+
+    @Override
+    public long countVisible(Long roomId, LocalDateTime visibleSince) {
+        return mongoTemplate.count(ChatMessageQueries.countVisible(roomId, visibleSince), ChatMessage.class);
+    }
+
+    @Override
+    public long countUnreadSince(Long roomId, String userId, LocalDateTime since) {
+        return mongoTemplate.count(ChatMessageQueries.unreadSince(roomId, userId, since), ChatMessage.class);
+    }
+
+    @Override
+    public List<ChatMessage> findVisibleAfterSeq(Long roomId, LocalDateTime visibleSince, long afterSeq, int limit) {
+        return mongoTemplate.find(ChatMessageQueries.visibleAfterSeq(roomId, visibleSince, afterSeq, limit), ChatMessage.class);
+    }
+
+    @Override
+    public List<String> findDeletedIdsSince(Long roomId, LocalDateTime since) {
+        return mongoTemplate.find(ChatMessageQueries.deletedIdsSince(roomId, since), ChatMessage.class).stream()
+                .map(ChatMessage::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> findRoomIdsWithDeletionsSince(Collection<Long> roomIds, LocalDateTime since) {
+        if (roomIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return mongoTemplate.findDistinct(ChatMessageQueries.roomsWithDeletionsSince(roomIds, since),
+                "roomId", ChatMessage.class, Long.class);
+    }
+
+    @Override
+    public Map<Long, Long> countUnreadByRoom(String userId, Map<Long, LocalDateTime> sinceByRoom,
+                                             Collection<Long> readByRoomIds) {
+        if (sinceByRoom.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Criteria criteria = ChatMessageQueries.unreadByRoom(userId, sinceByRoom, readByRoomIds);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("roomId").count().as("count"));
+        Map<Long, Long> counts = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, ChatMessage.class, Document.class).forEach(doc ->
+                counts.put(((Number) doc.get("_id")).longValue(), ((Number) doc.get("count")).longValue()));
+        return counts;
+    }
+
+    @Override
+    public Map<Long, ChatMessage> findLastMessagesByRoomIds(Collection<Long> roomIds) {
+        if (roomIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // room_timestamp_id 인덱스 순서대로 정렬한 뒤 채팅방별 첫 문서만 사용
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("roomId").in(roomIds)),
+                Aggregation.sort(Sort.by(Sort.Order.asc("roomId"), Sort.Order.desc("timestamp"), Sort.Order.desc("_id"))),
+                Aggregation.group("roomId")
+                        .first("content").as("content")
+                        .first("attachmentType").as("attachmentType")
+                        .first("timestamp").as("timestamp"));
+        Map<Long, ChatMessage> lastMessages = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, ChatMessage.class, Document.class).forEach(doc -> {
+            ChatMessage message = new ChatMessage();
+            message.setRoomId(((Number) doc.get("_id")).longValue());
+            message.setContent(doc.getString("content"));
+            message.setAttachmentType(doc.getString("attachmentType"));
+            Date timestamp = doc.getDate("timestamp");
+            if (timestamp != null) {
+                message.setTimestamp(LocalDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault()));
+            }
+            lastMessages.put(message.getRoomId(), message);
+        });
+        return lastMessages;
+    }
+
+    @Override
+    public List<ChatMessage> insertDateSeparators(List<ChatMessage> separators) {
+        if (separators.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // bulk insert는 엔티티에 생성된 _id를 채워 주지 않으므로 미리 지정 (브로드캐스트에 id 사용)
+        separators.stream()
+                .filter(separator -> separator.getId() == null)
+                .forEach(separator -> separator.setId(new ObjectId().toHexString()));
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class);
+        bulk.insert(separators);
+        try {
+            bulk.execute();
+            return separators;
+        } catch (BulkOperationException e) {
+            Set<Integer> lost = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_CODE) {
+                    throw e;
+                }
+                lost.add(error.getIndex());
+            }
+            List<ChatMessage> stored = new ArrayList<>();
+            for (int i = 0; i < separators.size(); i++) {
+                if (!lost.contains(i)) {
+                    stored.add(separators.get(i));
+                }
+            }
+            return stored;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package kakao.login.repository;
+
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.ChatRoomSequence;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * 새로 저장되는 ChatMessage에 채팅방별 순번(seq)을 할당합니다.
+ * chat_room_sequences 문서를 findAndModify($inc)로 원자적으로 증가시키므로 여러 서버에서도 순번이 겹치지 않습니다.
+ */
+@Component
+public class ChatMessageSequenceGenerator implements BeforeConvertCallback<ChatMessage> {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ChatMessageSequenceGenerator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public ChatMessage onBeforeConvert(ChatMessage message, String collection) {
+        // 수정 저장(삭제 처리 등)은 기존 순번 유지
+        if (message.getSeq() == null && message.getId() == null && message.getRoomId() != null) {
+            message.setSeq(nextSeq(message.getRoomId()));
+        }
+        return message;
+    }
+
+    public long nextSeq(Long roomId) {
+        return reserve(roomId, 1).getLast();
+    }
+
+    /**
+     * 채팅방의 순번 n개를 한 번의 findAndModify($inc n)로 예약. 예약된 구간은 다른 서버와 겹치지 않음
+     */
+    public SeqRange reserve(Long roomId, int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        ChatRoomSequence sequence = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(roomId)),
+                new Update().inc("seq", (long) n),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                ChatRoomSequence.class);
+        return new SeqRange(sequence.getSeq() - n + 1, sequence.getSeq());
+    }
+
+    /**
+     * 예약된 순번 구간 [first, last]
+     */
+    public static final class SeqRange {
+        private final long first;
+        private final long last;
+        private long next;
+
+        private SeqRange(long first, long last) {
+            this.first = first;
+            this.last = last;
+            this.next = first;
+        }
+
+        public long getFirst() {
+            return first;
+        }
+
+        public long getLast() {
+            return last;
+        }
+
+        public int size() {
+            return (int) (last - first + 1);
+        }
+
+        /**
+         * 구간의 다음 순번 (구간을 모두 사용하면 예외)
+         */
+        public long next() {
+            if (next > last) {
+                throw new IllegalStateException("Sequence range exhausted: " + first + ".." + last);
+            }
+            return next++;
+        }
+    }
+}
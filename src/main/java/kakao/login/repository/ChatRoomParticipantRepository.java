@@ -2,10 +2,13 @@ package kakao.login.repository;
 
 import kakao.login.entity.ChatRoomParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +35,25 @@ public interface ChatRoomParticipantRepository extends JpaRepository<ChatRoomPar
     Optional<ChatRoomParticipant> findActiveByChatRoomIdAndUserId(
             @Param("roomId") Long roomId,
             @Param("userId") String userId);
-}
\ No newline at end of file
+
+    // 로스터 캐시용: 활성 참가자의 [employeeId, userId]만 조회
+    @Query("SELECT e.id, u.userId FROM ChatRoomParticipant p JOIN p.employee e JOIN e.user u " +
+            "WHERE p.chatRoom.id = :roomId AND p.active = true")
+    List<Object[]> findActiveMemberIdsByRoomId(@Param("roomId") Long roomId);
+
+    // 배지 합계용: 사용자들의 활성 참가 [userId, roomId, joinedAt, lastReadAt]
+    @Query("SELECT u.userId, p.chatRoom.id, p.joinedAt, p.lastReadAt FROM ChatRoomParticipant p " +
+            "JOIN p.employee e JOIN e.user u WHERE u.userId IN :userIds AND p.active = true")
+    List<Object[]> findActiveWatermarksByUserIds(@Param("userIds") Collection<String> userIds);
+
+    // 대량 발송용: 나간 참가자가 있는 채팅방 ID
+    @Query("SELECT DISTINCT p.chatRoom.id FROM ChatRoomParticipant p " +
+            "WHERE p.chatRoom.id IN :roomIds AND p.active = false AND p.lastLeftAt IS NOT NULL")
+    List<Long> findRoomIdsWithLeftParticipants(@Param("roomIds") Collection<Long> roomIds);
+
+    // 대량 발송용: 나간 참가자를 한 번에 재입장 처리 (ChatRoomParticipant.rejoin()과 같은 변경, 엔티티 리스너는 호출되지 않음)
+    @Modifying
+    @Query("UPDATE ChatRoomParticipant p SET p.active = true, p.joinedAt = :joinedAt " +
+            "WHERE p.chatRoom.id IN :roomIds AND p.active = false AND p.lastLeftAt IS NOT NULL")
+    int rejoinLeftParticipants(@Param("roomIds") Collection<Long> roomIds, @Param("joinedAt") LocalDateTime joinedAt);
+}
@@ -1,11 +1,15 @@
 package kakao.login.repository;
 
 import kakao.login.entity.ChatRoom;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,31 +30,58 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
             "WHERE p.employee.user.userId = :userId AND p.active = true")
     List<ChatRoom> findByParticipantUserId(@Param("userId") String userId);
 
+    // findById + 참가자 로스터(참가자/직원/유저/부서/구역)를 한 번의 쿼리로 조회
+    @EntityGraph(ChatRoom.ROSTER_GRAPH)
+    @Query("SELECT cr FROM ChatRoom cr WHERE cr.id = :roomId")
+    Optional<ChatRoom> findWithRosterById(@Param("roomId") Long roomId);
+
+    // findByParticipantUserId + 참가자 로스터 (조건용 참가자와 로스터 fetch가 섞이지 않도록 EXISTS 사용)
+    @EntityGraph(ChatRoom.ROSTER_GRAPH)
+    @Query("SELECT DISTINCT cr FROM ChatRoom cr " +
+            "WHERE EXISTS (SELECT me FROM ChatRoomParticipant me " +
+            "              WHERE me.chatRoom = cr AND me.employee.user.userId = :userId AND me.active = true)")
+    List<ChatRoom> findWithRosterByParticipantUserId(@Param("userId") String userId);
+
     // Find room IDs for a user with active participation
     @Query("SELECT cr.id FROM ChatRoom cr JOIN cr.chatRoomParticipants p " +
             "WHERE p.employee.user.userId = :userId AND p.active = true")
     List<Long> findRoomIdsByUserId(@Param("userId") String userId);
 
-    // Find direct chat room between two participants
-    @Query("SELECT r " +
+    // 직원 쌍 키가 없는 기존 1:1 채팅방 조회 (백필 전 데이터 호환용, [peerEmployeeId, roomId])
+    @Query("SELECT p2.employee.id, r.id " +
             "FROM ChatRoom r " +
             " JOIN r.chatRoomParticipants p1 " +
             " JOIN r.chatRoomParticipants p2 " +
             "WHERE r.isGroupChat = false " +
-            "  AND p1.employee.id = :user1Id " +
-            "  AND p2.employee.id = :user2Id " +
+            "  AND r.directPairKey IS NULL " +
+            "  AND p1.employee.id = :employeeId " +
+            "  AND p2.employee.id IN :peerIds " +
             "  AND SIZE(r.chatRoomParticipants) = 2")
-    Optional<ChatRoom> findDirectChatRoomByParticipantIds(@Param("user1Id") Long user1Id,
-                                                          @Param("user2Id") Long user2Id);
-
-    // Find direct chat room between two participants by userId
-    @Query("SELECT cr FROM ChatRoom cr " +
-            "WHERE cr.isGroupChat = false " +
-            "AND EXISTS (SELECT p1 FROM ChatRoomParticipant p1 WHERE p1.chatRoom = cr AND p1.employee.user.userId = :user1Id) " +
-            "AND EXISTS (SELECT p2 FROM ChatRoomParticipant p2 WHERE p2.chatRoom = cr AND p2.employee.user.userId = :user2Id)")
-    Optional<ChatRoom> findDirectChatRoom(
-            @Param("user1Id") String user1Id,
-            @Param("user2Id") String user2Id);
+    List<Object[]> findLegacyDirectRoomIds(@Param("employeeId") Long employeeId,
+                                           @Param("peerIds") Collection<Long> peerIds);
+
+    // 직원 쌍 키로 1:1 채팅방 조회 (uk_chat_rooms_direct_pair_key 인덱스)
+    Optional<ChatRoom> findByDirectPairKey(String directPairKey);
+
+    // 여러 직원 쌍 키의 1:1 채팅방을 참가자와 함께 조회 (채팅방 생성 직후 참가자 추가용)
+    @EntityGraph(attributePaths = "chatRoomParticipants")
+    List<ChatRoom> findByDirectPairKeyIn(Collection<String> directPairKeys);
+
+    // 여러 직원 쌍 키의 1:1 채팅방 ID를 한 번에 조회 ([directPairKey, roomId])
+    @Query("SELECT r.directPairKey, r.id FROM ChatRoom r WHERE r.directPairKey IN :keys")
+    List<Object[]> findIdsByDirectPairKeys(@Param("keys") Collection<String> keys);
+
+    // 백필용: 직원 쌍 키가 없는 1:1 채팅방 ID (id 순)
+    @Query("SELECT r.id FROM ChatRoom r WHERE r.isGroupChat = false AND r.directPairKey IS NULL AND r.id > :afterId ORDER BY r.id")
+    List<Long> findDirectRoomIdsWithoutPairKey(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 백필용: 채팅방별 참가 직원 ID ([roomId, employeeId])
+    @Query("SELECT p.chatRoom.id, p.employee.id FROM ChatRoomParticipant p WHERE p.chatRoom.id IN :roomIds")
+    List<Object[]> findParticipantEmployeeIds(@Param("roomIds") Collection<Long> roomIds);
+
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.directPairKey = :key WHERE r.id = :roomId")
+    int updateDirectPairKey(@Param("roomId") Long roomId, @Param("key") String key);
 
     // Find rooms by department
     @Query("SELECT DISTINCT cr FROM ChatRoom cr JOIN cr.chatRoomParticipants p " +
@@ -0,0 +1,23 @@
+package kakao.login.repository;
+
+import kakao.login.entity.EmployeeProfileImageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EmployeeProfileImageRepository extends JpaRepository<EmployeeProfileImageEntity, Long> {
+
+    // 요청한 크기의 이미지 컬럼만 조회 (다른 크기의 BLOB은 읽지 않음)
+    @Query("SELECT p.thumbnail FROM EmployeeProfileImageEntity p WHERE p.employeeId = :employeeId")
+    Optional<byte[]> findThumbnailByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query("SELECT p.fullImage FROM EmployeeProfileImageEntity p WHERE p.employeeId = :employeeId")
+    Optional<byte[]> findFullImageByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query("SELECT p.contentType FROM EmployeeProfileImageEntity p WHERE p.employeeId = :employeeId")
+    Optional<String> findContentTypeByEmployeeId(@Param("employeeId") Long employeeId);
+}
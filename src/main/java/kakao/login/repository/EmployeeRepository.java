@@ -37,6 +37,9 @@ public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Long>
     List<EmployeeEntity> findByNameContaining(String keyword);
     List<EmployeeEntity> findByNameContainingAndDepartment_DepartmentName(String keyword, String departmentName);
 
+    @Query("SELECT e.profileImageVersion FROM EmployeeEntity e WHERE e.id = :id AND e.profileImageVersion IS NOT NULL")
+    Optional<String> findProfileImageVersionById(@Param("id") Long id);
+
     @Query("SELECT e FROM EmployeeEntity e LEFT JOIN FETCH e.user u WHERE u.userId = :userId")
     Optional<EmployeeEntity> findEmployeeWithUser(@Param("userId") String userId);
     // 추가된 부분: 카카오 UUID 목록 조회
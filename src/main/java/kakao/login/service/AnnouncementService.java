@@ -0,0 +1,214 @@
+package kakao.login.service;
+
+import kakao.login.dto.request.message.AnnouncementDto;
+import kakao.login.dto.request.message.AnnouncementRequestDto;
+import kakao.login.entity.Announcement;
+import kakao.login.entity.AnnouncementReadState;
+import kakao.login.repository.EmployeeRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 공지 채널. 공지 한 건을 대상(전체/부서/직원)과 함께 한 번만 저장하고 대상 토픽으로 한 번만 발행합니다.
+ * - 전체: /topic/announcements
+ * - 부서: /topic/announcements/department/{부서명}
+ * - 직원: /user/queue/announcements (대상 직원에게만)
+ * 사용자별로는 읽음 워터마크(lastReadAt)만 저장하고, 받은 공지 목록과 unread 수는 조회 시점에 계산합니다.
+ */
+@Service
+@Slf4j
+public class AnnouncementService {
+
+    public static final String ALL_TOPIC = "/topic/announcements";
+    public static final String DEPARTMENT_TOPIC_PREFIX = "/topic/announcements/department/";
+    public static final String USER_QUEUE = "/queue/announcements";
+    private static final int DEFAULT_LIMIT = 30;
+    private static final int MAX_LIMIT = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final SenderIdentityCache senderIdentityCache;
+
+    @Autowired
+    public AnnouncementService(MongoTemplate mongoTemplate,
+                               SimpMessagingTemplate messagingTemplate,
+                               EmployeeRepository employeeRepository,
+                               SenderIdentityCache senderIdentityCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.employeeRepository = employeeRepository;
+        this.senderIdentityCache = senderIdentityCache;
+    }
+
+    /**
+     * 공지 저장 후 대상 토픽으로 발행.
+     * 관리자가 아니면(공지 담당자) 본인 부서 대상 공지만 발송할 수 있습니다.
+     */
+    public Announcement publish(String senderUserId, AnnouncementRequestDto request, boolean admin) {
+        if (request.getMessage() == null || request.getMessage().isBlank()) {
+            throw new IllegalArgumentException("message must not be empty");
+        }
+        Announcement.Audience audience = request.getAudience() != null ? request.getAudience() : Announcement.Audience.ALL;
+        List<String> departmentNames = distinct(request.getDepartmentIds());
+        List<Long> employeeIds = distinct(request.getEmployeeIds());
+        if (audience == Announcement.Audience.DEPARTMENT && departmentNames.isEmpty()) {
+            throw new IllegalArgumentException("departmentIds must be provided for DEPARTMENT audience");
+        }
+        if (audience == Announcement.Audience.EMPLOYEES && employeeIds.isEmpty()) {
+            throw new IllegalArgumentException("employeeIds must be provided for EMPLOYEES audience");
+        }
+
+        SenderIdentityCache.SenderIdentity sender = senderIdentityCache.get(senderUserId);
+        if (!admin && (audience != Announcement.Audience.DEPARTMENT
+                || !departmentNames.equals(List.of(String.valueOf(sender.getDepartmentName()))))) {
+            throw new AccessDeniedException("Only administrators can publish announcements outside their own department");
+        }
+        Announcement announcement = new Announcement();
+        announcement.setSenderId(sender.getUserId());
+        announcement.setSenderName(sender.getName());
+        announcement.setSenderDepartment(sender.getDepartmentName());
+        announcement.setSenderEmployeeId(sender.getEmployeeId());
+        announcement.setContent(request.getMessage());
+        announcement.setAudience(audience);
+        announcement.setDepartmentNames(audience == Announcement.Audience.DEPARTMENT ? departmentNames : new ArrayList<>());
+        announcement.setEmployeeIds(audience == Announcement.Audience.EMPLOYEES ? employeeIds : new ArrayList<>());
+        // Mongo Date는 밀리초까지만 저장하므로 워터마크 비교 기준을 맞춤
+        announcement.setCreatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        Announcement saved = mongoTemplate.insert(announcement);
+
+        AnnouncementDto dto = AnnouncementDto.of(saved, null);
+        switch (audience) {
+            case ALL -> messagingTemplate.convertAndSend(ALL_TOPIC, dto);
+            case DEPARTMENT -> departmentNames.forEach(name ->
+                    messagingTemplate.convertAndSend(DEPARTMENT_TOPIC_PREFIX + name, dto));
+            case EMPLOYEES -> employeeRepository.findAllById(employeeIds).stream()
+                    .filter(e -> e.getUser() != null)
+                    .map(e -> e.getUser().getUserId())
+                    .forEach(uid -> messagingTemplate.convertAndSendToUser(uid, USER_QUEUE, dto));
+        }
+        log.info("Announcement {} published by {} to {} (departments={}, employees={})",
+                saved.getId(), senderUserId, audience, departmentNames.size(), employeeIds.size());
+        return saved;
+    }
+
+    /**
+     * 모든 대상에 공지를 발송할 수 있는 관리자인지 여부
+     */
+    public static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    /**
+     * 사용자가 받은 공지 목록 (최신순, before 이전). 읽음 여부는 워터마크 기준
+     */
+    public List<AnnouncementDto> getInbox(String userId, LocalDateTime before, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Criteria criteria = visibleTo(userId);
+        if (before != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("createdAt").lt(before));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(size);
+        LocalDateTime lastReadAt = getLastReadAt(userId);
+        return mongoTemplate.find(query, Announcement.class).stream()
+                .map(a -> AnnouncementDto.of(a, lastReadAt))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 채팅방 목록/배지용 요약 (가장 최근 공지와 읽지 않은 공지 수). 받은 공지가 없으면 empty
+     */
+    public Optional<InboxSummary> summarize(String userId) {
+        Criteria visible = visibleTo(userId);
+        Announcement latest = mongoTemplate.findOne(
+                new Query(visible).with(Sort.by(Sort.Direction.DESC, "createdAt")), Announcement.class);
+        if (latest == null) {
+            return Optional.empty();
+        }
+        LocalDateTime lastReadAt = getLastReadAt(userId);
+        long unread = 0;
+        if (lastReadAt == null || latest.getCreatedAt().isAfter(lastReadAt)) {
+            Criteria unreadCriteria = lastReadAt == null ? visible
+                    : new Criteria().andOperator(visible, Criteria.where("createdAt").gt(lastReadAt));
+            unread = mongoTemplate.count(new Query(unreadCriteria), Announcement.class);
+        }
+        return Optional.of(new InboxSummary(latest, unread));
+    }
+
+    /**
+     * 받은 공지를 모두 읽음 처리 (워터마크를 가장 최근 공지 시각으로 이동, 뒤로 가지 않음)
+     */
+    public LocalDateTime markRead(String userId) {
+        Announcement latest = mongoTemplate.findOne(
+                new Query(visibleTo(userId)).with(Sort.by(Sort.Direction.DESC, "createdAt")), Announcement.class);
+        if (latest == null) {
+            return getLastReadAt(userId);
+        }
+        LocalDateTime watermark = latest.getCreatedAt();
+        Query query = new Query(Criteria.where("_id").is(userId)
+                .orOperator(Criteria.where("lastReadAt").exists(false), Criteria.where("lastReadAt").lt(watermark)));
+        Update update = new Update().set("lastReadAt", watermark).set("updatedAt", LocalDateTime.now());
+        try {
+            mongoTemplate.upsert(query, update, AnnouncementReadState.class);
+        } catch (DuplicateKeyException e) {
+            // 이미 더 최근 워터마크가 저장된 경우 (조건 불일치로 upsert가 새 문서를 만들려다 충돌)
+            log.debug("Announcement watermark for {} is already newer", userId);
+        }
+        return getLastReadAt(userId);
+    }
+
+    public LocalDateTime getLastReadAt(String userId) {
+        AnnouncementReadState state = mongoTemplate.findById(userId, AnnouncementReadState.class);
+        return state != null ? state.getLastReadAt() : null;
+    }
+
+    // 사용자가 받는 공지: 전체 공지 + 소속 부서 공지 + 본인 대상 공지
+    private Criteria visibleTo(String userId) {
+        Criteria all = Criteria.where("audience").is(Announcement.Audience.ALL.name());
+        Optional<SenderIdentityCache.SenderIdentity> identity = senderIdentityCache.find(userId);
+        if (identity.isEmpty()) {
+            return all;
+        }
+        return new Criteria().orOperator(
+                all,
+                Criteria.where("audience").is(Announcement.Audience.DEPARTMENT.name())
+                        .and("departmentNames").is(identity.get().getDepartmentName()),
+                Criteria.where("audience").is(Announcement.Audience.EMPLOYEES.name())
+                        .and("employeeIds").is(identity.get().getEmployeeId()));
+    }
+
+    private static <T> List<T> distinct(List<T> values) {
+        if (values == null) {
+            return new ArrayList<>();
+        }
+        return values.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    @Getter
+    public static final class InboxSummary {
+        private final Announcement latest;
+        private final long unreadCount;
+
+        private InboxSummary(Announcement latest, long unreadCount) {
+            this.latest = latest;
+            this.unreadCount = unreadCount;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package kakao.login.service;
+
+import kakao.login.dto.request.message.ChatMessageRequestDto;
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.ChatUnreadCounter;
+import kakao.login.entity.EmployeeEntity;
+import kakao.login.repository.ChatMessageRepository;
+import kakao.login.repository.ChatMessageSequenceGenerator;
+import kakao.login.repository.ChatRoomParticipantRepository;
+import kakao.login.repository.EmployeeRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 직원에게 같은 내용을 1:1 메시지로 보내는 대량 발송 엔진 (/broadcast 엔드포인트).
+ * 수신자를 batchSize 단위로 나누어 배치마다
+ * - (JPA 트랜잭션) 1:1 채팅방 조회/생성(직원 쌍 키), 나간 참가자 재입장을 집합 단위 쿼리로 처리해 커밋하고
+ * - (커밋 이후) 채팅방별 순번을 한 번에 예약해 날짜 구분 메시지와 본문 메시지를 한 번의 insertMany로 저장한 뒤
+ * - 채팅방 미리보기(lastMessageContent/lastActivity, ChatRoomSummaryBuffer로 write-behind)와 unread 카운터를 한 번씩 갱신하고
+ * - 배치 단위로 WebSocket 알림을 발행합니다.
+ * Mongo 저장은 MySQL 커밋 이후에 하므로 커밋 실패 시 채팅방 없이 남는 메시지가 생기지 않습니다.
+ */
+@Service
+@Slf4j
+public class BulkDeliveryService {
+
+    private final ChatRoomSummaryBuffer chatRoomSummaryBuffer;
+    private final ChatRoomParticipantRepository participantRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final EmployeeRepository employeeRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    private SenderIdentityCache senderIdentityCache;
+
+    @Autowired
+    private ChatMessageService chatMessageService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private UnreadCountPublisher unreadCountPublisher;
+
+    @Autowired
+    private ChatRoomRosterCache rosterCache;
+
+    @Autowired
+    private ChatRoomService chatRoomService;
+
+    @Autowired
+    private DateSeparatorTracker dateSeparatorTracker;
+
+    @Autowired
+    private ChatRoomListService chatRoomListService;
+
+    @Autowired
+    private ChatMessageSequenceGenerator sequenceGenerator;
+
+    @Autowired
+    public BulkDeliveryService(ChatRoomSummaryBuffer chatRoomSummaryBuffer,
+                               ChatRoomParticipantRepository participantRepository,
+                               ChatMessageRepository chatMessageRepository,
+                               EmployeeRepository employeeRepository,
+                               SimpMessagingTemplate messagingTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${chat.bulk-delivery.batch-size:500}") int batchSize) {
+        this.chatRoomSummaryBuffer = chatRoomSummaryBuffer;
+        this.participantRepository = participantRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.employeeRepository = employeeRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 채팅방 생성은 별도 트랜잭션에서 커밋되므로, 그 결과를 다시 조회할 수 있도록 READ_COMMITTED
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * senderUserId가 recipients 각각에게 content를 1:1 메시지로 발송.
+     * 발신자 본인과 사용자 계정이 없는 직원은 제외하며, 같은 직원이 여러 번 포함되어도 한 번만 발송합니다.
+     */
+    public BulkDeliveryResult deliver(String senderUserId, Collection<EmployeeEntity> recipients, String content) {
+        long startedAt = System.nanoTime();
+        EmployeeEntity senderEmployee = employeeRepository.findByUser_UserId(senderUserId);
+        if (senderEmployee == null) {
+            throw new RuntimeException("Sender not found with userId: " + senderUserId);
+        }
+        SenderIdentityCache.SenderIdentity sender = senderIdentityCache.get(senderUserId);
+
+        Map<Long, EmployeeEntity> targets = new LinkedHashMap<>();
+        for (EmployeeEntity employee : recipients) {
+            if (employee == null || employee.getUser() == null || employee.getId().equals(senderEmployee.getId())) {
+                continue;
+            }
+            targets.putIfAbsent(employee.getId(), employee);
+        }
+
+        BulkDeliveryResult result = new BulkDeliveryResult();
+        List<EmployeeEntity> targetList = new ArrayList<>(targets.values());
+        for (int from = 0; from < targetList.size(); from += batchSize) {
+            List<EmployeeEntity> batch = targetList.subList(from, Math.min(from + batchSize, targetList.size()));
+            RoomBatch rooms = transactionTemplate.execute(status -> resolveRooms(senderEmployee, sender, batch, result));
+            // bulk UPDATE는 엔티티 리스너를 거치지 않으므로 커밋 이후 로스터를 직접 무효화
+            rooms.rejoinedRoomIds.forEach(rosterCache::invalidate);
+            publish(deliverBatch(sender, rooms, content, result));
+        }
+
+        result.recipients = targetList.size();
+        result.elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        result.recipientsPerSecond = result.elapsedMs == 0
+                ? targetList.size() : targetList.size() * 1000.0 / result.elapsedMs;
+        log.info("Bulk delivery from {}: {} recipients, {} rooms created, {} rejoined, {} messages in {} ms ({} recipients/sec)",
+                senderUserId, result.recipients, result.roomsCreated, result.roomsRejoined,
+                result.messagesInserted, result.elapsedMs, String.format("%.1f", result.recipientsPerSecond));
+        return result;
+    }
+
+    /**
+     * 1:1 채팅방 조회/생성과 나간 참가자 재입장 (JPA 트랜잭션 안에서 실행)
+     */
+    private RoomBatch resolveRooms(EmployeeEntity senderEmployee, SenderIdentityCache.SenderIdentity sender,
+                                   List<EmployeeEntity> batch, BulkDeliveryResult result) {
+        Map<Long, EmployeeEntity> byEmployeeId = batch.stream()
+                .collect(Collectors.toMap(EmployeeEntity::getId, e -> e, (a, b) -> a, LinkedHashMap::new));
+
+        // ① 1:1 채팅방 조회/생성 (직원 쌍 키로 한 번에 조회, 없는 방은 한 번에 생성)
+        ChatRoomService.DirectRoomResolution rooms = chatRoomService.resolveDirectRoomIds(
+                senderEmployee.getId(), sender.getUserId(), byEmployeeId.keySet());
+        result.roomsCreated += rooms.getCreated();
+
+        // ② 나간 참가자(발신자 포함) 재입장
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> rejoinedRoomIds = new HashSet<>();
+        List<Long> rejoinRoomIds = participantRepository.findRoomIdsWithLeftParticipants(rooms.getRoomIdByPeer().values());
+        if (!rejoinRoomIds.isEmpty()) {
+            participantRepository.rejoinLeftParticipants(rejoinRoomIds, now);
+            rejoinedRoomIds.addAll(rejoinRoomIds);
+            result.roomsRejoined += rejoinRoomIds.size();
+        }
+        return new RoomBatch(byEmployeeId, rooms.getRoomIdByPeer(), rejoinedRoomIds, now);
+    }
+
+    /**
+     * 커밋된 채팅방에 메시지 저장, 미리보기/unread 카운터 갱신 (트랜잭션 밖에서 실행)
+     */
+    private BatchOutcome deliverBatch(SenderIdentityCache.SenderIdentity sender, RoomBatch rooms,
+                                      String content, BulkDeliveryResult result) {
+        Map<Long, EmployeeEntity> byEmployeeId = rooms.byEmployeeId;
+        Map<Long, Long> roomByEmployeeId = rooms.roomByEmployeeId;
+        Set<Long> rejoinedRoomIds = rooms.rejoinedRoomIds;
+        LocalDateTime now = rooms.resolvedAt;
+
+        // ③ 날짜 구분 메시지가 필요한 채팅방 (처음 보는 채팅방만 한 번의 aggregation으로 적재 후 compare-and-set)
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        dateSeparatorTracker.seedAll(roomByEmployeeId.values());
+        List<Long> separatorRoomIds = new ArrayList<>();
+
+        List<ChatMessage> documents = new ArrayList<>();
+        Map<Long, String> recipientByRoom = new LinkedHashMap<>();
+        Map<Long, Integer> unreadIncrementByRoom = new HashMap<>();
+        Map<Long, LocalDateTime> timestampByRoom = new HashMap<>();
+        Map<Long, ChatMessage> messageByEmployeeId = new LinkedHashMap<>();
+        for (EmployeeEntity recipient : byEmployeeId.values()) {
+            Long roomId = roomByEmployeeId.get(recipient.getId());
+            int increment = 1;
+            if (dateSeparatorTracker.claim(roomId, today)) {
+                documents.add(chatMessageService.createDateSeparator(roomId, today));
+                separatorRoomIds.add(roomId);
+                increment++;
+            }
+            ChatMessage message = sender.toMessage(roomId, content);
+            message.setParticipantCountAtSend(1);
+            message.setReadBy(new ArrayList<>(List.of(sender.getUserId())));
+            documents.add(message);
+
+            messageByEmployeeId.put(recipient.getId(), message);
+            recipientByRoom.put(roomId, recipient.getUser().getUserId());
+            unreadIncrementByRoom.put(roomId, increment);
+            timestampByRoom.put(roomId, message.getTimestamp());
+        }
+
+        // ④ 채팅방별 순번을 한 번에 예약 (문서마다 findAndModify하지 않도록 BeforeConvert 전에 채움)
+        //    날짜 구분 메시지를 먼저 저장 (다른 노드가 이미 저장한 채팅방은 유니크 키 충돌로 제외하고 unread 증가분도 되돌림)
+        //    메시지 insertMany, 채팅방 미리보기 일괄 갱신, unread 카운터 bulk $inc
+        List<ChatMessage> inserted = new ArrayList<>();
+        try {
+            assignSeqs(documents);
+            List<ChatMessage> separators = documents.stream()
+                    .filter(document -> document.getSeparatorDate() != null)
+                    .collect(Collectors.toList());
+            if (!separators.isEmpty()) {
+                List<ChatMessage> storedSeparators = chatMessageRepository.insertDateSeparators(separators);
+                separators.stream()
+                        .filter(separator -> !storedSeparators.contains(separator))
+                        .forEach(separator -> unreadIncrementByRoom.merge(separator.getRoomId(), -1, Integer::sum));
+                inserted.addAll(storedSeparators);
+                separatorRoomIds.clear();
+            }
+            inserted.addAll(chatMessageRepository.insert(documents.stream()
+                    .filter(document -> document.getSeparatorDate() == null)
+                    .collect(Collectors.toList())));
+        } catch (RuntimeException e) {
+            separatorRoomIds.forEach(roomId -> dateSeparatorTracker.release(roomId, today));
+            throw e;
+        }
+        chatRoomSummaryBuffer.recordAll(recipientByRoom.keySet(), content, now);
+        Set<Long> incrementedRoomIds = unreadCounterService.incrementEach(recipientByRoom, unreadIncrementByRoom, timestampByRoom);
+        result.messagesInserted += inserted.size();
+
+        // insert 후 각 문서에 id가 채워짐
+        messageByEmployeeId.forEach((employeeId, message) -> result.messageIdByEmployeeId.put(employeeId, message.getId()));
+
+        return new BatchOutcome(sender.getUserId(), inserted, recipientByRoom, incrementedRoomIds, rejoinedRoomIds, content, now);
+    }
+
+    /**
+     * 커밋된 배치의 메시지와 unread 변경을 발행
+     */
+    private void publish(BatchOutcome outcome) {
+        for (ChatMessage message : outcome.messages) {
+            messagingTemplate.convertAndSend("/topic/chat/" + message.getRoomId(), ChatMessageRequestDto.of(message));
+        }
+
+        // 카운터가 증가한 수신자만 카운터와 배지 합계 문서를 한 번씩 조회
+        Map<Long, String> incremented = new LinkedHashMap<>();
+        outcome.recipientByRoom.forEach((roomId, recipientId) -> {
+            if (outcome.incrementedRoomIds.contains(roomId) && !outcome.rejoinedRoomIds.contains(roomId)) {
+                incremented.put(roomId, recipientId);
+            }
+        });
+        Map<Long, ChatUnreadCounter> counters = unreadCounterService.findEach(incremented);
+        Map<String, Long> totals = chatRoomListService.getTotalUnread(new HashSet<>(incremented.values()));
+        outcome.recipientByRoom.forEach((roomId, recipientId) -> {
+            ChatUnreadCounter counter = counters.get(roomId);
+            if (counter == null) {
+                // 카운터가 없거나 재입장으로 다시 계산해야 하는 경우는 기존 경로(계산 후 발행)로 처리
+                unreadCountPublisher.markDirty(roomId, outcome.senderUserId, List.of(recipientId));
+                return;
+            }
+            Map<String, Object> roomPayload = new HashMap<>();
+            roomPayload.put("userId", outcome.senderUserId);
+            roomPayload.put("lastMessageContent", outcome.content != null ? outcome.content : "");
+            roomPayload.put("lastActivity", outcome.lastActivity);
+            messagingTemplate.convertAndSend("/topic/chat/" + roomId + "/unread-count", roomPayload);
+
+            Map<String, Object> delta = new HashMap<>();
+            delta.put("roomId", roomId);
+            delta.put("unreadCount", counter.getCount());
+            delta.put("totalUnread", totals.getOrDefault(recipientId, counter.getCount()));
+            messagingTemplate.convertAndSendToUser(recipientId, "/queue/unread", delta);
+        });
+    }
+
+    // 채팅방별 문서 수만큼 순번 구간을 예약해 저장 순서대로 할당
+    private void assignSeqs(List<ChatMessage> documents) {
+        Map<Long, List<ChatMessage>> byRoom = documents.stream()
+                .collect(Collectors.groupingBy(ChatMessage::getRoomId, LinkedHashMap::new, Collectors.toList()));
+        byRoom.forEach((roomId, messages) -> {
+            ChatMessageSequenceGenerator.SeqRange range = sequenceGenerator.reserve(roomId, messages.size());
+            messages.forEach(message -> message.setSeq(range.next()));
+        });
+    }
+
+    private static final class RoomBatch {
+        private final Map<Long, EmployeeEntity> byEmployeeId;
+        private final Map<Long, Long> roomByEmployeeId;
+        private final Set<Long> rejoinedRoomIds;
+        private final LocalDateTime resolvedAt;
+
+        private RoomBatch(Map<Long, EmployeeEntity> byEmployeeId, Map<Long, Long> roomByEmployeeId,
+                          Set<Long> rejoinedRoomIds, LocalDateTime resolvedAt) {
+            this.byEmployeeId = byEmployeeId;
+            this.roomByEmployeeId = roomByEmployeeId;
+            this.rejoinedRoomIds = rejoinedRoomIds;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    private static final class BatchOutcome {
+        private final String senderUserId;
+        private final List<ChatMessage> messages;
+        private final Map<Long, String> recipientByRoom;
+        private final Set<Long> incrementedRoomIds;
+        private final Set<Long> rejoinedRoomIds;
+        private final String content;
+        private final LocalDateTime lastActivity;
+
+        private BatchOutcome(String senderUserId, List<ChatMessage> messages, Map<Long, String> recipientByRoom,
+                             Set<Long> incrementedRoomIds, Set<Long> rejoinedRoomIds, String content,
+                             LocalDateTime lastActivity) {
+            this.senderUserId = senderUserId;
+            this.messages = messages;
+            this.recipientByRoom = recipientByRoom;
+            this.incrementedRoomIds = incrementedRoomIds;
+            this.rejoinedRoomIds = rejoinedRoomIds;
+            this.content = content;
+            this.lastActivity = lastActivity;
+        }
+    }
+
+    /**
+     * 대량 발송 결과 (수신자 수, 생성/재입장한 채팅방 수, 저장한 메시지 수, 처리 시간과 초당 수신자 수)
+     */
+    @Getter
+    public static final class BulkDeliveryResult {
+        private int recipients;
+        private int roomsCreated;
+        private int roomsRejoined;
+        private int messagesInserted;
+        private long elapsedMs;
+        private double recipientsPerSecond;
+        // 직원 ID → 본문 메시지 ID
+        private final Map<Long, String> messageIdByEmployeeId = new LinkedHashMap<>();
+
+        public Map<String, Object> toStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("recipients", recipients);
+            stats.put("roomsCreated", roomsCreated);
+            stats.put("roomsRejoined", roomsRejoined);
+            stats.put("messagesInserted", messagesInserted);
+            stats.put("elapsedMs", elapsedMs);
+            stats.put("recipientsPerSecond", recipientsPerSecond);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package kakao.login.service;
+
+import com.mongodb.client.FindIterable;
+import kakao.login.dto.response.diagnostics.QueryPlanReportDto;
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.ChatUnreadCounter;
+import kakao.login.repository.ChatMessageQueries;
+import kakao.login.repository.ChatMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * chat_messages 인덱스 생성 및 리포지토리 쿼리 실행 계획(explain) 점검
+ */
+@Service
+@Slf4j
+public class ChatMessageIndexService {
+
+    private static final Long SAMPLE_ROOM_ID = -1L;
+    private static final String SAMPLE_USER_ID = "__index_diagnostics__";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ChatMessageIndexService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * 엔티티에 선언된 인덱스(@CompoundIndex 등)를 생성. 이미 존재하는 인덱스는 그대로 유지되므로 반복 호출해도 안전
+     */
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : List.of(ChatMessage.class, ChatUnreadCounter.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(index -> {
+                try {
+                    String name = indexOps.ensureIndex(index);
+                    log.info("Ensured Mongo index {} on {}", name, mongoTemplate.getCollectionName(type));
+                } catch (Exception e) {
+                    // 같은 키로 이름이 다른 인덱스가 이미 있는 경우 등 - 기동은 계속 진행
+                    log.warn("Failed to ensure Mongo index {} on {}: {}",
+                            index.getIndexKeys(), mongoTemplate.getCollectionName(type), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * ChatMessageRepository의 주요 쿼리를 explain()하여 컬렉션 스캔 여부를 확인.
+     * 커스텀 쿼리는 리포지토리와 같은 ChatMessageQueries 빌더로, @Query 쿼리는 어노테이션의 JSON에 샘플 값을 바인딩하여 만듦
+     */
+    public List<QueryPlanReportDto> explainRepositoryQueries() {
+        LocalDateTime since = LocalDateTime.now().minusDays(30);
+        LocalDateTime cursor = LocalDateTime.now().minusDays(1);
+        String cursorId = new ObjectId().toHexString();
+
+        List<QueryPlanReportDto> reports = new ArrayList<>();
+        // 파생 쿼리 (메서드 이름으로 생성되는 형태)
+        reports.add(explain("findTop1ByRoomIdOrderByTimestampDesc",
+                new Query(Criteria.where("roomId").is(SAMPLE_ROOM_ID))
+                        .with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(1), false));
+        reports.add(explain("findTop2ByRoomIdOrderByTimestampDesc",
+                new Query(Criteria.where("roomId").is(SAMPLE_ROOM_ID))
+                        .with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(2), false));
+        reports.add(explain("findTop50ByRoomIdOrderByTimestampDesc",
+                new Query(Criteria.where("roomId").is(SAMPLE_ROOM_ID))
+                        .with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(50), false));
+        reports.add(explain("findByRoomIdOrderByTimestampAsc",
+                new Query(Criteria.where("roomId").is(SAMPLE_ROOM_ID))
+                        .with(Sort.by(Sort.Direction.ASC, "timestamp")), false));
+        reports.add(explain("findByRoomIdAndTimestampBetween",
+                new Query(Criteria.where("roomId").is(SAMPLE_ROOM_ID)
+                        .and("timestamp").gt(since).lt(LocalDateTime.now())), false));
+        reports.add(explain("findBySenderId",
+                new Query(Criteria.where("senderId").is(SAMPLE_USER_ID)), false));
+        // 부분 문자열(정규식) 검색은 인덱스를 사용할 수 없음
+        reports.add(explain("findByContentContaining",
+                new Query(Criteria.where("content").regex("diagnostics")), true));
+
+        // 커스텀 쿼리 (ChatMessageRepositoryCustomImpl과 같은 빌더)
+        reports.add(explain("findVisibleBefore",
+                ChatMessageQueries.visibleBefore(SAMPLE_ROOM_ID, since, null, null, 31), false));
+        reports.add(explain("findVisibleBefore(cursor)",
+                ChatMessageQueries.visibleBefore(SAMPLE_ROOM_ID, since, cursor, cursorId, 31), false));
+        reports.add(explain("findVisibleAfter",
+                ChatMessageQueries.visibleAfter(SAMPLE_ROOM_ID, since, cursor, cursorId, 31), false));
+        reports.add(explain("findVisiblePage",
+                ChatMessageQueries.visiblePage(SAMPLE_ROOM_ID, since, 0, 20), false));
+        reports.add(explain("countVisible",
+                ChatMessageQueries.countVisible(SAMPLE_ROOM_ID, since), false));
+        reports.add(explain("countUnreadSince",
+                ChatMessageQueries.unreadSince(SAMPLE_ROOM_ID, SAMPLE_USER_ID, since), false));
+        reports.add(explain("findVisibleAfterSeq",
+                ChatMessageQueries.visibleAfterSeq(SAMPLE_ROOM_ID, since, 0L, 100), false));
+        reports.add(explain("findDeletedIdsSince",
+                ChatMessageQueries.deletedIdsSince(SAMPLE_ROOM_ID, since), false));
+        reports.add(explain("findRoomIdsWithDeletionsSince",
+                ChatMessageQueries.roomsWithDeletionsSince(List.of(SAMPLE_ROOM_ID, SAMPLE_ROOM_ID - 1), since), false));
+        reports.add(explain("countUnreadByRoom",
+                new Query(ChatMessageQueries.unreadByRoom(SAMPLE_USER_ID,
+                        Map.of(SAMPLE_ROOM_ID, since, SAMPLE_ROOM_ID - 1, since), List.of(SAMPLE_ROOM_ID - 1))), false));
+
+        // @Query 쿼리
+        reports.add(explain("countUnreadMessages", annotatedQuery("countUnreadMessages",
+                new Class<?>[]{Long.class, String.class}, SAMPLE_ROOM_ID, SAMPLE_USER_ID), false));
+        reports.add(explain("countUnreadMessagesAfterJoin", annotatedQuery("countUnreadMessagesAfterJoin",
+                new Class<?>[]{Long.class, String.class, Date.class},
+                SAMPLE_ROOM_ID, SAMPLE_USER_ID, toDate(since)), false));
+        reports.add(explain("findUnreadMessagesByRoomIdAndUserId", annotatedQuery("findUnreadMessagesByRoomIdAndUserId",
+                new Class<?>[]{Long.class, String.class}, SAMPLE_ROOM_ID, SAMPLE_USER_ID), false));
+        reports.add(explain("findUnreadMessagesByUserId", annotatedQuery("findUnreadMessagesByUserId",
+                new Class<?>[]{List.class, String.class},
+                List.of(SAMPLE_ROOM_ID, SAMPLE_ROOM_ID - 1), SAMPLE_USER_ID), false));
+        return reports;
+    }
+
+    /**
+     * ChatMessageRepository 메서드의 @Query JSON에 ?0, ?1 ... 자리표시자 값을 바인딩한 쿼리
+     */
+    private Query annotatedQuery(String methodName, Class<?>[] parameterTypes, Object... args) {
+        org.springframework.data.mongodb.repository.Query annotation;
+        try {
+            annotation = ChatMessageRepository.class.getMethod(methodName, parameterTypes)
+                    .getAnnotation(org.springframework.data.mongodb.repository.Query.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("ChatMessageRepository." + methodName + " not found", e);
+        }
+        String json = annotation.value();
+        // ?10 등이 ?1로 먼저 치환되지 않도록 큰 인덱스부터 치환
+        for (int i = args.length - 1; i >= 0; i--) {
+            json = json.replace("?" + i, toJson(args[i]));
+        }
+        return new BasicQuery(json);
+    }
+
+    private static String toJson(Object value) {
+        if (value instanceof Date date) {
+            return "{\"$date\": {\"$numberLong\": \"" + date.getTime() + "\"}}";
+        }
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(ChatMessageIndexService::toJson).collect(Collectors.joining(", ", "[", "]"));
+        }
+        if (value instanceof String text) {
+            return "\"" + text + "\"";
+        }
+        return String.valueOf(value);
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private QueryPlanReportDto explain(String queryName, Query query, boolean collectionScanExpected) {
+        try {
+            MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(ChatMessage.class);
+            QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+            Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+            Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+
+            Document result = mongoTemplate.execute(ChatMessage.class, collection -> {
+                FindIterable<Document> find = collection.find(filter);
+                if (!sort.isEmpty()) {
+                    find = find.sort(sort);
+                }
+                if (query.getLimit() > 0) {
+                    find = find.limit(query.getLimit());
+                }
+                return find.explain();
+            });
+
+            Object winningPlan = result.get("queryPlanner", Document.class).get("winningPlan");
+            Set<String> stages = new LinkedHashSet<>();
+            Set<String> indexNames = new LinkedHashSet<>();
+            collectPlan(winningPlan, stages, indexNames);
+
+            boolean collectionScan = stages.contains("COLLSCAN");
+            return new QueryPlanReportDto(queryName, new ArrayList<>(stages), new ArrayList<>(indexNames),
+                    collectionScan, collectionScanExpected, null);
+        } catch (Exception e) {
+            log.warn("explain() failed for {}: {}", queryName, e.getMessage());
+            return new QueryPlanReportDto(queryName, List.of(), List.of(), false, collectionScanExpected, e.getMessage());
+        }
+    }
+
+    // winningPlan 트리(inputStage/inputStages/queryPlan 등)를 순회하며 stage와 indexName 수집
+    private void collectPlan(Object node, Set<String> stages, Set<String> indexNames) {
+        if (node instanceof Document doc) {
+            Object stage = doc.get("stage");
+            if (stage instanceof String) {
+                stages.add((String) stage);
+            }
+            Object indexName = doc.get("indexName");
+            if (indexName instanceof String) {
+                indexNames.add((String) indexName);
+            }
+            doc.values().forEach(value -> collectPlan(value, stages, indexNames));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectPlan(value, stages, indexNames));
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package kakao.login.service;
 
+import kakao.login.dto.request.message.ChatMessageCursor;
 import kakao.login.dto.request.message.ChatMessageRequestDto;
+import kakao.login.dto.request.message.ChatMessageSliceDto;
+import kakao.login.dto.request.message.ChatSyncRequestDto;
+import kakao.login.dto.request.message.ChatSyncResponseDto;
 import kakao.login.dto.request.message.ChatRoomListDto;
 import kakao.login.entity.*;
 import kakao.login.repository.*;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.*;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
@@ -18,7 +22,6 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +30,9 @@ public class ChatMessageService {
 
     private static final String SYSTEM_SENDER_ID = "SYSTEM";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy년 MM월 dd일");
+    private static final int DEFAULT_HISTORY_LIMIT = 30;
+    private static final int MAX_HISTORY_LIMIT = 100;
+    private static final int MAX_SYNC_ROOMS = 200;
 
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
@@ -39,6 +45,27 @@ public class ChatMessageService {
     @Autowired
     private ChatRoomParticipantRepository participantRepository;
 
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private ChatRoomListService chatRoomListService;
+
+    @Autowired
+    private ChatRoomRosterCache rosterCache;
+
+    @Autowired
+    private UnreadCountPublisher unreadCountPublisher;
+
+    @Autowired
+    private SenderIdentityCache senderIdentityCache;
+
+    @Autowired
+    private DateSeparatorTracker dateSeparatorTracker;
+
+    @Autowired
+    private ChatRoomSummaryBuffer chatRoomSummaryBuffer;
+
     @Autowired
     public ChatMessageService(ChatRoomRepository chatRoomRepository,
                               ChatMessageRepository chatMessageRepository,
@@ -51,62 +78,305 @@ public class ChatMessageService {
 
     @Transactional
     public Page<ChatMessage> getMessages(Long roomId, Pageable pageable, String userId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
+        ChatRoom chatRoom = chatRoomRepository.findWithRosterById(roomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
 
-        if (!chatRoom.hasActiveParticipant(userId)) {
-            log.warn("User {} is not an active participant in room {}", userId, roomId);
+        Optional<ChatRoomParticipant> participantOpt = findActiveParticipant(chatRoom, userId);
+        if (participantOpt.isEmpty()) {
             return Page.empty(pageable);
         }
+        LocalDateTime visibleSince = resolveVisibleSince(chatRoom, participantOpt.get());
+
+        // 읽음 처리 (재진입 시 읽지 않은 메시지만 처리)
+        markVisibleMessagesAsRead(roomId, userId, participantOpt.get());
+
+        // 조회 범위(visibleSince)와 페이지 크기를 Mongo 쿼리에 포함
+        long total = chatMessageRepository.countVisible(roomId, visibleSince);
+        List<ChatMessage> pagedMessages = chatMessageRepository.findVisiblePage(
+                roomId, visibleSince, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(pagedMessages, pageable, total);
+    }
+
+    /**
+     * 커서 기반 메시지 히스토리 조회.
+     * before/after가 모두 없으면 가장 최근 메시지부터 limit개를 반환합니다.
+     * 각 페이지는 방의 전체 메시지 수와 무관하게 limit 크기만큼만 조회합니다.
+     */
+    @Transactional
+    public ChatMessageSliceDto getMessagesByCursor(Long roomId, String userId,
+                                                   ChatMessageCursor before, ChatMessageCursor after, Integer limit) {
+        int pageSize = (limit == null || limit <= 0) ? DEFAULT_HISTORY_LIMIT : Math.min(limit, MAX_HISTORY_LIMIT);
+
+        ChatRoom chatRoom = chatRoomRepository.findWithRosterById(roomId)
+                .orElseThrow(() -> new RuntimeException("Chat room not found"));
+
+        Optional<ChatRoomParticipant> participantOpt = findActiveParticipant(chatRoom, userId);
+        if (participantOpt.isEmpty()) {
+            return new ChatMessageSliceDto(Collections.emptyList(), null, null, false);
+        }
+        LocalDateTime visibleSince = resolveVisibleSince(chatRoom, participantOpt.get());
+
+        markVisibleMessagesAsRead(roomId, userId, participantOpt.get());
+
+        // limit + 1개를 조회해 다음 페이지 존재 여부 판단
+        List<ChatMessage> fetched;
+        if (after != null) {
+            fetched = chatMessageRepository.findVisibleAfter(
+                    roomId, visibleSince, after.getTimestamp(), after.getMessageId(), pageSize + 1);
+        } else {
+            fetched = chatMessageRepository.findVisibleBefore(
+                    roomId, visibleSince,
+                    before != null ? before.getTimestamp() : null,
+                    before != null ? before.getMessageId() : null,
+                    pageSize + 1);
+        }
+
+        boolean hasMore = fetched.size() > pageSize;
+        List<ChatMessage> page = new ArrayList<>(hasMore ? fetched.subList(0, pageSize) : fetched);
+        if (after == null) {
+            // 최신순으로 조회했으므로 오래된순으로 뒤집어 반환
+            Collections.reverse(page);
+        }
+
+        Map<String, LocalDateTime> watermarks = readWatermarks(chatRoom);
+        List<ChatMessageRequestDto> dtos = page.stream()
+                .map(msg -> ChatMessageRequestDto.of(msg, watermarks))
+                .collect(Collectors.toList());
+        String beforeCursor = page.isEmpty() ? null : ChatMessageCursor.of(page.get(0)).encode();
+        String afterCursor = page.isEmpty() ? null : ChatMessageCursor.of(page.get(page.size() - 1)).encode();
+        return new ChatMessageSliceDto(dtos, beforeCursor, afterCursor, hasMore);
+    }
+
+    /**
+     * 재연결 동기화: 채팅방별 seq/cursor 이후의 새 메시지와 since 이후의 삭제·읽음 변경을 한 번에 반환.
+     * 조회만 하며 읽음 처리는 하지 않습니다.
+     * @throws IllegalArgumentException rooms와 since가 모두 없거나, 채팅방 수가 너무 많거나, cursor 형식이 잘못된 경우
+     */
+    @Transactional(readOnly = true)
+    public ChatSyncResponseDto syncRooms(String userId, ChatSyncRequestDto request) {
+        // 조회 전에 기준 시각을 잡아 두어야 조회 도중 발생한 변경이 다음 동기화에서 누락되지 않음
+        LocalDateTime syncedAt = LocalDateTime.now();
+        int pageSize = (request.getLimit() == null || request.getLimit() <= 0)
+                ? DEFAULT_HISTORY_LIMIT : Math.min(request.getLimit(), MAX_HISTORY_LIMIT);
+        Map<Long, ChatSyncRequestDto.RoomCursor> cursors =
+                request.getRooms() != null ? request.getRooms() : Collections.emptyMap();
+        LocalDateTime since = request.getSince();
+
+        List<ChatRoom> rooms;
+        if (cursors.isEmpty()) {
+            if (since == null) {
+                throw new IllegalArgumentException("rooms or since is required");
+            }
+            rooms = changedRoomsSince(userId, since);
+        } else {
+            if (cursors.size() > MAX_SYNC_ROOMS) {
+                throw new IllegalArgumentException("Too many rooms: " + cursors.size());
+            }
+            rooms = chatRoomRepository.findAllById(cursors.keySet());
+        }
+
+        Map<Long, ChatUnreadCounter> counters = unreadCounterService.findByUser(userId,
+                rooms.stream().map(ChatRoom::getId).collect(Collectors.toList()));
+        List<ChatSyncResponseDto.RoomSync> roomSyncs = new ArrayList<>();
+        for (ChatRoom room : rooms) {
+            Optional<ChatRoomParticipant> participantOpt = findActiveParticipant(room, userId);
+            if (participantOpt.isEmpty()) {
+                continue;
+            }
+            roomSyncs.add(syncRoom(room, userId, participantOpt.get(), cursors.get(room.getId()),
+                    since, pageSize, counters.get(room.getId())));
+        }
+        return new ChatSyncResponseDto(syncedAt, roomSyncs);
+    }
+
+    /**
+     * since 이후 변경된 채팅방: 새 메시지(lastActivity), 참가자 읽음 워터마크 이동, 메시지 삭제 중 하나라도 있는 채팅방.
+     * 읽음 워터마크는 로스터로 함께 조회한 참가자에서, 삭제는 Mongo distinct 한 번으로 확인
+     */
+    private List<ChatRoom> changedRoomsSince(String userId, LocalDateTime since) {
+        List<ChatRoom> candidates = chatRoomSummaryBuffer.overlayAll(chatRoomRepository.findWithRosterByParticipantUserId(userId));
+        Set<Long> deletedRoomIds = new HashSet<>(chatMessageRepository.findRoomIdsWithDeletionsSince(
+                candidates.stream().map(ChatRoom::getId).collect(Collectors.toList()), since));
+        return candidates.stream()
+                .filter(room -> (room.getLastActivity() != null && room.getLastActivity().isAfter(since))
+                        || deletedRoomIds.contains(room.getId())
+                        || room.getChatRoomParticipants().stream()
+                                .anyMatch(p -> p.getLastReadAt() != null && p.getLastReadAt().isAfter(since)))
+                .collect(Collectors.toList());
+    }
+
+    private ChatSyncResponseDto.RoomSync syncRoom(ChatRoom room, String userId, ChatRoomParticipant participant,
+                                                  ChatSyncRequestDto.RoomCursor cursor, LocalDateTime since,
+                                                  int pageSize, ChatUnreadCounter counter) {
+        Long roomId = room.getId();
+        LocalDateTime visibleSince = resolveVisibleSince(room, participant);
+
+        // limit + 1개를 조회해 남은 메시지 여부 판단 (모두 오래된 순)
+        List<ChatMessage> fetched;
+        if (cursor != null && cursor.getLastSeq() != null) {
+            fetched = chatMessageRepository.findVisibleAfterSeq(roomId, visibleSince, cursor.getLastSeq(), pageSize + 1);
+        } else if (cursor != null && cursor.getAfter() != null) {
+            ChatMessageCursor after = ChatMessageCursor.decode(cursor.getAfter());
+            fetched = chatMessageRepository.findVisibleAfter(
+                    roomId, visibleSince, after.getTimestamp(), after.getMessageId(), pageSize + 1);
+        } else {
+            LocalDateTime from = since != null && since.isAfter(visibleSince) ? since : visibleSince;
+            fetched = chatMessageRepository.findVisiblePage(roomId, from, 0, pageSize + 1);
+        }
+        boolean hasMore = fetched.size() > pageSize;
+        List<ChatMessage> page = hasMore ? fetched.subList(0, pageSize) : fetched;
+
+        Map<String, LocalDateTime> watermarks = readWatermarks(room);
+        ChatSyncResponseDto.RoomSync roomSync = new ChatSyncResponseDto.RoomSync();
+        roomSync.setRoomId(roomId);
+        roomSync.setMessages(page.stream()
+                .map(msg -> ChatMessageRequestDto.of(msg, watermarks))
+                .collect(Collectors.toList()));
+        roomSync.setDeletedMessageIds(since != null
+                ? chatMessageRepository.findDeletedIdsSince(roomId, since)
+                : Collections.emptyList());
+        roomSync.setReadWatermarks(watermarks.entrySet().stream()
+                .filter(e -> since == null || e.getValue().isAfter(since))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        roomSync.setUnreadCount(resolveUnreadCount(roomId, userId, participant, counter));
+        roomSync.setHasMore(hasMore);
+
+        // 새 메시지가 없으면 요청한 위치를 그대로 돌려줌
+        ChatMessage last = page.isEmpty() ? null : page.get(page.size() - 1);
+        roomSync.setLastSeq(last != null && last.getSeq() != null ? last.getSeq()
+                : cursor != null ? cursor.getLastSeq() : null);
+        roomSync.setAfterCursor(last != null ? ChatMessageCursor.of(last).encode()
+                : cursor != null ? cursor.getAfter() : null);
+        return roomSync;
+    }
+
+    private Optional<ChatRoomParticipant> findActiveParticipant(ChatRoom chatRoom, String userId) {
+        if (!rosterCache.isActiveMember(chatRoom.getId(), userId)) {
+            log.warn("User {} is not an active participant in room {}", userId, chatRoom.getId());
+            return Optional.empty();
+        }
 
         Optional<ChatRoomParticipant> participantOpt = chatRoom.getChatRoomParticipants().stream()
-                .filter(p -> p.getEmployee().getUser().getUserId().equals(userId))
+                .filter(p -> p.isActive() && p.getEmployee().getUser().getUserId().equals(userId))
                 .findFirst();
 
         if (participantOpt.isEmpty()) {
-            log.warn("Participant record not found for user {} in room {}", userId, roomId);
-            return Page.empty(pageable);
+            log.warn("Participant record not found for user {} in room {}", userId, chatRoom.getId());
         }
+        return participantOpt;
+    }
 
-        ChatRoomParticipant participant = participantOpt.get();
+    /**
+     * 사용자가 볼 수 있는 메시지의 시작 시점
+     * - 나간 적 없거나 joinedAt이 채팅방 생성 시점보다 이전인 경우: 채팅방 생성 시점
+     * - 나간 적 있는 경우: 재입장 시점(joinedAt)
+     */
+    private LocalDateTime resolveVisibleSince(ChatRoom chatRoom, ChatRoomParticipant participant) {
         LocalDateTime joinedAt = participant.getJoinedAt();
-        LocalDateTime lastLeftAt = participant.getLastLeftAt();
         LocalDateTime roomCreatedAt = chatRoom.getCreatedAt();
+        if (participant.getLastLeftAt() == null || joinedAt.isBefore(roomCreatedAt)) {
+            return roomCreatedAt;
+        }
+        return joinedAt;
+    }
 
-        // 메시지 조회
-        List<ChatMessage> allMessages = chatMessageRepository.findByRoomIdOrderByTimestampAsc(roomId);
-        List<ChatMessage> filteredMessages;
+    /**
+     * 참가자의 읽음 워터마크를 현재 시각으로 이동 (참가자 행 UPDATE 한 번)하고, 읽음/unread-count 이벤트를 한 번씩만 전송
+     */
+    private void markVisibleMessagesAsRead(Long roomId, String userId, ChatRoomParticipant participant) {
+        long readCount = resolveUnreadCount(roomId, userId, participant,
+                unreadCounterService.find(roomId, userId).orElse(null));
+        participant.advanceLastReadAt(LocalDateTime.now());
+        unreadCounterService.resetOnRead(roomId, userId, participant.getJoinedAt(), participant.getLastReadAt());
+        if (readCount > 0) {
+            broadcastReadState(roomId, userId, readCount);
+        }
+    }
 
-        if (lastLeftAt == null || joinedAt.isBefore(roomCreatedAt)) {
-            // 나간 적 없거나 joinedAt이 채팅방 생성 시점보다 이전인 경우: 모든 메시지
-            filteredMessages = allMessages.stream()
-                    .filter(msg -> msg.getTimestamp().isAfter(roomCreatedAt))
-                    .collect(Collectors.toList());
-            log.info("User {} has never left room {} or joinedAt is old, returning all messages since room creation", userId, roomId);
-        } else {
-            // 나간 적 있는 경우: joinedAt 이후 메시지
-            filteredMessages = allMessages.stream()
-                    .filter(msg -> msg.getTimestamp().isAfter(joinedAt))
-                    .collect(Collectors.toList());
-            log.info("User {} left room {} at {}, returning messages after joinedAt {}", userId, roomId, lastLeftAt, joinedAt);
+    /**
+     * 워터마크(max(joinedAt, lastReadAt)) 이후 메시지 수를 range count로 계산.
+     * 워터마크가 아직 없는 참가자는 기존 readBy 기반 쿼리로 계산
+     */
+    private long countUnread(Long roomId, String userId, ChatRoomParticipant participant) {
+        LocalDateTime joinedAt = participant.getJoinedAt();
+        LocalDateTime lastReadAt = participant.getLastReadAt();
+        if (lastReadAt == null) {
+            Date joinedAtDate = Date.from(joinedAt.atZone(ZoneId.systemDefault()).toInstant());
+            return chatMessageRepository.countUnreadMessagesAfterJoin(roomId, userId, joinedAtDate);
         }
+        LocalDateTime since = lastReadAt.isAfter(joinedAt) ? lastReadAt : joinedAt;
+        return chatMessageRepository.countUnreadSince(roomId, userId, since);
+    }
 
-        // 읽음 처리 (재진입 시 읽지 않은 메시지만 처리)
-        filteredMessages.forEach(msg -> {
-            if (!userId.equals(msg.getSenderId()) && (msg.getReadBy() == null || !msg.getReadBy().contains(userId))) {
-                markMessagesAsRead(msg.getId(), userId);
-            }
-        });
+    /**
+     * 카운터가 현재 참가 기간 기준으로 유지되고 있으면 그 값을, 없으면 계산 후 카운터를 채워서 반환
+     */
+    private long resolveUnreadCount(Long roomId, String userId, ChatRoomParticipant participant, ChatUnreadCounter counter) {
+        if (participant.isActive() && unreadCounterService.isCurrent(counter, participant.getJoinedAt())) {
+            return counter.getCount();
+        }
+        long count = countUnread(roomId, userId, participant);
+        // 나간 참가자는 메시지 전송 시 카운터가 증가하지 않으므로 캐시하지 않음
+        if (participant.isActive()) {
+            unreadCounterService.set(roomId, userId, participant.getJoinedAt(), count);
+        }
+        return count;
+    }
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filteredMessages.size());
+    /**
+     * 참가 중인 사용자의 unreadCount (카운터가 없거나 오래되었으면 계산 후 채움). 참가 중이 아니면 0
+     */
+    public long resolveUnreadCount(Long roomId, String userId) {
+        return participantRepository.findByChatRoomIdAndUserId(roomId, userId)
+                .filter(ChatRoomParticipant::isActive)
+                .map(participant -> resolveUnreadCount(roomId, userId, participant,
+                        unreadCounterService.find(roomId, userId).orElse(null)))
+                .orElse(0L);
+    }
 
-        if (start >= filteredMessages.size()) {
-            return new PageImpl<>(new ArrayList<>(), pageable, filteredMessages.size());
+    /**
+     * 새 메시지 저장 후 발신자를 제외한 활성 참가자의 카운터를 증가
+     * @return 카운터가 증가한 사용자
+     */
+    private Set<String> incrementUnreadCounters(ChatMessage saved) {
+        if (!isUnreadCountable(saved)) {
+            return Collections.emptySet();
         }
+        List<String> recipientIds = rosterCache.get(saved.getRoomId()).getUserIds().stream()
+                .filter(uid -> !uid.equals(saved.getSenderId()))
+                .collect(Collectors.toList());
+        return unreadCounterService.increment(saved.getRoomId(), recipientIds, saved.getTimestamp());
+    }
+
+    // countUnreadSince와 동일한 기준: 삭제된 메시지와 퇴장 시스템 메시지는 unread에 포함하지 않음
+    private boolean isUnreadCountable(ChatMessage message) {
+        return !message.isDeleted() && !(message.isSystemMessage() && message.isExitMessage());
+    }
 
-        List<ChatMessage> pagedMessages = filteredMessages.subList(start, end);
-        return new PageImpl<>(pagedMessages, pageable, filteredMessages.size());
+    /**
+     * 활성 참가자별 읽음 워터마크 (userId → lastReadAt). 메시지별 읽음 수 계산에 사용
+     */
+    private Map<String, LocalDateTime> readWatermarks(ChatRoom chatRoom) {
+        return chatRoom.getChatRoomParticipants().stream()
+                .filter(p -> p.isActive() && p.getLastReadAt() != null)
+                .collect(Collectors.toMap(
+                        p -> p.getEmployee().getUser().getUserId(),
+                        ChatRoomParticipant::getLastReadAt,
+                        (a, b) -> a.isAfter(b) ? a : b));
+    }
+
+    /**
+     * 일괄 읽음 처리 결과를 '/topic/chat/{roomId}/read'로 한 번 브로드캐스트하고 unread-count 갱신을 예약
+     */
+    private void broadcastReadState(Long roomId, String userId, long readCount) {
+        Map<String, Object> readEvent = new HashMap<>();
+        readEvent.put("userId", userId);
+        readEvent.put("readCount", readCount);
+        readEvent.put("readAt", LocalDateTime.now());
+        messagingTemplate.convertAndSend("/topic/chat/" + roomId + "/read", readEvent);
+        log.info("Broadcasted bulk read of {} messages by user {} to /topic/chat/{}/read", readCount, userId, roomId);
+
+        unreadCountPublisher.markDirty(roomId, userId);
     }
 
     @Transactional
@@ -116,15 +386,15 @@ public class ChatMessageService {
             throw new RuntimeException("Employee not found with userId: " + creatorId);
         }
         ChatRoom chatRoom = new ChatRoom(name, creatorId, isGroupChat);
+        // 🔥 추가: 새로운 채팅방 생성 시 lastMessageContent를 초기화 (insert 이후에는 ChatRoomSummaryBuffer만 갱신)
+        chatRoom.setLastMessageContent("채팅방이 생성되었습니다.");
         chatRoomRepository.save(chatRoom);
         chatRoom.addParticipant(creator, false);
-        // 🔥 추가: 새로운 채팅방 생성 시 lastMessageContent를 초기화
-        chatRoom.setLastMessageContent("채팅방이 생성되었습니다.");
         return chatRoomRepository.save(chatRoom);
     }
 
     public List<EmployeeEntity> getParticipants(Long roomId) {
-        Optional<ChatRoom> chatRoomOpt = chatRoomRepository.findById(roomId);
+        Optional<ChatRoom> chatRoomOpt = chatRoomRepository.findWithRosterById(roomId);
         if (chatRoomOpt.isEmpty()) {
             throw new IllegalArgumentException("채팅방을 찾을 수 없습니다: " + roomId);
         }
@@ -134,66 +404,83 @@ public class ChatMessageService {
 
     @Transactional
     public ChatRoom addParticipant(Long roomId, String userId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
+        ChatRoom chatRoom = chatRoomRepository.findWithRosterById(roomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
         EmployeeEntity employee = employeeRepository.findByUser_UserId(userId);
         if (employee == null) {
             throw new RuntimeException("Employee not found with userId: " + userId);
         }
         chatRoom.addParticipant(employee, true); // 명시적 추가 시 재입장 허용
-        chatRoom.updateLastActivity();
+        chatRoomSummaryBuffer.touch(chatRoom);
         return chatRoomRepository.save(chatRoom);
     }
 
     public boolean isParticipant(Long roomId, String userId) {
-        Optional<ChatRoom> chatRoomOpt = chatRoomRepository.findById(roomId);
-        if (chatRoomOpt.isEmpty()) {
-            return false;
-        }
-        ChatRoom chatRoom = chatRoomOpt.get();
-        return chatRoom.hasActiveParticipant(userId);
+        return rosterCache.isActiveMember(roomId, userId);
+    }
+
+    /**
+     * userId를 제외한 활성 참가자 수 (메시지의 participantCountAtSend)
+     */
+    public int countOtherActiveParticipants(Long roomId, String userId) {
+        return rosterCache.get(roomId).countExcluding(userId);
     }
 
     @Transactional
     public ChatRoom removeParticipant(Long roomId, String userId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
+        ChatRoom chatRoom = chatRoomRepository.findWithRosterById(roomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
         EmployeeEntity employee = employeeRepository.findByUser_UserId(userId);
         if (employee == null) {
             throw new RuntimeException("Employee not found with userId: " + userId);
         }
         chatRoom.removeParticipant(employee);
-        chatRoom.updateLastActivity();
+        chatRoomSummaryBuffer.touch(chatRoom);
+        unreadCounterService.delete(roomId, userId);
         log.info("User {} left chat room {}", userId, roomId);
         return chatRoomRepository.save(chatRoom);
     }
 
+    /**
+     * 메시지 전송 (persist → fan-out → counters를 호출 스레드에서 순서대로 수행)
+     * STOMP 수신 메시지는 ChatSendPipeline을 통해 채팅방별 순서를 보장하며 비동기로 처리합니다.
+     */
     @Transactional
     public ChatMessage sendMessage(ChatMessage message) {
+        ChatMessage saved = persistMessage(message);
+        fanOut(saved);
+        applyUnreadCounters(saved);
+        return saved;
+    }
+
+    /**
+     * 그룹 채팅 메시지 저장: 날짜 구분 메시지 삽입, 발신자 재입장, Mongo 저장, 채팅방 요약 갱신(write-behind)
+     */
+    @Transactional
+    public ChatMessage persistMessage(ChatMessage message) {
         log.info("메시지 전송 시도: roomId={}, userId={}, message={}",
                 message.getRoomId(), message.getSenderId(), message.getContent());
 
+        // 참가자 로스터는 캐시에서 확인하므로 채팅방 행만 조회
         ChatRoom chatRoom = chatRoomRepository.findById(message.getRoomId())
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
 
         // 날짜 구분 시스템 메시지 추가
         insertDateSeparatorIfNeeded(chatRoom.getId());
 
-        Hibernate.initialize(chatRoom.getChatRoomParticipants());
-
         // 자신을 제외한 활성 참가자 수 계산
-        int activeParticipantsCount = (int) chatRoom.getActiveParticipants().stream()
-                .filter(p -> !p.getUser().getUserId().equals(message.getSenderId()))
-                .count();
-        message.setParticipantCountAtSend(activeParticipantsCount);
-
-        EmployeeEntity sender = employeeRepository.findByUser_UserId(message.getSenderId());
-        if (sender == null) {
-            throw new RuntimeException("Sender not found with userId: " + message.getSenderId());
-        }
-        if (!chatRoom.hasActiveParticipant(message.getSenderId())) {
+        ChatRoomRosterCache.Roster roster = rosterCache.get(chatRoom.getId());
+        message.setParticipantCountAtSend(roster.countExcluding(message.getSenderId()));
+
+        // 참가자가 아닌 경우에만 직원 엔티티를 조회해 추가
+        if (!roster.contains(message.getSenderId())) {
+            EmployeeEntity sender = employeeRepository.findByUser_UserId(message.getSenderId());
+            if (sender == null) {
+                throw new RuntimeException("Sender not found with userId: " + message.getSenderId());
+            }
             log.info("발신자 {}는 채팅방 {}의 참가자가 아니므로 추가합니다.", message.getSenderId(), message.getRoomId());
             chatRoom.addParticipant(sender, true);
+            chatRoomRepository.save(chatRoom);
         }
 
         if (message.getReadBy() == null) {
@@ -203,47 +490,25 @@ public class ChatMessageService {
 
         ChatMessage saved = chatMessageRepository.save(message);
 
-        // 🔥 수정: attachmentType에 따라 이모지+문구로 lastMessageContent 설정
-        String attachmentType = message.getAttachmentType();
-        String lastMsgContent;
-        if ("image".equalsIgnoreCase(attachmentType)) {
-            lastMsgContent = "📷 사진";
-        } else if ("file".equalsIgnoreCase(attachmentType)) {
-            lastMsgContent = "📄 파일";
-        } else {
-            lastMsgContent = message.getContent();
-        }
-        chatRoom.setLastMessageContent(lastMsgContent);
-
-        chatRoom.updateLastActivity();
-        chatRoomRepository.save(chatRoom);
-
-        ChatMessageRequestDto dto = ChatMessageRequestDto.of(saved);
-        messagingTemplate.convertAndSend("/topic/chat/" + saved.getRoomId(), dto);
-        log.info("Broadcasted new message {} to /topic/chat/{}", saved.getId(), saved.getRoomId());
-
-        // --- unread-count 브로드캐스트 (lastMessageContent에도 동일한 값 사용) ---
-        ChatRoom room = chatRoomRepository.findById(saved.getRoomId()).orElseThrow();
-        Map<String, Long> unreadCounts = room.getActiveParticipants().stream()
-                .map(p -> p.getUser().getUserId())
-                .collect(Collectors.toMap(
-                        Function.identity(),
-                        uid -> getUnreadCount(saved.getRoomId(), uid)
-                ));
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + saved.getRoomId() + "/unread-count",
-                Map.of(
-                        "unreadCounts", unreadCounts,
-                        "lastMessageContent", lastMsgContent
-                )
-        );
-
+        // 🔥 수정: attachmentType에 따라 이모지+문구로 lastMessageContent 설정 (chat_rooms UPDATE는 모아서 저장)
+        chatRoomSummaryBuffer.recordMessage(saved);
         return saved;
     }
 
-
     @Transactional
     public ChatMessage sendDirectMessage(Long roomId, String senderId, String content, boolean invite) {
+        ChatMessage saved = persistDirectMessage(roomId, senderId, content, invite);
+        fanOut(saved);
+        applyUnreadCounters(saved);
+        return saved;
+    }
+
+    /**
+     * 1:1 채팅 메시지 저장. invite이면 이전 대화 상대를 다시 참가시키고 초대 메시지로 저장
+     */
+    @Transactional
+    public ChatMessage persistDirectMessage(Long roomId, String senderId, String content, boolean invite) {
+        // 참가자 로스터는 캐시에서 확인하므로 채팅방 행만 조회
         ChatRoom chatRoom = chatRoomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
 
@@ -255,110 +520,99 @@ public class ChatMessageService {
         insertDateSeparatorIfNeeded(roomId);
 
         // participantCountAtSend 세팅: 나를 제외한 활성 참가자 수 (1대1이면 항상 1)
-        Hibernate.initialize(chatRoom.getChatRoomParticipants());
-        int activeParticipantsCount = (int) chatRoom.getActiveParticipants().stream()
-                .filter(p -> !p.getUser().getUserId().equals(senderId))
-                .count();
+        ChatRoomRosterCache.Roster roster = rosterCache.get(roomId);
+        int activeParticipantsCount = roster.countExcluding(senderId);
 
-        EmployeeEntity sender = employeeRepository.findByUser_UserId(senderId);
-        if (sender == null) {
-            throw new RuntimeException("Sender not found with userId: " + senderId);
-        }
+        SenderIdentityCache.SenderIdentity sender = senderIdentityCache.find(senderId)
+                .orElseThrow(() -> new RuntimeException("Sender not found with userId: " + senderId));
 
-        if (!chatRoom.hasActiveParticipant(senderId)) {
+        boolean rosterChanged = false;
+        if (!roster.contains(senderId)) {
             log.info("발신자 {}를 채팅방 {}에 다시 추가합니다", senderId, roomId);
-            chatRoom.addParticipant(sender, true); // 재입장 허용
+            chatRoom.addParticipant(employeeRepository.findByUser_UserId(senderId), true); // 재입장 허용
+            rosterChanged = true;
         }
 
+        ChatMessage message = sender.toMessage(roomId, content);
+        message.setParticipantCountAtSend(activeParticipantsCount);
         if (invite) {
             List<ChatMessage> previousMessages = chatMessageRepository.findTop50ByRoomIdOrderByTimestampDesc(roomId);
-            List<String> allUserIds = previousMessages.stream()
+            List<String> recipientIds = previousMessages.stream()
                     .map(ChatMessage::getSenderId)
                     .distinct()
-                    .collect(Collectors.toList());
-
-            List<String> recipientIds = allUserIds.stream()
                     .filter(id -> !id.equals(senderId))
                     .collect(Collectors.toList());
 
             for (String recipientId : recipientIds) {
+                if (roster.contains(recipientId)) {
+                    continue;
+                }
                 EmployeeEntity recipient = employeeRepository.findByUser_UserId(recipientId);
-                if (recipient != null && !chatRoom.hasActiveParticipant(recipientId)) {
+                if (recipient != null) {
                     log.info("대화 상대 {}를 채팅방 {}에 다시 추가합니다", recipientId, roomId);
                     chatRoom.addParticipant(recipient, true); // 재입장 허용
+                    rosterChanged = true;
                 }
             }
-            ChatMessage inviteMessage = new ChatMessage(roomId, sender, content);
-            inviteMessage.setParticipantCountAtSend(activeParticipantsCount);
-            inviteMessage.setInviteMessage(true);
-            ChatMessage savedMessage = chatMessageRepository.save(inviteMessage);
-
-            // 🔥 초대 메시지도 lastMessageContent 업데이트 (필요에 따라)
-            chatRoom.setLastMessageContent(inviteMessage.getContent());
-            chatRoom.updateLastActivity();
-            chatRoomRepository.save(chatRoom);
-            log.info("Invite event: 초대 메시지는 저장하지 않고 로그에만 남김 (roomId={}, senderId={})", roomId, senderId);
-            // 브로드캐스트
-            ChatMessageRequestDto dto = ChatMessageRequestDto.of(savedMessage);
-            messagingTemplate.convertAndSend("/topic/chat/" + roomId, dto);
-            // 🔥 unread-count 브로드캐스트에 lastMessageContent 포함
-            ChatRoom room = chatRoomRepository.findById(roomId).orElseThrow();
-            Map<String, Long> unreadCounts = room.getActiveParticipants().stream()
-                    .map(p -> p.getUser().getUserId())
-                    .collect(Collectors.toMap(Function.identity(), uid -> getUnreadCount(roomId, uid)));
-            messagingTemplate.convertAndSend(
-                    "/topic/chat/" + roomId + "/unread-count",
-                    Map.of(
-                            "unreadCounts", unreadCounts,
-                            "lastMessageContent", inviteMessage.getContent() // 🔥 추가
-                    )
-            );
-            return savedMessage;
+            message.setInviteMessage(true);
+            log.info("Invite event: roomId={}, senderId={}", roomId, senderId);
         } else {
-            ChatMessage message = new ChatMessage(roomId, sender, content);
-
-            message.setParticipantCountAtSend(activeParticipantsCount);
             // 발신자는 이미 읽은 것으로 처리
             if (message.getReadBy() == null) {
                 message.setReadBy(new ArrayList<>());
             }
             message.getReadBy().add(senderId);
+        }
 
-            ChatMessage savedMessage = chatMessageRepository.save(message);
-            // 🔥 추가: ChatRoom의 lastMessageContent 업데이트
-            chatRoom.setLastMessageContent(message.getContent());
-            chatRoom.updateLastActivity();
+        ChatMessage savedMessage = chatMessageRepository.save(message);
+        if (rosterChanged) {
             chatRoomRepository.save(chatRoom);
-            // DTO 변환 후 브로드캐스트
-            ChatMessageRequestDto dto = ChatMessageRequestDto.of(savedMessage);
-            messagingTemplate.convertAndSend("/topic/chat/" + roomId, dto);
-            // 🔥 unread-count 브로드캐스트에 lastMessageContent 포함
-            ChatRoom room = chatRoomRepository.findById(roomId).orElseThrow();
-            Map<String, Long> unreadCounts = room.getActiveParticipants().stream()
-                    .map(p -> p.getUser().getUserId())
-                    .collect(Collectors.toMap(Function.identity(), uid -> getUnreadCount(roomId, uid)));
-            messagingTemplate.convertAndSend(
-                    "/topic/chat/" + roomId + "/unread-count",
-                    Map.of(
-                            "unreadCounts", unreadCounts,
-                            "lastMessageContent", message.getContent() // 🔥 추가
-                    )
-            );
-            return savedMessage;
         }
+        // 🔥 ChatRoom의 lastMessageContent 업데이트 (초대 메시지 포함, chat_rooms UPDATE는 모아서 저장)
+        chatRoomSummaryBuffer.recordMessage(savedMessage);
+        return savedMessage;
     }
 
-    public ChatMessage createMessageFromRequest(Long roomId, String userId, String content) {
-        EmployeeEntity employee = employeeRepository.findByUser_UserId(userId);
-        if (employee == null) {
-            throw new RuntimeException("Employee not found with userId: " + userId);
+    /**
+     * STOMP로 수신한 메시지 저장. 채팅방 종류에 따라 그룹/1:1 저장 로직을 선택
+     */
+    @Transactional
+    public ChatMessage persistIncomingMessage(Long roomId, String senderId, String content) {
+        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
+                .orElseThrow(() -> new RuntimeException("Chat room not found"));
+        if (!chatRoom.isGroupChat()) {
+            return persistDirectMessage(roomId, senderId, content, false);
         }
-        log.info("메시지 생성: employee.getUser().getUserId() = {}", employee.getUser().getUserId());
-        return new ChatMessage(roomId, employee, content);
+        return persistMessage(createMessageFromRequest(roomId, senderId, content));
+    }
+
+    /**
+     * 저장된 메시지를 '/topic/chat/{roomId}'로 브로드캐스트
+     */
+    public void fanOut(ChatMessage saved) {
+        ChatMessageRequestDto dto = ChatMessageRequestDto.of(saved);
+        messagingTemplate.convertAndSend("/topic/chat/" + saved.getRoomId(), dto);
+        log.info("Broadcasted new message {} to /topic/chat/{}", saved.getId(), saved.getRoomId());
+    }
+
+    /**
+     * 수신자 unread 카운터를 증가시키고 unread-count 브로드캐스트를 예약 (flush-window 단위로 전송)
+     */
+    // JPA 트랜잭션은 참가자 명단(lazy) 조회용. Mongo 카운터 쓰기는 JPA 트랜잭션 매니저와 무관하므로 readOnly에 영향받지 않음
+    @Transactional(readOnly = true)
+    public void applyUnreadCounters(ChatMessage saved) {
+        Set<String> changed = incrementUnreadCounters(saved);
+        unreadCountPublisher.markDirty(saved.getRoomId(), saved.getSenderId(), changed);
+    }
+
+    public ChatMessage createMessageFromRequest(Long roomId, String userId, String content) {
+        SenderIdentityCache.SenderIdentity sender = senderIdentityCache.get(userId);
+        log.info("메시지 생성: employee.getUser().getUserId() = {}", sender.getUserId());
+        return sender.toMessage(roomId, content);
     }
 
     public List<ChatRoom> getUserChatRooms(String userId) {
-        return chatRoomRepository.findByParticipantUserId(userId);
+        return chatRoomSummaryBuffer.overlayAll(chatRoomRepository.findByParticipantUserId(userId));
     }
 
     @Transactional
@@ -369,50 +623,33 @@ public class ChatMessageService {
         log.info("Marking message as read: messageId={}, userId={}, exitMessage={}, inviteMessage={}",
                 messageId, userId, message.isExitMessage(), message.isInviteMessage());
 
-        if (message.getReadBy() == null) {
-            message.setReadBy(new ArrayList<>());
+        if (userId.equals(message.getSenderId())) {
+            log.info("Message {} is sent by user {}", messageId, userId);
+            return;
         }
-        if (!message.getReadBy().contains(userId) && !userId.equals(message.getSenderId())) {
-            message.getReadBy().add(userId);
-            ChatMessage savedMessage = chatMessageRepository.save(message);
-            log.info("Message {} marked as read by user {}. New readBy: {}",
-                    messageId, userId, savedMessage.getReadBy());
-
-            // 1) 현재 ChatRoom 조회
-            ChatRoom room = chatRoomRepository.findById(savedMessage.getRoomId())
-                    .orElseThrow();
-            // 2) 읽지 않은 메시지 개수를 모든 참가자 대상으로 계산
-            Map<String, Long> unreadCounts = room.getActiveParticipants().stream()
-                    .map(p -> p.getUser().getUserId())
-                    .collect(Collectors.toMap(
-                            Function.identity(),
-                            uid -> getUnreadCount(savedMessage.getRoomId(), uid)
-                    ));
-
-            // 3) lastMessageContent 가져오기 (null-safe)
-            String lastMsg = room.getLastMessageContent() != null
-                    ? room.getLastMessageContent()
-                    : "";
-
-            // 4) '/topic/chat/{roomId}/unread-count' 브로드캐스트 (lastMessageContent 포함)
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("userId", userId);
-            payload.put("unreadCounts", unreadCounts);
-            payload.put("lastMessageContent", lastMsg);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/chat/" + savedMessage.getRoomId() + "/unread-count",
-                    payload
-            );
-            log.info("Broadcasted unreadCounts for room {} after single message read: {} with lastMessageContent={}",
-                    savedMessage.getRoomId(), unreadCounts, lastMsg);
-        } else {
-            log.info("Message {} already read by user {} or is sender", messageId, userId);
+
+        // 메시지 문서는 수정하지 않고, 참가자 워터마크를 메시지 시각까지 이동
+        Optional<ChatRoomParticipant> participantOpt =
+                participantRepository.findByChatRoomIdAndUserId(message.getRoomId(), userId);
+        if (participantOpt.isEmpty()) {
+            log.warn("Participant record not found for user {} in room {}", userId, message.getRoomId());
+            return;
+        }
+        ChatRoomParticipant participant = participantOpt.get();
+        LocalDateTime before = participant.getLastReadAt();
+        participant.advanceLastReadAt(message.getTimestamp());
+        if (Objects.equals(before, participant.getLastReadAt())) {
+            log.info("Message {} already read by user {}", messageId, userId);
+            return;
+        }
+        log.info("Message {} marked as read by user {}. lastReadAt: {}",
+                messageId, userId, participant.getLastReadAt());
+        if (participant.isActive()) {
+            unreadCounterService.set(message.getRoomId(), userId, participant.getJoinedAt(),
+                    countUnread(message.getRoomId(), userId, participant));
         }
-    }
 
-    public Optional<ChatRoom> findDirectChatRoom(String user1Id, String user2Id) {
-        return chatRoomRepository.findDirectChatRoom(user1Id, user2Id);
+        unreadCountPublisher.markDirty(message.getRoomId(), userId);
     }
 
     public Optional<ChatRoom> getChatRoomById(Long roomId) {
@@ -460,6 +697,15 @@ public class ChatMessageService {
         return message;
     }
 
+    /**
+     * 날짜 구분 시스템 메시지 생성 (저장하지 않음)
+     */
+    public ChatMessage createDateSeparator(Long roomId, LocalDate date) {
+        ChatMessage message = createSystemMessage(roomId, SYSTEM_SENDER_ID, date.format(DATE_FORMATTER));
+        message.setSeparatorDate(date);
+        return message;
+    }
+
     /**
      * MongoDB에 ChatMessage 문서를 저장하고 ChatRoom의 마지막 활동 시간을 업데이트합니다.
      */
@@ -468,25 +714,14 @@ public class ChatMessageService {
         // 1) 메시지 저장
         ChatMessage saved = chatMessageRepository.save(message);
 
-        // 2) 채팅방 로드
-        ChatRoom chatRoom = chatRoomRepository.findById(message.getRoomId())
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
+        // 2) 수신자 unread 카운터 증가
+        Set<String> changed = incrementUnreadCounters(saved);
 
-        // 3) attachmentType에 따라 lastMessageContent 결정
-        String atype = message.getAttachmentType();
-        String lastMsg;
-        if ("image".equalsIgnoreCase(atype)) {
-            lastMsg = "📷 사진";
-        } else if ("file".equalsIgnoreCase(atype)) {
-            lastMsg = "📄 파일";
-        } else {
-            lastMsg = message.getContent();
-        }
+        // 3) attachmentType에 따라 lastMessageContent 결정 후 채팅방 요약에 반영 (write-behind)
+        chatRoomSummaryBuffer.recordMessage(saved);
 
-        // 4) 채팅방에 반영
-        chatRoom.setLastMessageContent(lastMsg);
-        chatRoom.updateLastActivity();
-        chatRoomRepository.save(chatRoom);
+        // 4) unread-count 갱신 예약 (카운터가 바뀐 수신자에게만 전송)
+        unreadCountPublisher.markDirty(saved.getRoomId(), saved.getSenderId(), changed);
 
         return saved;
     }
@@ -519,13 +754,19 @@ public class ChatMessageService {
             System.out.println("attachmentUrl이 없거나 비어 있음");
         }
 
+        boolean wasCountable = isUnreadCountable(msg);
         msg.setDeleted(true);
+        msg.setDeletedAt(LocalDateTime.now());
         msg.setContent("메시지가 삭제되었습니다!");
         System.out.println("소프트 삭제 설정: deleted=" + msg.isDeleted() + ", content=" + msg.getContent());
 
         ChatMessage updated = chatMessageRepository.save(msg);
         System.out.println("메시지 저장 완료: ID=" + updated.getId());
 
+        if (wasCountable) {
+            unreadCountPublisher.markDirty(updated.getRoomId(), requesterId, decrementUnreadCounters(updated));
+        }
+
         ChatMessageRequestDto dto = ChatMessageRequestDto.of(updated);
         messagingTemplate.convertAndSend(
                 "/topic/chat/" + updated.getRoomId(),
@@ -535,11 +776,34 @@ public class ChatMessageService {
 
     }
 
+    /**
+     * 삭제된 메시지를 아직 읽지 않은 (워터마크가 메시지 시각 이전인) 수신자의 카운터를 감소
+     * @return 카운터가 감소한 사용자
+     */
+    private Set<String> decrementUnreadCounters(ChatMessage deleted) {
+        return chatRoomRepository.findWithRosterById(deleted.getRoomId()).map(room -> {
+            List<String> unreadUserIds = room.getChatRoomParticipants().stream()
+                    .filter(ChatRoomParticipant::isActive)
+                    .filter(p -> !p.getEmployee().getUser().getUserId().equals(deleted.getSenderId()))
+                    .filter(p -> {
+                        LocalDateTime since = p.getLastReadAt() != null && p.getLastReadAt().isAfter(p.getJoinedAt())
+                                ? p.getLastReadAt() : p.getJoinedAt();
+                        return deleted.getTimestamp().isAfter(since);
+                    })
+                    .map(p -> p.getEmployee().getUser().getUserId())
+                    .collect(Collectors.toList());
+            return unreadCounterService.decrement(deleted.getRoomId(), unreadUserIds);
+        }).orElse(Collections.<String>emptySet());
+    }
+
     @Transactional
     public Page<ChatMessageRequestDto> getMessagesWithUnread(Long roomId, Pageable pageable, String userId) {
         Page<ChatMessage> page = getMessages(roomId, pageable, userId);
+        Map<String, LocalDateTime> watermarks = chatRoomRepository.findWithRosterById(roomId)
+                .map(this::readWatermarks)
+                .orElse(Collections.emptyMap());
         List<ChatMessageRequestDto> dtos = page.getContent().stream()
-                .map(ChatMessageRequestDto::of)
+                .map(msg -> ChatMessageRequestDto.of(msg, watermarks))
                 .collect(Collectors.toList());
         return new PageImpl<>(dtos, pageable, page.getTotalElements());
     }
@@ -564,14 +828,9 @@ public class ChatMessageService {
             return 0;
         }
 
-        // 참여 정보에서 joinedAt 가져오기
-        LocalDateTime joinedAt = participantOpt.get().getJoinedAt();
-
-        // MongoDB 날짜 형식으로 변환
-        Date joinedAtDate = Date.from(joinedAt.atZone(ZoneId.systemDefault()).toInstant());
-
-        // 수정된 MongoDB 쿼리 호출
-        return chatMessageRepository.countUnreadMessagesAfterJoin(roomId, userId, joinedAtDate);
+        // 유지 중인 카운터를 우선 사용하고, 없으면 읽음 워터마크 이후 메시지를 카운트
+        return resolveUnreadCount(roomId, userId, participantOpt.get(),
+                unreadCounterService.find(roomId, userId).orElse(null));
     }
     /**
      * 식별자(kakaoUuid, 이메일 등)로 사용자 ID를 조회하는 보조 메서드
@@ -581,10 +840,9 @@ public class ChatMessageService {
     private Long getUserIdByIdentifier(String identifier) {
 
         // 2. user.userId로 검색 시도
-        Optional<EmployeeEntity> employeeByUserId =
-                Optional.ofNullable(employeeRepository.findByUser_UserId(identifier));
+        Optional<SenderIdentityCache.SenderIdentity> employeeByUserId = senderIdentityCache.find(identifier);
         if (employeeByUserId.isPresent()) {
-            return employeeByUserId.get().getId();
+            return employeeByUserId.get().getEmployeeId();
         }
 
         // 식별자로 사용자를 찾지 못한 경우 기본값 반환
@@ -593,146 +851,68 @@ public class ChatMessageService {
     }
 
     /**
-     * 날짜가 변경된 경우 또는 채팅방의 첫 메시지인 경우 SYSTEM 타입의 날짜 메시지를 삽입
+     * 채팅방에 오늘 날짜 메시지가 아직 없으면 SYSTEM 타입의 날짜 메시지를 삽입.
+     * 필요 여부는 DateSeparatorTracker의 compare-and-set으로 판단하므로 전송마다 최근 메시지를 조회하지 않고,
+     * 동시에 전송해도 날짜 메시지는 한 번만 삽입됩니다.
+     * 다른 노드와의 경합은 (roomId, separatorDate) 유니크 인덱스로 막고, 중복 키 오류는 claim을 놓친 것으로 처리합니다.
      */
     public void insertDateSeparatorIfNeeded(Long roomId) {
-        // 채팅방의 가장 최근 메시지 2개 조회
-        List<ChatMessage> lastTwo = chatMessageRepository.findTop2ByRoomIdOrderByTimestampDesc(roomId);
-
-        // 채팅방에 메시지가 없거나 (첫 메시지인 경우) 또는 마지막 메시지의 날짜가 오늘과 다른 경우
-        if (lastTwo.isEmpty() || lastTwo.size() < 2) {
-            // 채팅방에 메시지가 없거나 하나만 있는 경우 (첫 메시지 또는 두 번째 메시지)
-            LocalDate today = LocalDate.now(ZoneId.systemDefault());
-            String formatted = today.format(DATE_FORMATTER);
-            ChatMessage dateMsg = createSystemMessage(roomId, SYSTEM_SENDER_ID, formatted);
-            chatMessageRepository.save(dateMsg);
-            messagingTemplate.convertAndSend("/topic/chat/" + roomId,
-                    ChatMessageRequestDto.of(dateMsg));
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        if (!dateSeparatorTracker.claim(roomId, today)) {
             return;
         }
-
-        // 채팅방에 메시지가 2개 이상 있는 경우, 날짜 변경을 확인
-        LocalDate lastDate = lastTwo.stream()
-                .filter(msg -> msg.getType() == ChatMessage.MessageType.CHAT)
-                .map(msg -> msg.getTimestamp().toLocalDate())
-                .findFirst()
-                .orElse(null);
-
-        LocalDate today = LocalDate.now(ZoneId.systemDefault());
-        if (lastDate == null || !lastDate.equals(today)) {
-            String formatted = today.format(DATE_FORMATTER);
-            ChatMessage dateMsg = createSystemMessage(roomId, SYSTEM_SENDER_ID, formatted);
+        ChatMessage dateMsg = createDateSeparator(roomId, today);
+        try {
             chatMessageRepository.save(dateMsg);
-            messagingTemplate.convertAndSend("/topic/chat/" + roomId,
-                    ChatMessageRequestDto.of(dateMsg));
+        } catch (DuplicateKeyException e) {
+            // 다른 노드가 먼저 저장함 - 이미 오늘 날짜 메시지가 있으므로 claim은 유지
+            log.debug("Date separator for room {} on {} was inserted by another node", roomId, today);
+            return;
+        } catch (RuntimeException e) {
+            dateSeparatorTracker.release(roomId, today);
+            throw e;
         }
+        incrementUnreadCounters(dateMsg);
+        messagingTemplate.convertAndSend("/topic/chat/" + roomId,
+                ChatMessageRequestDto.of(dateMsg));
     }
 
+    /**
+     * 참가자의 읽음 워터마크를 현재 시각으로 이동해 채팅방 전체를 읽음 처리하고, 이벤트는 한 번만 브로드캐스트
+     * @return 읽음 처리된 메시지 수
+     */
     @Transactional
-    public List<ChatMessage> markAllMessagesAsRead(Long roomId, String userId) {
-        // ① userId가 null인지 검증 (컨트롤러에서 이미 검증해 주었지만, 이곳에서도 안전장치를 두어도 좋습니다)
+    public long markAllMessagesAsRead(Long roomId, String userId) {
+        // userId가 null인지 검증 (컨트롤러에서 이미 검증해 주었지만, 이곳에서도 안전장치를 둠)
         if (userId == null) {
             log.warn("markAllMessagesAsRead 호출 시 userId가 null입니다. roomId={}", roomId);
-            return Collections.emptyList();
-        }
-
-        // ② roomId와 userId에 해당하는 “읽지 않은 메시지” 목록을 가져옴
-        List<ChatMessage> unreadMessages =
-                chatMessageRepository.findUnreadMessagesByRoomIdAndUserId(roomId, userId);
-
-        // ③ 각각 readBy에 userId를 추가하고 저장
-        for (ChatMessage message : unreadMessages) {
-            if (!message.getReadBy().contains(userId)) {
-                message.getReadBy().add(userId);
-                ChatMessage savedMessage = chatMessageRepository.save(message);
-
-                // 메시지별 읽음 상태 브로드캐스트 (optional)
-                messagingTemplate.convertAndSend(
-                        "/topic/chat/" + roomId + "/read",
-                        Map.of(
-                                "messageId", savedMessage.getId(),
-                                "userId", userId
-                        )
-                );
-                log.info("Broadcasted read status for message {} by user {} to /topic/chat/{}/read",
-                        savedMessage.getId(), userId, roomId);
-            }
+            return 0;
         }
 
-        // ④ unreadCount를 계산한 뒤, 전체 참가자 대상 브로드캐스트
-        //    아래에서 payload를 만들기 위해 ChatRoom 엔티티를 다시 가져옴
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found: " + roomId));
-
-        // 'HashMap'을 사용해 null-safe하게 payload 구성
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("userId", userId);
-
-        // 전체 참가자 목록을 순회하며 각자의 unreadCount를 계산
-        Map<String, Long> unreadCounts = chatRoom.getActiveParticipants().stream()
-                .map(p -> p.getUser().getUserId())
-                .collect(Collectors.toMap(
-                        participantId -> participantId,
-                        participantId -> getUnreadCount(roomId, participantId)
-                ));
-
-        payload.put("unreadCounts", unreadCounts);
-
-        // ★ lastMessageContent가 null일 수 있으므로, null 대신 빈 문자열로 대체
-        String lastMsg = chatRoom.getLastMessageContent();
-        if (lastMsg == null) {
-            lastMsg = "";
+        Optional<ChatRoomParticipant> participantOpt = participantRepository.findByChatRoomIdAndUserId(roomId, userId);
+        if (participantOpt.isEmpty()) {
+            log.warn("Participant record not found for user {} in room {}", userId, roomId);
+            return 0;
         }
-        payload.put("lastMessageContent", lastMsg);
-
-        // ⑤ '/topic/chat/{roomId}/unread-count'으로 브로드캐스트
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + roomId + "/unread-count",
-                payload
-        );
-        log.info("Broadcasted unreadCount={} for room {} and user {} to /topic/chat/{}/unread-count",
-                unreadCounts, roomId, userId, roomId);
-
-        return unreadMessages;
+        ChatRoomParticipant participant = participantOpt.get();
+        long readCount = resolveUnreadCount(roomId, userId, participant,
+                unreadCounterService.find(roomId, userId).orElse(null));
+        participant.advanceLastReadAt(LocalDateTime.now());
+        unreadCounterService.resetOnRead(roomId, userId, participant.getJoinedAt(), participant.getLastReadAt());
+        if (readCount > 0) {
+            broadcastReadState(roomId, userId, readCount);
+        } else {
+            unreadCountPublisher.markDirty(roomId, userId);
+        }
+        return readCount;
     }
 
     /**
      * 사용자의 채팅방 목록을 마지막 메시지와 읽지 않은 메시지 수와 함께 조회
      */
     public List<ChatRoomListDto> getUserChatRoomsWithLastMessage(String userId) {
-        List<ChatRoom> chatRooms = chatRoomRepository.findByParticipantUserId(userId);
-
-        return chatRooms.stream()
-                .filter(room -> room.hasActiveParticipant(userId))
-                .map(room -> {
-                    // DB에 저장된 lastMessageContent 사용
-                    String lastMessageContent = room.getLastMessageContent();
-
-                    // lastMessageContent가 null이거나 비어있는 경우에만 마지막 메시지 조회
-                    if (lastMessageContent == null || lastMessageContent.trim().isEmpty()) {
-                        Optional<ChatMessage> lastMsgOpt =
-                                chatMessageRepository.findTop1ByRoomIdOrderByTimestampDesc(room.getId());
-
-                        if (lastMsgOpt.isPresent()) {
-                            ChatMessage lastMsg = lastMsgOpt.get();
-                            String atype = lastMsg.getAttachmentType();
-                            if ("image".equalsIgnoreCase(atype)) {
-                                lastMessageContent = "📷 사진";
-                            } else if ("file".equalsIgnoreCase(atype)) {
-                                lastMessageContent = "📄 파일";
-                            } else {
-                                lastMessageContent = lastMsg.getContent();
-                            }
-                        }
-                    }
-
-                    long unreadCount = getUnreadCount(room.getId(), userId);
-                    ChatRoomListDto dto = ChatRoomListDto.of(room, userId, unreadCount);
-                    dto.setLastMessageContent(lastMessageContent);
-                    return dto;
-                })
-                .sorted((a, b) -> b.getLastActivity().compareTo(a.getLastActivity()))
-                .collect(Collectors.toList());
+        // 채팅방 수와 무관하게 고정된 쿼리 수로 조회 (ChatRoomListService 참고)
+        return chatRoomListService.getRoomList(userId);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package kakao.login.service;
+
+import kakao.login.dto.request.message.ChatRoomListDto;
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.ChatRoom;
+import kakao.login.entity.ChatRoomParticipant;
+import kakao.login.entity.ChatUnreadCounter;
+import kakao.login.repository.ChatMessageRepository;
+import kakao.login.repository.ChatRoomParticipantRepository;
+import kakao.login.repository.ChatRoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 채팅방 목록 조회. 채팅방 수와 관계없이 고정된 횟수의 쿼리로 처리합니다.
+ * 1) MySQL: 채팅방 + 참가자 + 직원/유저를 roster entity graph로 한 번에 조회
+ * 2) Mongo: 사용자의 unread 카운터를 한 번에 조회
+ * 3) Mongo: 카운터가 없거나 오래된 채팅방만 aggregation 한 번으로 재계산 후 bulk upsert
+ * 4) Mongo: lastMessageContent가 비어 있는 채팅방만 aggregation 한 번으로 마지막 메시지 조회
+ *    (아직 저장되지 않은 미리보기/마지막 활동 시각은 ChatRoomSummaryBuffer에서 덮어씀)
+ * 5) Mongo: 공지함 요약 (가장 최근 공지, 워터마크 이후 공지 수)
+ * 이후 ChatRoomListDto는 메모리에서 조립하고, 받은 공지가 있으면 공지함 항목을 함께 정렬합니다.
+ */
+@Service
+@Slf4j
+public class ChatRoomListService {
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private ChatRoomSummaryBuffer chatRoomSummaryBuffer;
+
+    @Autowired
+    private ChatRoomParticipantRepository participantRepository;
+
+    @Autowired
+    public ChatRoomListService(ChatRoomRepository chatRoomRepository,
+                               ChatMessageRepository chatMessageRepository,
+                               UnreadCounterService unreadCounterService) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.unreadCounterService = unreadCounterService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChatRoomListDto> getRoomList(String userId) {
+        // 1) 채팅방 + 참가자 로스터
+        Map<Long, ChatRoomParticipant> myParticipants = new HashMap<>();
+        List<ChatRoom> rooms = new ArrayList<>();
+        for (ChatRoom room : chatRoomRepository.findWithRosterByParticipantUserId(userId)) {
+            room.getChatRoomParticipants().stream()
+                    .filter(p -> p.isActive()
+                            && p.getEmployee().getUser() != null
+                            && userId.equals(p.getEmployee().getUser().getUserId()))
+                    .findFirst()
+                    .ifPresent(p -> {
+                        myParticipants.put(room.getId(), p);
+                        rooms.add(chatRoomSummaryBuffer.overlay(room));
+                    });
+        }
+        // 5) 공지함 (채팅방이 없어도 표시)
+        Optional<ChatRoomListDto> inbox = announcementService.summarize(userId)
+                .map(summary -> ChatRoomListDto.announcementInbox(summary.getLatest(), summary.getUnreadCount()));
+        if (rooms.isEmpty()) {
+            return inbox.map(List::of).orElse(Collections.emptyList());
+        }
+        List<Long> roomIds = rooms.stream().map(ChatRoom::getId).collect(Collectors.toList());
+
+        // 2) + 3) unread (전체 채팅방을 다시 계산했으므로 배지 합계도 이 값으로 보정)
+        Map<Long, Long> unreadCounts = resolveUnreadCounts(userId, myParticipants);
+        unreadCounterService.syncTotal(userId, unreadCounts.values().stream().mapToLong(Long::longValue).sum());
+
+        // 4) 마지막 메시지 (lastMessageContent가 저장되지 않은 채팅방만)
+        List<Long> missingPreview = rooms.stream()
+                .filter(room -> room.getLastMessageContent() == null || room.getLastMessageContent().trim().isEmpty())
+                .map(ChatRoom::getId)
+                .collect(Collectors.toList());
+        Map<Long, ChatMessage> lastMessages = chatMessageRepository.findLastMessagesByRoomIds(missingPreview);
+
+        log.debug("Room list for {}: {} rooms, {} previews loaded", userId, roomIds.size(), lastMessages.size());
+        return Stream.concat(inbox.stream(), rooms.stream()
+                .map(room -> {
+                    ChatRoomListDto dto = ChatRoomListDto.of(room, userId, unreadCounts.getOrDefault(room.getId(), 0L));
+                    ChatMessage lastMsg = lastMessages.get(room.getId());
+                    if (lastMsg != null) {
+                        dto.setLastMessageContent(ChatRoomSummaryBuffer.previewOf(lastMsg));
+                    }
+                    return dto;
+                }))
+                .sorted((a, b) -> b.getLastActivity().compareTo(a.getLastActivity()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 사용자별 전체 채팅방 unread 합계 (배지 표시용).
+     * 카운터 변경 시 함께 증감되는 합계 문서를 한 번에 조회하고,
+     * 합계 문서가 아직 없는 사용자만 전체 채팅방을 계산해(없는 카운터도 채움) 합계 문서를 만듭니다.
+     */
+    // JPA 트랜잭션은 참가 채팅방·참가자(lazy) 조회용. Mongo 카운터/합계 쓰기는 JPA 트랜잭션 매니저와 무관하므로 readOnly에 영향받지 않음
+    @Transactional(readOnly = true)
+    public Map<String, Long> getTotalUnread(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> totals = new HashMap<>(unreadCounterService.findTotals(userIds));
+        List<String> unseeded = userIds.stream()
+                .filter(userId -> !totals.containsKey(userId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!unseeded.isEmpty()) {
+            totals.putAll(seedTotals(unseeded));
+        }
+        return totals;
+    }
+
+    // 활성 참가 채팅방은 MySQL 한 번, 카운터는 Mongo 한 번으로 조회해 사용자별 합계를 계산하고 합계 문서 생성
+    private Map<String, Long> seedTotals(Collection<String> userIds) {
+        Map<String, Map<Long, LocalDateTime[]>> watermarksByUser = new HashMap<>();
+        for (Object[] row : participantRepository.findActiveWatermarksByUserIds(userIds)) {
+            watermarksByUser.computeIfAbsent((String) row[0], k -> new HashMap<>())
+                    .put((Long) row[1], new LocalDateTime[]{(LocalDateTime) row[2], (LocalDateTime) row[3]});
+        }
+        Map<String, Map<Long, ChatUnreadCounter>> counters = unreadCounterService.findByUsers(
+                watermarksByUser.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().keySet())));
+
+        Map<String, Long> totals = new HashMap<>();
+        userIds.forEach(userId -> {
+            Map<Long, LocalDateTime[]> watermarks = watermarksByUser.getOrDefault(userId, Collections.emptyMap());
+            long total = resolveUnreadCounts(userId, watermarks, counters.getOrDefault(userId, Collections.emptyMap()))
+                    .values().stream().mapToLong(Long::longValue).sum();
+            unreadCounterService.initTotal(userId, total);
+            totals.put(userId, total);
+        });
+        log.debug("Seeded unread totals for {} users", totals.size());
+        return totals;
+    }
+
+    private Map<Long, Long> resolveUnreadCounts(String userId, Map<Long, ChatRoomParticipant> participants) {
+        Map<Long, LocalDateTime[]> watermarks = new HashMap<>();
+        participants.forEach((roomId, participant) ->
+                watermarks.put(roomId, new LocalDateTime[]{participant.getJoinedAt(), participant.getLastReadAt()}));
+        return resolveUnreadCounts(userId, watermarks, unreadCounterService.findByUser(userId, participants.keySet()));
+    }
+
+    /**
+     * 현재 참가 기간 기준으로 유지된 카운터는 그대로 사용하고, 나머지 채팅방은 한 번의 aggregation으로 재계산
+     * watermarks: roomId → [joinedAt, lastReadAt]
+     */
+    private Map<Long, Long> resolveUnreadCounts(String userId, Map<Long, LocalDateTime[]> watermarks,
+                                                Map<Long, ChatUnreadCounter> counters) {
+        Map<Long, Long> unreadCounts = new HashMap<>();
+        Map<Long, LocalDateTime> sinceByRoom = new HashMap<>();
+        Map<Long, LocalDateTime> joinedAtByRoom = new HashMap<>();
+        Set<Long> readByRooms = new HashSet<>();
+        watermarks.forEach((roomId, watermark) -> {
+            ChatUnreadCounter counter = counters.get(roomId);
+            LocalDateTime joinedAt = watermark[0];
+            if (unreadCounterService.isCurrent(counter, joinedAt)) {
+                unreadCounts.put(roomId, counter.getCount());
+                return;
+            }
+            // 워터마크(max(joinedAt, lastReadAt)) 이후, 워터마크가 없으면 joinedAt 이후 readBy 기준
+            LocalDateTime lastReadAt = watermark[1];
+            if (lastReadAt == null) {
+                sinceByRoom.put(roomId, joinedAt);
+                readByRooms.add(roomId);
+            } else {
+                sinceByRoom.put(roomId, lastReadAt.isAfter(joinedAt) ? lastReadAt : joinedAt);
+            }
+            joinedAtByRoom.put(roomId, joinedAt);
+        });
+
+        if (!sinceByRoom.isEmpty()) {
+            Map<Long, Long> computed = chatMessageRepository.countUnreadByRoom(userId, sinceByRoom, readByRooms);
+            sinceByRoom.keySet().forEach(roomId -> unreadCounts.put(roomId, computed.getOrDefault(roomId, 0L)));
+            unreadCounterService.setAll(userId, joinedAtByRoom, computed, counters);
+        }
+        return unreadCounts;
+    }
+}
@@ -0,0 +1,127 @@
+package kakao.login.service;
+
+import kakao.login.repository.ChatRoomParticipantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅방별 활성 참가자(userId / employeeId) 캐시.
+ * 전송/읽음/히스토리/업로드 경로의 참가 여부 확인과 참가자 수 계산을 JPA 조회 없이 처리합니다.
+ * 참가자 추가/퇴장/재입장, 채팅방 삭제 시 ChatRoomRosterListener가 해당 채팅방만 무효화합니다.
+ */
+@Component
+@Slf4j
+public class ChatRoomRosterCache {
+
+    private final ChatRoomParticipantRepository participantRepository;
+    private final ConcurrentHashMap<Long, Roster> rosters = new ConcurrentHashMap<>();
+    // 무효화 횟수. 조회 도중 무효화가 일어났으면 조회 결과를 캐시하지 않음 (이전 로스터가 다시 들어가는 것 방지)
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public ChatRoomRosterCache(ChatRoomParticipantRepository participantRepository) {
+        this.participantRepository = participantRepository;
+    }
+
+    public Roster get(Long roomId) {
+        Roster cached = rosters.get(roomId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = invalidations.get();
+        Roster loaded = load(roomId);
+        if (invalidations.get() == stamp) {
+            Roster raced = rosters.putIfAbsent(roomId, loaded);
+            return raced != null ? raced : loaded;
+        }
+        return loaded;
+    }
+
+    public boolean isActiveMember(Long roomId, String userId) {
+        return userId != null && get(roomId).contains(userId);
+    }
+
+    /**
+     * 채팅방 로스터 무효화. 트랜잭션 안에서 호출되면 완료(커밋/롤백) 후에 한 번 더 무효화
+     */
+    public void invalidate(Long roomId) {
+        if (roomId == null) {
+            return;
+        }
+        evict(roomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(roomId);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return rosters.size();
+    }
+
+    private void evict(Long roomId) {
+        invalidations.incrementAndGet();
+        rosters.remove(roomId);
+    }
+
+    private Roster load(Long roomId) {
+        List<Object[]> rows = participantRepository.findActiveMemberIdsByRoomId(roomId);
+        Set<String> userIds = new HashSet<>(rows.size() * 2);
+        long[] employeeIds = new long[rows.size()];
+        int i = 0;
+        for (Object[] row : rows) {
+            employeeIds[i++] = ((Number) row[0]).longValue();
+            userIds.add((String) row[1]);
+        }
+        Arrays.sort(employeeIds);
+        log.debug("Loaded roster for room {}: {} active members", roomId, employeeIds.length);
+        return new Roster(Collections.unmodifiableSet(userIds), employeeIds);
+    }
+
+    /**
+     * 한 채팅방의 활성 참가자 스냅샷 (불변)
+     */
+    public static final class Roster {
+        private final Set<String> userIds;
+        private final long[] employeeIds; // 정렬됨
+
+        private Roster(Set<String> userIds, long[] employeeIds) {
+            this.userIds = userIds;
+            this.employeeIds = employeeIds;
+        }
+
+        public boolean contains(String userId) {
+            return userIds.contains(userId);
+        }
+
+        public boolean containsEmployee(long employeeId) {
+            return Arrays.binarySearch(employeeIds, employeeId) >= 0;
+        }
+
+        public int size() {
+            return employeeIds.length;
+        }
+
+        /**
+         * userId를 제외한 활성 참가자 수 (발신자 제외 participantCountAtSend 계산용)
+         */
+        public int countExcluding(String userId) {
+            return contains(userId) ? size() - 1 : size();
+        }
+
+        public Set<String> getUserIds() {
+            return userIds;
+        }
+    }
+}
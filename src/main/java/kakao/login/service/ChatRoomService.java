@@ -3,13 +3,19 @@ package kakao.login.service;
 import kakao.login.dto.request.room.ChatRoomRequestDto;
 import kakao.login.entity.*;
 import kakao.login.repository.*;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -18,6 +24,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ChatRoomService {
 
+    private static final String INSERT_DIRECT_ROOM_SQL =
+            "INSERT IGNORE INTO chat_rooms (name, created_by, created_at, last_activity, is_group_chat, direct_pair_key) "
+                    + "VALUES (?, ?, ?, ?, false, ?)";
+
+    private static final String CLAIM_PAIR_KEY_SQL =
+            "UPDATE chat_rooms SET direct_pair_key = ? WHERE id = ? AND direct_pair_key IS NULL";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -30,19 +43,21 @@ public class ChatRoomService {
     @Autowired
     private ChatRoomParticipantRepository participantRepository;
 
-    @Transactional
-    public ChatRoom getOrCreateDirectChatRoom(String user1Id, String user2Id) {
-        UserEntity user1Entity = userRepository.findByUserId(user1Id);
-        if (user1Entity == null) {
-            log.warn("No employee record found for userId: {}", user1Id);
-            throw new IllegalStateException("Cannot create chat room: user " + user1Id + " is not an employee");
-        }
-        UserEntity user2Entity = userRepository.findByUserId(user2Id);
-        if (user2Entity == null) {
-            log.warn("No employee record found for userId: {}", user2Id);
-            throw new IllegalStateException("Cannot create chat room: user " + user2Id + " is not an employee");
-        }
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ChatRoomSummaryBuffer chatRoomSummaryBuffer;
+
+    // 직원 쌍 키 백필(DirectPairKeyBackfill) 전에는 키가 없는 기존 1:1 채팅방도 조회
+    @Value("${chat.direct-room.legacy-lookup:true}")
+    private boolean legacyLookup;
+
+    @Transactional(isolation = Isolation.READ_COMMITTED) // 다른 요청이 방금 생성한 채팅방을 다시 조회할 수 있도록
+    public ChatRoom getOrCreateDirectChatRoom(String user1Id, String user2Id) {
         EmployeeEntity user1 = employeeRepository.findByUser_UserId(user1Id);
         if (user1 == null) {
             log.warn("No employee record found for userId: {}", user1Id);
@@ -53,35 +68,7 @@ public class ChatRoomService {
             log.warn("No employee record found for userId: {}", user2Id);
             throw new IllegalStateException("Cannot create chat room: user " + user2Id + " is not an employee");
         }
-
-        Long user1Pk = user1.getId();
-        Long user2Pk = user2.getId();
-
-        // ① 순서대로 조회
-        Optional<ChatRoom> directRoomOpt = chatRoomRepository.findDirectChatRoomByParticipantIds(user1Pk, user2Pk);
-
-        // ② 순서 바꿔 조회 (양방향 동일 처리)
-        if (directRoomOpt.isEmpty()) {
-            directRoomOpt = chatRoomRepository.findDirectChatRoomByParticipantIds(user2Pk, user1Pk);
-        }
-
-        if (directRoomOpt.isPresent()) {
-            ChatRoom existingRoom = directRoomOpt.get();
-            // 재가입 필요 여부 확인
-            boolean user1NeedsRejoin = existingRoom.hasParticipantLeft(user1Pk);
-            boolean user2NeedsRejoin = existingRoom.hasParticipantLeft(user2Pk);
-            existingRoom.addParticipant(user1, user1NeedsRejoin);
-            existingRoom.addParticipant(user2, user2NeedsRejoin);
-            existingRoom.updateLastActivity();
-            return chatRoomRepository.save(existingRoom);
-        }
-
-        // 방이 없으면 새로 생성
-        ChatRoom newRoom = new ChatRoom("DirectChat", user1Id, false);
-        newRoom.addParticipant(user1, false);
-        newRoom.addParticipant(user2, false);
-        newRoom.updateLastActivity();
-        return chatRoomRepository.save(newRoom);
+        return joinDirectChatRoom(user1, user2, user1Id);
     }
 
 
@@ -110,11 +97,12 @@ public class ChatRoomService {
             throw new RuntimeException("Employee not found for userId: " + userId);
         }
         Long empId = employee.getId();
-        return chatRoomRepository.findByParticipantId(empId);
+        return chatRoomSummaryBuffer.overlayAll(chatRoomRepository.findByParticipantId(empId));
     }
 
     public Optional<ChatRoom> getChatRoom(Long roomId) {
-        return chatRoomRepository.findById(roomId);
+        // 호출 측(채팅 컨트롤러)은 모두 참가자 로스터를 사용하므로 함께 조회
+        return chatRoomRepository.findWithRosterById(roomId);
     }
 
     public List<Long> getUserRoomIds(String userId) {
@@ -123,7 +111,7 @@ public class ChatRoomService {
 
     @Transactional
     public ChatRoom addUserToChatRoom(Long roomId, String userId) {
-        Optional<ChatRoom> roomOpt = chatRoomRepository.findById(roomId);
+        Optional<ChatRoom> roomOpt = chatRoomRepository.findWithRosterById(roomId);
         if (roomOpt.isPresent()) {
             ChatRoom room = roomOpt.get();
             EmployeeEntity employee = employeeRepository.findByUser_UserId(userId);
@@ -132,7 +120,7 @@ public class ChatRoomService {
                 throw new RuntimeException("Employee not found with userId: " + userId);
             }
             room.addParticipant(employee, true); // Allow rejoin for invites
-            room.updateLastActivity();
+            chatRoomSummaryBuffer.touch(room);
             log.info("User {} added/invited to chat room {}", userId, roomId);
             return chatRoomRepository.save(room);
         }
@@ -143,7 +131,7 @@ public class ChatRoomService {
     @Transactional
     public ChatRoom removeUserFromChatRoom(Long roomId, String userId) {
         log.info("Attempting to remove user {} from chat room {}", userId, roomId);
-        Optional<ChatRoom> roomOpt = chatRoomRepository.findById(roomId);
+        Optional<ChatRoom> roomOpt = chatRoomRepository.findWithRosterById(roomId);
         if (roomOpt.isEmpty()) {
             log.error("Chat room not found: {}", roomId);
             throw new RuntimeException("Chat room not found with id: " + roomId);
@@ -161,7 +149,8 @@ public class ChatRoomService {
         }
 
         room.removeParticipant(employee);
-        room.updateLastActivity();
+        chatRoomSummaryBuffer.touch(room);
+        unreadCounterService.delete(roomId, userId);
 
         Set<EmployeeEntity> activeParticipants = room.getActiveParticipants();
         if (activeParticipants.isEmpty()) {
@@ -175,11 +164,7 @@ public class ChatRoomService {
     }
 
     public void updateRoomActivity(Long roomId) {
-        Optional<ChatRoom> roomOpt = chatRoomRepository.findById(roomId);
-        roomOpt.ifPresent(room -> {
-            room.setLastActivity(LocalDateTime.now());
-            chatRoomRepository.save(room);
-        });
+        chatRoomSummaryBuffer.touch(roomId);
     }
 
     public void deleteChatRoom(Long roomId) {
@@ -187,7 +172,7 @@ public class ChatRoomService {
     }
 
     public Set<String> getChatRoomParticipants(Long roomId) {
-        Optional<ChatRoom> chatRoom = chatRoomRepository.findById(roomId);
+        Optional<ChatRoom> chatRoom = chatRoomRepository.findWithRosterById(roomId);
         return chatRoom.map(room ->
                 room.getActiveParticipants().stream()
                         .map(employee -> employee.getUser().getUserId())
@@ -199,12 +184,12 @@ public class ChatRoomService {
                 .id(room.getId())
                 .displayName(room.getDisplayNameFor(currentUserId))
                 .groupChat(room.isGroupChat())
-                .lastActivity(room.getLastActivity())
+                .lastActivity(chatRoomSummaryBuffer.overlay(room).getLastActivity())
                 // 필요 시 participantsCount, unreadCount 등 추가 필드 설정
                 .build();
     }
 
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED) // 다른 요청이 방금 생성한 채팅방을 다시 조회할 수 있도록
     public ChatRoom getOrCreateDirectChatRoomByEmployeeId(Long employee1Id, Long employee2Id) {
         // Find employees by employee_id
         EmployeeEntity employee1 = employeeRepository.findById(employee1Id)
@@ -217,32 +202,116 @@ public class ChatRoomService {
                     log.warn("No employee record found for employeeId: {}", employee2Id);
                     return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Employee with ID " + employee2Id + " not found");
                 });
+        return joinDirectChatRoom(employee1, employee2, employee1.getUser().getUserId());
+    }
+
+    /**
+     * employeeId와 peerIds 각각의 1:1 채팅방 ID를 조회하고, 없는 채팅방은 생성합니다.
+     * - 직원 쌍 키(min:max)로 한 번에 조회
+     * - (chat.direct-room.legacy-lookup=true) 키가 없는 기존 채팅방은 키를 채워 사용
+     * - 나머지는 INSERT IGNORE로 생성. 동시에 다른 요청이 같은 쌍을 먼저 만들었으면 그 채팅방을 사용
+     * 모두 호출 트랜잭션 안에서 실행되며(별도 커넥션을 잡지 않음), 호출 트랜잭션은 READ_COMMITTED여야
+     * 다른 트랜잭션이 커밋한 채팅방을 다시 조회할 수 있습니다.
+     */
+    public DirectRoomResolution resolveDirectRoomIds(Long employeeId, String creatorId, Collection<Long> peerIds) {
+        Map<String, Long> peerByKey = new LinkedHashMap<>();
+        for (Long peerId : peerIds) {
+            peerByKey.put(ChatRoom.directPairKeyOf(employeeId, peerId), peerId);
+        }
+        DirectRoomResolution resolution = new DirectRoomResolution();
+        if (peerByKey.isEmpty()) {
+            return resolution;
+        }
+        collectRoomIds(peerByKey, peerByKey.keySet(), resolution.roomIdByPeer);
+
+        if (legacyLookup && resolution.roomIdByPeer.size() < peerByKey.size()) {
+            claimLegacyRooms(employeeId, missingKeys(peerByKey, resolution), peerByKey);
+            collectRoomIds(peerByKey, missingKeys(peerByKey, resolution), resolution.roomIdByPeer);
+        }
+
+        List<String> missing = missingKeys(peerByKey, resolution);
+        if (!missing.isEmpty()) {
+            resolution.created = createDirectRooms(employeeId, creatorId, missing, peerByKey);
+            collectRoomIds(peerByKey, missing, resolution.roomIdByPeer);
+        }
+        if (resolution.roomIdByPeer.size() < peerByKey.size()) {
+            throw new IllegalStateException("Failed to resolve direct chat rooms for employee " + employeeId);
+        }
+        return resolution;
+    }
+
+    // 채팅방을 조회/생성한 뒤 두 직원이 모두 참가 중인 상태로 만듦 (나갔던 참가자는 재입장)
+    private ChatRoom joinDirectChatRoom(EmployeeEntity employee1, EmployeeEntity employee2, String creatorId) {
+        Long roomId = resolveDirectRoomIds(employee1.getId(), creatorId, List.of(employee2.getId()))
+                .getRoomIdByPeer().get(employee2.getId());
+        ChatRoom room = chatRoomRepository.findById(roomId)
+                .orElseThrow(() -> new IllegalStateException("Direct chat room not found: " + roomId));
+        room.addParticipant(employee1, room.hasParticipantLeft(employee1.getId()));
+        room.addParticipant(employee2, room.hasParticipantLeft(employee2.getId()));
+        chatRoomSummaryBuffer.touch(room);
+        return chatRoomRepository.save(room);
+    }
+
+    private void collectRoomIds(Map<String, Long> peerByKey, Collection<String> keys, Map<Long, Long> roomIdByPeer) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        for (Object[] row : chatRoomRepository.findIdsByDirectPairKeys(keys)) {
+            roomIdByPeer.put(peerByKey.get((String) row[0]), (Long) row[1]);
+        }
+    }
 
-        // Get user_id values
-        String user1Id = employee1.getUser().getUserId();
-        String user2Id = employee2.getUser().getUserId();
+    private List<String> missingKeys(Map<String, Long> peerByKey, DirectRoomResolution resolution) {
+        return peerByKey.entrySet().stream()
+                .filter(e -> !resolution.roomIdByPeer.containsKey(e.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
 
-        // Check for existing chat room
-        Optional<ChatRoom> directRoomOpt = chatRoomRepository.findDirectChatRoomByParticipantIds(employee1Id, employee2Id);
-        if (directRoomOpt.isEmpty()) {
-            directRoomOpt = chatRoomRepository.findDirectChatRoomByParticipantIds(employee2Id, employee1Id);
+    // 키가 없는 기존 채팅방에 키를 채움 (같은 쌍의 채팅방이 여러 개면 가장 먼저 만들어진 방)
+    private void claimLegacyRooms(Long employeeId, List<String> keys, Map<String, Long> peerByKey) {
+        List<Long> peers = keys.stream().map(peerByKey::get).collect(Collectors.toList());
+        Map<Long, Long> legacyRoomByPeer = new HashMap<>();
+        for (Object[] row : chatRoomRepository.findLegacyDirectRoomIds(employeeId, peers)) {
+            legacyRoomByPeer.merge((Long) row[0], (Long) row[1], Math::min);
         }
+        legacyRoomByPeer.forEach((peerId, roomId) -> {
+            try {
+                // 유니크 키 충돌은 이 문장만 롤백되므로 호출 트랜잭션은 그대로 진행
+                jdbcTemplate.update(CLAIM_PAIR_KEY_SQL, ChatRoom.directPairKeyOf(employeeId, peerId), roomId);
+            } catch (DataIntegrityViolationException e) {
+                log.info("Direct pair key for room {} already claimed by another room", roomId);
+            }
+        });
+    }
 
-        if (directRoomOpt.isPresent()) {
-            ChatRoom existingRoom = directRoomOpt.get();
-            boolean user1NeedsRejoin = existingRoom.hasParticipantLeft(employee1Id);
-            boolean user2NeedsRejoin = existingRoom.hasParticipantLeft(employee2Id);
-            existingRoom.addParticipant(employee1, user1NeedsRejoin);
-            existingRoom.addParticipant(employee2, user2NeedsRejoin);
-            existingRoom.updateLastActivity();
-            return chatRoomRepository.save(existingRoom);
+    // 없는 채팅방을 INSERT IGNORE로 한 번에 생성하고, 참가자가 없는 채팅방(이번에 생성한 방)에 두 직원을 추가
+    // 같은 쌍을 다른 트랜잭션이 먼저 넣었으면 그 트랜잭션이 커밋될 때까지 기다린 뒤 건너뜀
+    private int createDirectRooms(Long employeeId, String creatorId, List<String> keys, Map<String, Long> peerByKey) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_DIRECT_ROOM_SQL, keys.stream()
+                .map(key -> new Object[]{"DirectChat", creatorId, now, now, key})
+                .collect(Collectors.toList()));
+
+        int created = 0;
+        for (ChatRoom room : chatRoomRepository.findByDirectPairKeyIn(keys)) {
+            if (!room.getChatRoomParticipants().isEmpty()) {
+                log.debug("Direct room {} was created by another request", room.getDirectPairKey());
+                continue;
+            }
+            room.addParticipant(employeeRepository.getReferenceById(employeeId), false);
+            room.addParticipant(employeeRepository.getReferenceById(peerByKey.get(room.getDirectPairKey())), false);
+            created++;
         }
+        return created;
+    }
 
-        // Create new chat room
-        ChatRoom newRoom = new ChatRoom("DirectChat", user1Id, false);
-        newRoom.addParticipant(employee1, false);
-        newRoom.addParticipant(employee2, false);
-        newRoom.updateLastActivity();
-        return chatRoomRepository.save(newRoom);
+    /**
+     * resolveDirectRoomIds 결과 (상대 직원 ID → 채팅방 ID, 새로 생성한 채팅방 수)
+     */
+    @Getter
+    public static final class DirectRoomResolution {
+        private final Map<Long, Long> roomIdByPeer = new LinkedHashMap<>();
+        private int created;
     }
 }
\ No newline at end of file
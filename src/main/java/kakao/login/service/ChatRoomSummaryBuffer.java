@@ -0,0 +1,210 @@
+package kakao.login.service;
+
+import jakarta.annotation.PreDestroy;
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.ChatRoom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅방 목록 요약(last_message_content, last_activity)을 메모리에 모아 두었다가 write-behind로 저장합니다.
+ * 메시지마다 chat_rooms 행을 UPDATE하지 않고, flush-interval마다 변경된 채팅방만 JDBC batch로 한 번에 반영합니다.
+ * - 두 컬럼은 ChatRoom 엔티티에서 updatable=false이므로 생성 이후에는 이 버퍼만 갱신
+ * - 조회 측은 overlay로 아직 저장되지 않은(또는 방금 저장된) 요약을 엔티티에 덮어씀
+ * - 저장 시 last_activity가 더 최신인 행은 건너뛰므로 여러 노드가 같은 채팅방을 갱신해도 뒤로 가지 않음
+ * - 종료 시(@PreDestroy) 남은 요약을 저장
+ */
+@Component
+@Slf4j
+public class ChatRoomSummaryBuffer {
+
+    // ChatRoom.lastMessageContent 컬럼 길이
+    private static final int MAX_CONTENT_LENGTH = 1000;
+
+    private static final String UPDATE_SQL =
+            "UPDATE chat_rooms SET last_message_content = COALESCE(?, last_message_content), last_activity = ? "
+                    + "WHERE id = ? AND (last_activity IS NULL OR last_activity <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // 아직 저장되지 않은 요약
+    private final ConcurrentHashMap<Long, Summary> pending = new ConcurrentHashMap<>();
+    // 직전 flush에서 저장한 요약 (저장 직전 스냅샷을 읽은 조회도 최신 값을 보도록 한 주기 동안 유지)
+    private volatile Map<Long, Summary> flushed = Collections.emptyMap();
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Autowired
+    public ChatRoomSummaryBuffer(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${chat.room-summary.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 새 메시지로 채팅방 미리보기와 마지막 활동 시각 갱신
+     */
+    public void recordMessage(ChatMessage message) {
+        record(message.getRoomId(), previewOf(message), LocalDateTime.now());
+    }
+
+    /**
+     * 여러 채팅방에 같은 미리보기를 반영 (대량 발송용)
+     */
+    public void recordAll(Collection<Long> roomIds, String content, LocalDateTime at) {
+        roomIds.forEach(roomId -> record(roomId, content, at));
+    }
+
+    /**
+     * 미리보기는 그대로 두고 마지막 활동 시각만 갱신 (참가자 추가/퇴장 등). 엔티티가 있으면 함께 반영
+     */
+    public void touch(ChatRoom room) {
+        room.updateLastActivity();
+        record(room.getId(), null, room.getLastActivity());
+    }
+
+    public void touch(Long roomId) {
+        record(roomId, null, LocalDateTime.now());
+    }
+
+    private void record(Long roomId, String content, LocalDateTime at) {
+        if (roomId == null) {
+            return;
+        }
+        if (content != null && content.length() > MAX_CONTENT_LENGTH) {
+            content = content.substring(0, MAX_CONTENT_LENGTH);
+        }
+        pending.merge(roomId, new Summary(content, at), Summary::merge);
+        recorded.increment();
+    }
+
+    /**
+     * DB에서 읽은 채팅방에 메모리의 최신 요약을 덮어씀 (updatable=false 컬럼이므로 엔티티가 dirty 되지 않음)
+     */
+    public ChatRoom overlay(ChatRoom room) {
+        if (room == null || room.getId() == null) {
+            return room;
+        }
+        Summary summary = pending.get(room.getId());
+        if (summary == null) {
+            summary = flushed.get(room.getId());
+        }
+        if (summary != null && (room.getLastActivity() == null || !summary.lastActivity.isBefore(room.getLastActivity()))) {
+            if (summary.content != null) {
+                room.setLastMessageContent(summary.content);
+            }
+            room.setLastActivity(summary.lastActivity);
+        }
+        return room;
+    }
+
+    public <C extends Collection<ChatRoom>> C overlayAll(C rooms) {
+        rooms.forEach(this::overlay);
+        return rooms;
+    }
+
+    /**
+     * 대기 중인 요약을 JDBC batch로 저장. 실패하면 다음 주기에 다시 시도
+     */
+    @Scheduled(fixedDelayString = "${chat.room-summary.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            flushed = Collections.emptyMap();
+            return;
+        }
+        Map<Long, Summary> snapshot = new HashMap<>(pending);
+        List<Object[]> args = new ArrayList<>(snapshot.size());
+        snapshot.forEach((roomId, summary) -> {
+            Timestamp at = Timestamp.valueOf(summary.lastActivity);
+            args.add(new Object[]{summary.content, at, roomId, at});
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < args.size(); from += batchSize) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, args.subList(from, Math.min(from + batchSize, args.size())));
+                }
+            });
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Failed to flush {} chat room summaries", snapshot.size(), e);
+            return;
+        }
+        // 저장 도중 더 새로운 요약이 들어온 채팅방은 다음 주기에 다시 저장
+        snapshot.forEach((roomId, summary) -> pending.remove(roomId, summary));
+        flushed = snapshot;
+        flushes.increment();
+        rowsWritten.add(snapshot.size());
+        log.debug("Flushed {} chat room summaries", snapshot.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} chat room summaries were not flushed before shutdown", pending.size());
+        }
+    }
+
+    /**
+     * 상태 (관리자 진단용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("recorded", recorded.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("rowsWritten", rowsWritten.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    /**
+     * 채팅방 목록 미리보기 문구 (첨부는 종류별 문구)
+     */
+    public static String previewOf(ChatMessage message) {
+        String attachmentType = message.getAttachmentType();
+        if ("image".equalsIgnoreCase(attachmentType)) {
+            return "📷 사진";
+        } else if ("file".equalsIgnoreCase(attachmentType)) {
+            return "📄 파일";
+        }
+        return message.getContent();
+    }
+
+    private static final class Summary {
+        private final String content;
+        private final LocalDateTime lastActivity;
+
+        private Summary(String content, LocalDateTime lastActivity) {
+            this.content = content;
+            this.lastActivity = lastActivity;
+        }
+
+        // 더 최근 요약을 유지하고, 활동 시각만 갱신된 경우에는 이전 미리보기를 이어받음
+        private static Summary merge(Summary current, Summary update) {
+            if (update.lastActivity.isBefore(current.lastActivity)) {
+                return current;
+            }
+            return update.content != null ? update : new Summary(current.content, update.lastActivity);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package kakao.login.service;
+
+import jakarta.annotation.PreDestroy;
+import kakao.login.entity.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅 메시지 전송 파이프라인: validate → persist → fan-out → counters
+ * - 같은 채팅방의 메시지는 채팅방별 직렬 lane에서 순서대로 처리
+ * - 서로 다른 채팅방은 bounded executor에서 병렬로 처리
+ * - 반환된 future는 저장(persist)이 끝나는 즉시 완료되며, fan-out/counters는 이후 같은 lane에서 이어서 수행
+ */
+@Component
+@Slf4j
+public class ChatSendPipeline {
+
+    private final ChatMessageService chatMessageService;
+    private final ThreadPoolExecutor executor;
+    // 처리 대기 + 처리 중인 메시지 수 상한 (초과 시 즉시 거절)
+    private final Semaphore capacity;
+
+    // roomId → 해당 채팅방 lane의 마지막 작업
+    private final ConcurrentHashMap<Long, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChatSendPipeline(ChatMessageService chatMessageService,
+                            @Value("${chat.send-pipeline.threads:0}") int threads,
+                            @Value("${chat.send-pipeline.queue-capacity:10000}") int queueCapacity) {
+        this.chatMessageService = chatMessageService;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.capacity = new Semaphore(queueCapacity);
+        // 작업 수는 capacity로 제한하므로 큐에서 거절이 발생하지 않음 (lane 연결 중 거절되면 후속 작업이 멈출 수 있음)
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> new Thread(r, "chat-send-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * 메시지를 채팅방 lane에 등록
+     * @return 저장된 메시지로 완료되는 future (대기 메시지가 상한을 넘은 경우 RejectedExecutionException으로 실패)
+     */
+    public CompletableFuture<ChatMessage> send(Long roomId, String senderId, String content) {
+        // 1) validate: DB 조회 없이 판단 가능한 조건은 lane에 넣기 전에 거절
+        if (roomId == null || senderId == null || senderId.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("roomId and senderId are required"));
+        }
+        if (content == null || content.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("content must not be empty"));
+        }
+
+        if (!capacity.tryAcquire()) {
+            log.warn("Chat send pipeline is full; rejecting message from {} to room {}", senderId, roomId);
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Chat send pipeline is full"));
+        }
+
+        CompletableFuture<ChatMessage> persisted = new CompletableFuture<>();
+        enqueue(roomId, () -> {
+            ChatMessage saved;
+            try {
+                // 2) persist
+                saved = chatMessageService.persistIncomingMessage(roomId, senderId, content);
+                persisted.complete(saved);
+            } catch (Exception e) {
+                persisted.completeExceptionally(e);
+                capacity.release();
+                return;
+            }
+            try {
+                // 3) fan-out
+                chatMessageService.fanOut(saved);
+                // 4) counters
+                chatMessageService.applyUnreadCounters(saved);
+            } catch (Exception e) {
+                log.error("Fan-out failed for message {} in room {}", saved.getId(), roomId, e);
+            } finally {
+                capacity.release();
+            }
+        });
+        return persisted;
+    }
+
+    private void enqueue(Long roomId, Runnable task) {
+        CompletableFuture<Void> next = lanes.compute(roomId, (id, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        .handle((ignored, error) -> (Void) null) // 앞선 작업의 실패와 무관하게 다음 메시지 처리
+                        .thenRunAsync(task, executor));
+        // lane이 비면 맵에서 제거 (그 사이 새 작업이 등록되었으면 유지)
+        next.whenComplete((ignored, error) -> lanes.remove(roomId, next));
+    }
+
+    public int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveLaneCount() {
+        return lanes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Chat send pipeline did not drain within 10s; {} tasks pending", executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
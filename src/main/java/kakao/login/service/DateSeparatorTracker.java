@@ -0,0 +1,127 @@
+package kakao.login.service;
+
+import kakao.login.entity.ChatMessage;
+import kakao.login.repository.ChatMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅방별 "마지막 날짜 구분 메시지 날짜"를 메모리에 유지합니다.
+ * 메시지 전송마다 최근 메시지를 조회하지 않고, 오늘 날짜와의 compare-and-set으로
+ * 날짜 구분 메시지를 삽입할 요청 하나만 선택합니다 (이 노드 안에서 채팅방·날짜당 한 번).
+ * 노드 간 중복은 chat_messages의 (roomId, separatorDate) 유니크 인덱스가 막습니다 (중복 키 = claim을 놓침).
+ * - 처음 보는 채팅방은 마지막 메시지 날짜로 지연 적재
+ * - 매일 자정 오래 활동이 없던 채팅방 항목을 정리 (최근 채팅방은 유지되어 자정 이후 첫 메시지도 조회 없이 처리)
+ */
+@Component
+@Slf4j
+public class DateSeparatorTracker {
+
+    // 메시지가 한 번도 없던 채팅방
+    private static final LocalDate NONE = LocalDate.MIN;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final int retentionDays;
+    private final ConcurrentHashMap<Long, LocalDate> lastSeparatorDates = new ConcurrentHashMap<>();
+
+    private final LongAdder seeded = new LongAdder();
+    private final LongAdder claimed = new LongAdder();
+
+    @Autowired
+    public DateSeparatorTracker(ChatMessageRepository chatMessageRepository,
+                                @Value("${chat.date-separator.retention-days:7}") int retentionDays) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * today 날짜 구분 메시지를 이 호출자가 삽입해야 하면 true (채팅방·날짜당 한 번만 true)
+     */
+    public boolean claim(Long roomId, LocalDate today) {
+        LocalDate current = lastSeparatorDates.get(roomId);
+        if (current == null) {
+            current = seed(roomId);
+        }
+        while (current.isBefore(today)) {
+            if (lastSeparatorDates.replace(roomId, current, today)) {
+                claimed.increment();
+                return true;
+            }
+            current = lastSeparatorDates.get(roomId);
+            if (current == null) {
+                current = seed(roomId);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 날짜 구분 메시지 저장에 실패한 경우 claim 취소 (다음 전송에서 다시 적재 후 시도)
+     */
+    public void release(Long roomId, LocalDate date) {
+        lastSeparatorDates.remove(roomId, date);
+    }
+
+    /**
+     * 아직 적재되지 않은 채팅방을 마지막 메시지 날짜로 한 번에 적재 (대량 발송용)
+     */
+    public void seedAll(Collection<Long> roomIds) {
+        List<Long> unknown = roomIds.stream()
+                .filter(roomId -> !lastSeparatorDates.containsKey(roomId))
+                .collect(Collectors.toList());
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Map<Long, ChatMessage> lastMessages = chatMessageRepository.findLastMessagesByRoomIds(unknown);
+        for (Long roomId : unknown) {
+            lastSeparatorDates.putIfAbsent(roomId, dateOf(lastMessages.get(roomId)));
+        }
+        seeded.add(unknown.size());
+    }
+
+    /**
+     * 자정 이후: 오래 활동이 없던 채팅방 항목 제거 (다시 메시지가 오면 지연 적재)
+     */
+    @Scheduled(cron = "${chat.date-separator.rollover-cron:0 0 0 * * *}")
+    public void rollover() {
+        LocalDate cutoff = LocalDate.now(ZoneId.systemDefault()).minusDays(retentionDays);
+        int before = lastSeparatorDates.size();
+        lastSeparatorDates.values().removeIf(date -> date.isBefore(cutoff));
+        log.info("Date separator rollover: {} rooms tracked ({} idle rooms dropped)",
+                lastSeparatorDates.size(), before - lastSeparatorDates.size());
+    }
+
+    /**
+     * 상태 (관리자 진단용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedRooms", lastSeparatorDates.size());
+        stats.put("retentionDays", retentionDays);
+        stats.put("seeded", seeded.sum());
+        stats.put("claimed", claimed.sum());
+        return stats;
+    }
+
+    private LocalDate seed(Long roomId) {
+        List<ChatMessage> last = chatMessageRepository.findTop2ByRoomIdOrderByTimestampDesc(roomId);
+        LocalDate loaded = dateOf(last.isEmpty() ? null : last.get(0));
+        seeded.increment();
+        LocalDate raced = lastSeparatorDates.putIfAbsent(roomId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private static LocalDate dateOf(ChatMessage message) {
+        return message != null && message.getTimestamp() != null ? message.getTimestamp().toLocalDate() : NONE;
+    }
+}
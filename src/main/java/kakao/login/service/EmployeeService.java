@@ -20,7 +20,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -35,14 +34,19 @@ public class EmployeeService {
     private final DepartmentRepository departmentRepository;
     private final SectionRepository sectionRepository;
 
+    private final ProfileImageService profileImageService;
+    private final SenderIdentityCache senderIdentityCache;
+
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    public EmployeeService(EmployeeRepository employeeRepository, UserRepository userRepository, DepartmentRepository departmentRepository, SectionRepository sectionRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository, UserRepository userRepository, DepartmentRepository departmentRepository, SectionRepository sectionRepository, ProfileImageService profileImageService, SenderIdentityCache senderIdentityCache) {
         this.employeeRepository = employeeRepository;
         this.userRepository = userRepository;
         this.departmentRepository = departmentRepository;
         this.sectionRepository = sectionRepository;
+        this.profileImageService = profileImageService;
+        this.senderIdentityCache = senderIdentityCache;
     }
 
     // 직원 등록 메소드
@@ -82,14 +86,14 @@ public class EmployeeService {
         employee.setPosition(position);
         employee.setKakaoUuid(user.getKakaoUuid()); // kakaoUuid 설정
 
-        // 프로필 이미지가 있을 경우, byte[]로 변환하여 설정
-        if (profileImage != null && !profileImage.isEmpty()) {
-            employee.setProfileImage(profileImage.getBytes());
-        }
         log.info("User {} kakaoUuid: {}", userId, user.getKakaoUuid());
 
-        // 직원 저장 후 반환
-        return employeeRepository.save(employee);
+        // 직원 저장 후 반환 (프로필 이미지는 직원 ID가 생긴 뒤 별도 저장소에 저장)
+        EmployeeEntity saved = employeeRepository.save(employee);
+        if (profileImage != null && !profileImage.isEmpty()) {
+            profileImageService.store(saved, profileImage.getBytes());
+        }
+        return saved;
     }
 
     // 기존 직원의 kakaoUuid 업데이트 메서드
@@ -130,12 +134,6 @@ public class EmployeeService {
             throw new RuntimeException("Employee not found for userId: " + userId);
         }
 
-        if (employee != null && employee.getProfileImage() != null) {
-            // 프로필 이미지가 있을 경우 Base64로 변환하여 set
-            String profileImageBase64 = Base64.getEncoder().encodeToString(employee.getProfileImage());
-            employee.setProfileImageBase64(profileImageBase64);
-        }
-
         // kakaoUuid 값이 null이 아닌지 확인
         String kakaoUuid = employee.getKakaoUuid();
         if (kakaoUuid != null) {
@@ -220,11 +218,12 @@ public class EmployeeService {
 
         // ✅ 🟢 프로필 이미지 처리
         if (profileImage != null && !profileImage.isEmpty()) {
-            employee.setProfileImage(profileImage.getBytes());
+            profileImageService.store(employee, profileImage.getBytes());
         }
 
         employeeRepository.save(employee);
         employeeRepository.flush(); // 즉시 DB에 반영
+        senderIdentityCache.evict(employee); // 채팅 발신자 정보 캐시 갱신
         System.out.println("✅ 직원 정보 업데이트 완료: " + employeeId);
         return true;
     }
@@ -233,6 +232,8 @@ public class EmployeeService {
     public boolean deleteEmployee(Long employeeId) {
         Optional<EmployeeEntity> employeeOptional = employeeRepository.findById(employeeId);
         if (employeeOptional.isPresent()) {
+            profileImageService.delete(employeeId);
+            senderIdentityCache.evict(employeeOptional.get());
             employeeRepository.deleteById(employeeId);
             return true;
         }
@@ -344,6 +345,7 @@ public class EmployeeService {
         System.out.println("🔍 변환된 직원 DTO: " + employee.getName() + ", kakaoUuid: " + employee.getKakaoUuid());
 
         dto.setKakaoUuid(employee.getKakaoUuid());
+        dto.setProfileImageUrl(employee.getProfileImageUrl());
         return dto;
     }
 
@@ -375,13 +377,6 @@ public class EmployeeService {
                 .orElseThrow(() -> new RuntimeException("해당 직원이 존재하지 않습니다."));
     }
 
-    @Transactional
-    public byte[] getProfileImage(Long employeeId) {
-        return employeeRepository.findById(employeeId)
-                .map(EmployeeEntity::getProfileImage)
-                .orElse(null);
-    }
-
     public boolean updateEmployeeProfile(Long employeeId, String name, String phone, String password, MultipartFile profileImage) throws IOException {
         Optional<EmployeeEntity> optionalEmployee = employeeRepository.findById(employeeId);
         if (!optionalEmployee.isPresent()) {
@@ -407,7 +402,7 @@ public class EmployeeService {
         if (profileImage != null && !profileImage.isEmpty()) {
             try {
                 byte[] imageBytes = profileImage.getBytes();
-                employee.setProfileImage(imageBytes);
+                profileImageService.store(employee, imageBytes);
                 isUpdated = true;
             } catch (IOException e) {
                 throw new IOException("프로필 이미지 처리 중 오류가 발생했습니다.", e);
@@ -427,6 +422,7 @@ public class EmployeeService {
         // 5. EmployeeEntity 저장 (변경사항이 있는 경우에만)
         if (isUpdated) {
             employeeRepository.save(employee);
+            senderIdentityCache.evict(employee); // 채팅 발신자 정보 캐시 갱신
             return true;
         }
 
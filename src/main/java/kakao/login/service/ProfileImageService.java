@@ -0,0 +1,277 @@
+package kakao.login.service;
+
+import kakao.login.entity.EmployeeEntity;
+import kakao.login.entity.EmployeeProfileImageEntity;
+import kakao.login.repository.EmployeeProfileImageRepository;
+import kakao.login.repository.EmployeeRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 직원 프로필 이미지 저장/조회
+ * - 업로드 시 썸네일(THUMBNAIL_SIZE)과 원본(FULL_SIZE 이하로 축소) 두 가지를 생성해 employee_profile_image에 저장
+ * - 조회는 바이트 크기 기준 LRU 캐시에서 먼저 찾고, 없을 때만 요청한 크기의 BLOB 한 개를 읽음
+ */
+@Service
+@Slf4j
+public class ProfileImageService {
+
+    public static final int THUMBNAIL_SIZE = 128;
+    public static final int FULL_SIZE = 1024;
+
+    public enum Variant {
+        THUMBNAIL, FULL;
+
+        public static Variant from(String value) {
+            return "thumb".equalsIgnoreCase(value) || "thumbnail".equalsIgnoreCase(value) ? THUMBNAIL : FULL;
+        }
+    }
+
+    private final EmployeeProfileImageRepository profileImageRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ImageCache cache;
+
+    @Autowired
+    public ProfileImageService(EmployeeProfileImageRepository profileImageRepository,
+                               EmployeeRepository employeeRepository,
+                               @Value("${profile-image.cache.max-bytes:33554432}") long cacheMaxBytes) {
+        this.profileImageRepository = profileImageRepository;
+        this.employeeRepository = employeeRepository;
+        this.cache = new ImageCache(cacheMaxBytes);
+    }
+
+    /**
+     * 이미지를 썸네일/원본 크기로 변환해 저장하고 직원의 프로필 이미지 버전을 갱신
+     */
+    @Transactional
+    public String store(EmployeeEntity employee, byte[] original) throws IOException {
+        if (employee.getId() == null) {
+            throw new IllegalStateException("Employee must be saved before storing a profile image");
+        }
+        String version = EmployeeEntity.versionOf(original);
+        if (version == null) {
+            throw new IllegalArgumentException("프로필 이미지가 비어 있습니다.");
+        }
+
+        EmployeeProfileImageEntity image = profileImageRepository.findById(employee.getId())
+                .orElseGet(EmployeeProfileImageEntity::new);
+        image.setEmployeeId(employee.getId());
+        image.setVersion(version);
+
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+        if (source == null) {
+            // ImageIO가 읽지 못하는 형식(webp 등)은 변환 없이 그대로 저장
+            log.warn("Unsupported profile image format for employee {}; storing original bytes", employee.getId());
+            image.setThumbnail(original);
+            image.setFullImage(original);
+            image.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        } else {
+            boolean alpha = source.getColorModel().hasAlpha();
+            String format = alpha ? "png" : "jpeg";
+            image.setThumbnail(encode(scale(source, THUMBNAIL_SIZE, alpha), format));
+            image.setFullImage(encode(scale(source, FULL_SIZE, alpha), format));
+            image.setContentType(alpha ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE);
+        }
+        profileImageRepository.save(image);
+
+        employee.setProfileImageVersion(version);
+        evictAfterCommit(employee.getId());
+        return version;
+    }
+
+    /**
+     * 현재 프로필 이미지 버전 (ETag). 캐시에 있으면 DB를 조회하지 않음
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getVersion(Long employeeId, Variant variant) {
+        CachedImage cached = cache.get(keyOf(employeeId, variant));
+        if (cached != null) {
+            return Optional.of(cached.getVersion());
+        }
+        return employeeRepository.findProfileImageVersionById(employeeId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CachedImage> find(Long employeeId, Variant variant) {
+        String key = keyOf(employeeId, variant);
+        CachedImage cached = cache.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<String> version = employeeRepository.findProfileImageVersionById(employeeId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<byte[]> bytes = variant == Variant.THUMBNAIL
+                ? profileImageRepository.findThumbnailByEmployeeId(employeeId)
+                : profileImageRepository.findFullImageByEmployeeId(employeeId);
+        if (bytes.isEmpty()) {
+            return Optional.empty();
+        }
+        String contentType = profileImageRepository.findContentTypeByEmployeeId(employeeId)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        CachedImage loaded = new CachedImage(bytes.get(), contentType, version.get());
+        cache.put(key, loaded);
+        return Optional.of(loaded);
+    }
+
+    @Transactional
+    public void delete(Long employeeId) {
+        if (profileImageRepository.existsById(employeeId)) {
+            profileImageRepository.deleteById(employeeId);
+        }
+        evictAfterCommit(employeeId);
+    }
+
+    // 커밋 전에 다른 요청이 이전 이미지를 다시 캐시할 수 있으므로 커밋 이후에도 한 번 더 제거
+    private void evictAfterCommit(Long employeeId) {
+        cache.evict(employeeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(employeeId);
+                }
+            });
+        }
+    }
+
+    public long getCacheSizeBytes() {
+        return cache.getTotalBytes();
+    }
+
+    private static String keyOf(Long employeeId, Variant variant) {
+        return employeeId + ":" + variant.name();
+    }
+
+    /**
+     * 긴 변이 maxSize 이하가 되도록 비율을 유지해 축소 (확대하지 않음).
+     * 한 번에 크게 줄이면 계단 현상이 생기므로 절반씩 단계적으로 줄임
+     */
+    private static BufferedImage scale(BufferedImage source, int maxSize, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            if (ratio == 1.0) {
+                currentWidth = targetWidth;
+                currentHeight = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                if (!alpha) {
+                    // JPEG는 투명도를 지원하지 않으므로 흰 배경으로 채움
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, format, out)) {
+            throw new IOException("No ImageIO writer for format " + format);
+        }
+        return out.toByteArray();
+    }
+
+    @Getter
+    public static final class CachedImage {
+        private final byte[] bytes;
+        private final String contentType;
+        private final String version;
+
+        private CachedImage(byte[] bytes, String contentType, String version) {
+            this.bytes = bytes;
+            this.contentType = contentType;
+            this.version = version;
+        }
+    }
+
+    /**
+     * 이미지 바이트 합계가 maxBytes를 넘지 않도록 가장 오래 사용되지 않은 항목부터 제거하는 LRU 캐시
+     */
+    private static final class ImageCache {
+        private final long maxBytes;
+        private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private long totalBytes;
+
+        private ImageCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized CachedImage get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, CachedImage image) {
+            long size = image.getBytes().length;
+            if (size > maxBytes) {
+                return;
+            }
+            CachedImage previous = entries.put(key, image);
+            if (previous != null) {
+                totalBytes -= previous.getBytes().length;
+            }
+            totalBytes += size;
+            Iterator<Map.Entry<String, CachedImage>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, CachedImage> eldest = it.next();
+                totalBytes -= eldest.getValue().getBytes().length;
+                it.remove();
+            }
+        }
+
+        synchronized void evict(Long employeeId) {
+            for (Variant variant : Variant.values()) {
+                CachedImage removed = entries.remove(keyOf(employeeId, variant));
+                if (removed != null) {
+                    totalBytes -= removed.getBytes().length;
+                }
+            }
+        }
+
+        synchronized long getTotalBytes() {
+            return totalBytes;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package kakao.login.service;
+
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.EmployeeEntity;
+import kakao.login.repository.EmployeeRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * userId → 발신자 정보(직원 ID, 이름, 부서명, 직급, 프로필 이미지 버전) 캐시.
+ * 메시지 전송/브로드캐스트 경로에서 매번 employee + user 조인 조회를 하지 않도록 합니다.
+ * - 최대 maxSize개, 마지막 조회 순서 기준 LRU로 제거
+ * - 적재 후 ttl이 지나면 다시 조회 (다른 인스턴스에서 변경된 직원 정보 반영)
+ * - 직원 정보 수정/삭제, 프로필 이미지 마이그레이션 시 evict, 부서명 변경 시 해당 부서 항목을 evictDepartment
+ */
+@Component
+@Slf4j
+public class SenderIdentityCache {
+
+    private final EmployeeRepository employeeRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // evict가 일어날 때마다 증가. 조회 도중 evict된 경우 DB에서 읽은 (이전) 값을 적재하지 않음
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public SenderIdentityCache(EmployeeRepository employeeRepository,
+                               @Value("${chat.sender-cache.max-size:10000}") int maxSize,
+                               @Value("${chat.sender-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.employeeRepository = employeeRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    }
+
+    /**
+     * 발신자 정보 조회. 캐시에 없거나 만료되었으면 DB에서 읽어 적재 (직원이 없으면 empty, 캐시하지 않음)
+     */
+    public Optional<SenderIdentity> find(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        long stamp;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return Optional.of(entry.identity);
+            }
+            if (entry != null) {
+                entries.remove(userId);
+                evictions.increment();
+            }
+            stamp = invalidations;
+        }
+        misses.increment();
+
+        EmployeeEntity employee = employeeRepository.findByUser_UserId(userId);
+        if (employee == null) {
+            return Optional.empty();
+        }
+        SenderIdentity identity = SenderIdentity.of(userId, employee);
+        put(userId, identity, now, stamp);
+        return Optional.of(identity);
+    }
+
+    /**
+     * 발신자 정보 조회. 직원이 없으면 RuntimeException
+     */
+    public SenderIdentity get(String userId) {
+        return find(userId).orElseThrow(() -> new RuntimeException("Employee not found with userId: " + userId));
+    }
+
+    /**
+     * 직원 정보 변경 시 호출. 커밋 전에 다른 요청이 이전 값을 다시 적재할 수 있으므로 커밋 이후에도 한 번 더 제거
+     */
+    public void evict(EmployeeEntity employee) {
+        if (employee == null || employee.getUser() == null) {
+            return;
+        }
+        String userId = employee.getUser().getUserId();
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 부서명 변경 시 호출. 이전 부서명으로 캐시된 발신자를 모두 제거 (커밋 이후에도 한 번 더 제거)
+     */
+    public void evictDepartment(String departmentName) {
+        if (departmentName == null) {
+            return;
+        }
+        removeDepartment(departmentName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeDepartment(departmentName);
+                }
+            });
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * 캐시 상태 (관리자 진단용)
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", Duration.ofNanos(ttlNanos).getSeconds());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    private synchronized void put(String userId, SenderIdentity identity, long loadedAt, long stamp) {
+        if (stamp != invalidations) {
+            return;
+        }
+        entries.put(userId, new Entry(identity, loadedAt));
+        while (entries.size() > maxSize) {
+            String eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+            evictions.increment();
+        }
+    }
+
+    private synchronized void remove(String userId) {
+        invalidations++;
+        if (entries.remove(userId) != null) {
+            evictions.increment();
+        }
+    }
+
+    private synchronized void removeDepartment(String departmentName) {
+        invalidations++;
+        int before = entries.size();
+        entries.values().removeIf(entry -> departmentName.equals(entry.identity.getDepartmentName()));
+        evictions.add(before - entries.size());
+    }
+
+    private static final class Entry {
+        private final SenderIdentity identity;
+        private final long loadedAt;
+
+        private Entry(SenderIdentity identity, long loadedAt) {
+            this.identity = identity;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * 메시지 발신자 표시용 직원 정보 스냅샷 (불변)
+     */
+    @Getter
+    public static final class SenderIdentity {
+        private final String userId;
+        private final Long employeeId;
+        private final String name;
+        private final String departmentName;
+        private final String position;
+        private final String imageVersion;
+
+        private SenderIdentity(String userId, Long employeeId, String name, String departmentName,
+                               String position, String imageVersion) {
+            this.userId = userId;
+            this.employeeId = employeeId;
+            this.name = name;
+            this.departmentName = departmentName;
+            this.position = position;
+            this.imageVersion = imageVersion;
+        }
+
+        static SenderIdentity of(String userId, EmployeeEntity employee) {
+            return new SenderIdentity(userId, employee.getId(), employee.getName(),
+                    employee.getDepartment() != null ? employee.getDepartment().getDepartmentName() : "",
+                    employee.getPosition(), employee.getProfileImageVersion());
+        }
+
+        /**
+         * ChatMessage(roomId, EmployeeEntity, content)와 같은 발신자 필드를 채운 새 메시지
+         */
+        public ChatMessage toMessage(Long roomId, String content) {
+            ChatMessage message = new ChatMessage();
+            message.setRoomId(roomId);
+            message.setSenderId(userId);
+            message.setSenderName(name);
+            message.setSenderDepartment(departmentName);
+            message.setSenderPosition(position);
+            message.setSenderEmployeeId(employeeId);
+            message.setSenderImageVersion(imageVersion);
+            message.setContent(content);
+            message.setTimestamp(LocalDateTime.now());
+            return message;
+        }
+    }
+}
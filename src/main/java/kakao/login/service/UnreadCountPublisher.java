@@ -0,0 +1,247 @@
+package kakao.login.service;
+
+import jakarta.annotation.PreDestroy;
+import kakao.login.entity.ChatRoom;
+import kakao.login.entity.ChatUnreadCounter;
+import kakao.login.repository.ChatRoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅방별 unread 변경 알림을 모아서 전송합니다.
+ * 전송/읽음/업로드 시 markDirty만 호출하고, 실제 전송은 flush-window 동안 한 번만 수행합니다.
+ * - '/topic/chat/{roomId}/unread-count': lastMessageContent/lastActivity (채팅방 공통 정보)
+ * - '/user/queue/unread': 카운터가 바뀐 참가자에게만 본인의 {roomId, unreadCount, totalUnread}
+ * 전송 시점에 채팅방을 다시 조회하고 ChatRoomSummaryBuffer의 미저장 요약을 덮어쓰므로 항상 최신 값이 전달됩니다.
+ * unreadCount는 바뀐 참가자의 카운터만, totalUnread는 사용자별 합계 문서만 조회하므로 참가자 로스터나
+ * 참가자의 다른 채팅방을 읽지 않습니다.
+ * 스케줄러 스레드는 window 타이밍만 담당하고, flush는 크기가 정해진 worker 풀(chat.unread-count.workers,
+ * chat.unread-count.queue-capacity)에서 실행합니다. 같은 채팅방의 flush는 동시에 하나만 실행하며,
+ * 풀이 가득 차면 변경을 pendingRooms에 남겨 둔 채 다음 window에 다시 시도합니다.
+ */
+@Component
+@Slf4j
+public class UnreadCountPublisher {
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatRoomSummaryBuffer chatRoomSummaryBuffer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UnreadCounterService unreadCounterService;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolTaskExecutor workers;
+    private final long flushWindowMs;
+
+    // flush 실행 중인 채팅방 (같은 채팅방 flush 직렬화)
+    private final Set<Long> flushingRooms = ConcurrentHashMap.newKeySet();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // roomId → 마지막으로 변경을 일으킨 userId와 카운터가 바뀐 사용자 (flush 대기 중인 채팅방만 존재)
+    private final ConcurrentHashMap<Long, PendingRoom> pendingRooms = new ConcurrentHashMap<>();
+
+    // ChatMessageService ↔ UnreadCountPublisher 순환 참조 방지
+    @Lazy
+    @Autowired
+    private ChatMessageService chatMessageService;
+
+    @Lazy
+    @Autowired
+    private ChatRoomListService chatRoomListService;
+
+    @Autowired
+    public UnreadCountPublisher(ChatRoomRepository chatRoomRepository,
+                                ChatRoomSummaryBuffer chatRoomSummaryBuffer,
+                                SimpMessagingTemplate messagingTemplate,
+                                UnreadCounterService unreadCounterService,
+                                @Value("${chat.unread-count.flush-window-ms:150}") long flushWindowMs,
+                                @Value("${chat.unread-count.workers:4}") int workerCount,
+                                @Value("${chat.unread-count.queue-capacity:1000}") int queueCapacity) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatRoomSummaryBuffer = chatRoomSummaryBuffer;
+        this.messagingTemplate = messagingTemplate;
+        this.unreadCounterService = unreadCounterService;
+        this.flushWindowMs = flushWindowMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "unread-count-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setThreadNamePrefix("unread-count-flush-");
+        this.workers.setCorePoolSize(workerCount);
+        this.workers.setMaxPoolSize(workerCount);
+        this.workers.setQueueCapacity(queueCapacity);
+        this.workers.setDaemon(true);
+        this.workers.initialize();
+    }
+
+    /**
+     * userId 본인의 unread-count가 변경되었음을 표시 (읽음 처리 등)
+     */
+    public void markDirty(Long roomId, String userId) {
+        markDirty(roomId, userId, userId != null ? List.of(userId) : List.of());
+    }
+
+    /**
+     * 채팅방의 unread-count가 변경되었음을 표시. changedUserIds는 카운터가 바뀐 사용자(이들에게만 개인 알림 전송).
+     * 트랜잭션 안에서 호출되면 커밋 이후에 반영
+     */
+    public void markDirty(Long roomId, String userId, Collection<String> changedUserIds) {
+        if (roomId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(roomId, userId, changedUserIds);
+                }
+            });
+        } else {
+            enqueue(roomId, userId, changedUserIds);
+        }
+    }
+
+    private void enqueue(Long roomId, String userId, Collection<String> changedUserIds) {
+        String trigger = userId != null ? userId : "";
+        boolean[] created = {false};
+        // 이미 대기 중인 채팅방이면 트리거 사용자와 대상만 합치고 추가 스케줄링하지 않음
+        pendingRooms.compute(roomId, (id, pending) -> {
+            if (pending == null) {
+                pending = new PendingRoom();
+                created[0] = true;
+            }
+            pending.trigger = trigger;
+            pending.userIds.addAll(changedUserIds);
+            return pending;
+        });
+        if (created[0]) {
+            schedule(roomId);
+        }
+    }
+
+    private void schedule(Long roomId) {
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(() -> dispatch(roomId), flushWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // window가 끝나면 flush를 worker 풀에 넘김 (스케줄러 스레드에서는 블로킹 조회를 하지 않음)
+    private void dispatch(Long roomId) {
+        try {
+            workers.execute(() -> flushExclusively(roomId));
+        } catch (RejectedExecutionException e) {
+            // 대기 중인 변경은 pendingRooms에 남아 있으므로 다음 window에 다시 시도
+            rejected.increment();
+            log.warn("Unread count flush for room {} rejected ({} rejected so far), retrying next window", roomId, rejected.sum());
+            schedule(roomId);
+        }
+    }
+
+    private void flushExclusively(Long roomId) {
+        // 같은 채팅방의 앞선 flush가 아직 실행 중이면 다음 window로 미룸 (전송 순서 유지)
+        if (!flushingRooms.add(roomId)) {
+            deferred.increment();
+            schedule(roomId);
+            return;
+        }
+        try {
+            flush(roomId);
+            flushes.increment();
+        } finally {
+            flushingRooms.remove(roomId);
+        }
+    }
+
+    private void flush(Long roomId) {
+        // flush 도중 들어온 변경은 다음 window에서 다시 전송되도록 먼저 제거
+        PendingRoom pending = pendingRooms.remove(roomId);
+        if (pending == null) {
+            return;
+        }
+        try {
+            ChatRoom room = chatRoomRepository.findById(roomId).map(chatRoomSummaryBuffer::overlay).orElse(null);
+            if (room == null) {
+                return;
+            }
+
+            // 채팅방 토픽에는 목록 미리보기 정보만 전송 (lastMessageContent가 null이면 빈 문자열)
+            Map<String, Object> roomPayload = new HashMap<>();
+            roomPayload.put("userId", pending.trigger);
+            roomPayload.put("lastMessageContent", room.getLastMessageContent() != null ? room.getLastMessageContent() : "");
+            roomPayload.put("lastActivity", room.getLastActivity());
+            messagingTemplate.convertAndSend("/topic/chat/" + roomId + "/unread-count", roomPayload);
+
+            // 카운터가 바뀐 참가자에게만 본인의 unreadCount와 전체 배지 합계를 '/user/queue/unread'로 전송
+            Set<String> userIds = pending.userIds;
+            if (userIds.isEmpty()) {
+                return;
+            }
+            Map<String, ChatUnreadCounter> counters = unreadCounterService.findByRoom(roomId, userIds);
+            Map<String, Long> unreadCounts = new HashMap<>();
+            userIds.forEach(uid -> {
+                ChatUnreadCounter counter = counters.get(uid);
+                // 카운터가 없으면(나간 참가자, 아직 채워지지 않은 카운터) 계산 후 채움
+                unreadCounts.put(uid, counter != null ? counter.getCount() : chatMessageService.resolveUnreadCount(roomId, uid));
+            });
+            Map<String, Long> totals = chatRoomListService.getTotalUnread(userIds);
+            unreadCounts.forEach((uid, count) -> {
+                Map<String, Object> delta = new HashMap<>();
+                delta.put("roomId", roomId);
+                delta.put("unreadCount", count);
+                delta.put("totalUnread", totals.getOrDefault(uid, count));
+                messagingTemplate.convertAndSendToUser(uid, "/queue/unread", delta);
+            });
+            log.debug("Published unread deltas for room {} to {} users", roomId, unreadCounts.size());
+        } catch (Exception e) {
+            log.error("Failed to broadcast unread counts for room {}", roomId, e);
+        }
+    }
+
+    private static final class PendingRoom {
+        private volatile String trigger;
+        private final Set<String> userIds = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * 상태 (관리자 진단용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingRooms", pendingRooms.size());
+        stats.put("flushingRooms", flushingRooms.size());
+        stats.put("flushes", flushes.sum());
+        stats.put("deferred", deferred.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("activeWorkers", workers.getActiveCount());
+        stats.put("queued", workers.getThreadPoolExecutor().getQueue().size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,396 @@
+package kakao.login.service;
+
+import kakao.login.entity.ChatUnreadCounter;
+import kakao.login.entity.ChatUnreadTotal;
+import lombok.extern.slf4j.Slf4j;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * chat_unread_counters 컬렉션에 (roomId, userId)별 unread 카운터를 원자적으로 유지합니다.
+ * 카운터가 없는 경우(최초 조회, 재입장 등)에는 호출 측에서 계산한 값으로 다시 채웁니다.
+ * 카운터의 count를 바꾸는 모든 update는 같은 증감량을 chat_unread_totals의 사용자별 합계에 $inc로 반영하므로,
+ * 배지 합계는 사용자의 모든 채팅방을 다시 읽지 않고 합계 문서 하나로 조회합니다.
+ * 합계 문서가 아직 없는 사용자는 증감을 건너뛰고, 처음 조회될 때 계산값으로 만듭니다(initTotal).
+ */
+@Service
+@Slf4j
+public class UnreadCounterService {
+
+    // 카운터별로 보관하는 최근 증가 메시지 시각 수 (읽음 처리와 동시에 도착한 증가분 판별용)
+    private static final int RECENT_LIMIT = 100;
+    // 카운터별로 보관하는 최근 update 식별자 수 (updateMulti/bulk 직후 실제로 변경된 카운터 조회용)
+    private static final int OPS_LIMIT = 16;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UnreadCounterService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Optional<ChatUnreadCounter> find(Long roomId, String userId) {
+        return Optional.ofNullable(mongoTemplate.findById(ChatUnreadCounter.idOf(roomId, userId), ChatUnreadCounter.class));
+    }
+
+    /**
+     * 한 채팅방의 여러 참가자 카운터를 한 번의 쿼리로 조회 (userId → 카운터)
+     */
+    public Map<String, ChatUnreadCounter> findByRoom(Long roomId, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> ids = userIds.stream()
+                .map(uid -> ChatUnreadCounter.idOf(roomId, uid))
+                .collect(Collectors.toList());
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), ChatUnreadCounter.class).stream()
+                .collect(Collectors.toMap(ChatUnreadCounter::getUserId, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * 한 사용자의 여러 채팅방 카운터를 한 번의 쿼리로 조회 (roomId → 카운터)
+     */
+    public Map<Long, ChatUnreadCounter> findByUser(String userId, Collection<Long> roomIds) {
+        if (roomIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> ids = roomIds.stream()
+                .map(roomId -> ChatUnreadCounter.idOf(roomId, userId))
+                .collect(Collectors.toList());
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), ChatUnreadCounter.class).stream()
+                .collect(Collectors.toMap(ChatUnreadCounter::getRoomId, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * 여러 사용자의 여러 채팅방 카운터를 한 번의 쿼리로 조회 (userId → roomId → 카운터)
+     */
+    public Map<String, Map<Long, ChatUnreadCounter>> findByUsers(Map<String, ? extends Collection<Long>> roomIdsByUser) {
+        List<String> ids = new ArrayList<>();
+        roomIdsByUser.forEach((userId, roomIds) ->
+                roomIds.forEach(roomId -> ids.add(ChatUnreadCounter.idOf(roomId, userId))));
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Map<Long, ChatUnreadCounter>> counters = new HashMap<>();
+        mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), ChatUnreadCounter.class).forEach(counter ->
+                counters.computeIfAbsent(counter.getUserId(), k -> new HashMap<>()).put(counter.getRoomId(), counter));
+        return counters;
+    }
+
+    /**
+     * 채팅방을 나간 참가자의 카운터 삭제 (배지 합계에서 제외)
+     */
+    public void delete(Long roomId, String userId) {
+        ChatUnreadCounter removed = mongoTemplate.findAndRemove(
+                new Query(Criteria.where("_id").is(ChatUnreadCounter.idOf(roomId, userId))), ChatUnreadCounter.class);
+        if (removed != null) {
+            incTotals(Map.of(userId, -removed.getCount()));
+        }
+    }
+
+    /**
+     * 수신자들의 카운터를 한 번의 updateMulti($inc)로 증가.
+     * 아직 카운터가 없는 수신자는 upsert하지 않고 다음 조회 시 계산값으로 채움.
+     * 읽음 워터마크(readAt)가 메시지 시각 이후인 카운터는 이미 읽은 메시지이므로 증가하지 않음
+     * @return 카운터가 실제로 증가한 사용자 (배지 합계도 같이 증가)
+     */
+    public Set<String> increment(Long roomId, Collection<String> userIds, LocalDateTime messageTimestamp) {
+        if (userIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> targets = new LinkedHashSet<>(userIds);
+        List<String> ids = targets.stream()
+                .map(uid -> ChatUnreadCounter.idOf(roomId, uid))
+                .collect(Collectors.toList());
+        String op = newOp();
+        long modified = mongoTemplate.updateMulti(new Query(unreadAt(Criteria.where("_id").in(ids), messageTimestamp)),
+                countedUpdate(1, messageTimestamp, op), ChatUnreadCounter.class).getModifiedCount();
+        Set<String> changed = modified == ids.size() ? targets : changedUserIds(ids, op, modified);
+        incTotals(changed, 1);
+        log.debug("Unread counters incremented: roomId={}, targets={}, modified={}", roomId, ids.size(), modified);
+        return changed;
+    }
+
+    /**
+     * 여러 채팅방의 (roomId, userId) 카운터를 한 번의 bulk 요청으로 증가 (대량 발송용, roomId → 증가량).
+     * increment와 마찬가지로 카운터가 없는 경우는 upsert하지 않음
+     * @return 카운터가 실제로 증가한 채팅방 (배지 합계도 같이 증가)
+     */
+    public Set<Long> incrementEach(Map<Long, String> userIdByRoom, Map<Long, Integer> amountByRoom,
+                                   Map<Long, LocalDateTime> timestampByRoom) {
+        if (userIdByRoom.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String op = newOp();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatUnreadCounter.class);
+        userIdByRoom.forEach((roomId, userId) -> {
+            LocalDateTime timestamp = timestampByRoom.get(roomId);
+            bulk.updateOne(
+                    new Query(unreadAt(Criteria.where("_id").is(ChatUnreadCounter.idOf(roomId, userId)), timestamp)),
+                    countedUpdate(amountByRoom.getOrDefault(roomId, 1), timestamp, op));
+        });
+        int modified = bulk.execute().getModifiedCount();
+
+        Set<Long> changed;
+        if (modified == userIdByRoom.size()) {
+            changed = userIdByRoom.keySet();
+        } else if (modified == 0) {
+            changed = Collections.emptySet();
+        } else {
+            List<String> ids = userIdByRoom.entrySet().stream()
+                    .map(e -> ChatUnreadCounter.idOf(e.getKey(), e.getValue()))
+                    .collect(Collectors.toList());
+            changed = changedCounters(ids, op).stream()
+                    .map(ChatUnreadCounter::getRoomId)
+                    .collect(Collectors.toSet());
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        changed.forEach(roomId ->
+                deltas.merge(userIdByRoom.get(roomId), (long) amountByRoom.getOrDefault(roomId, 1), Long::sum));
+        incTotals(deltas);
+        return changed;
+    }
+
+    /**
+     * 여러 (roomId, userId) 카운터를 한 번의 쿼리로 조회 (roomId → 카운터)
+     */
+    public Map<Long, ChatUnreadCounter> findEach(Map<Long, String> userIdByRoom) {
+        if (userIdByRoom.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> ids = userIdByRoom.entrySet().stream()
+                .map(e -> ChatUnreadCounter.idOf(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), ChatUnreadCounter.class).stream()
+                .collect(Collectors.toMap(ChatUnreadCounter::getRoomId, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * 삭제된 메시지를 아직 읽지 않은 수신자들의 카운터를 감소 (0 미만으로 내려가지 않음)
+     * @return 카운터가 실제로 감소한 사용자 (배지 합계도 같이 감소)
+     */
+    public Set<String> decrement(Long roomId, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> targets = new LinkedHashSet<>(userIds);
+        List<String> ids = targets.stream()
+                .map(uid -> ChatUnreadCounter.idOf(roomId, uid))
+                .collect(Collectors.toList());
+        String op = newOp();
+        Update update = new Update().inc("count", -1).set("updatedAt", LocalDateTime.now());
+        update.push("ops").slice(-OPS_LIMIT).each(op);
+        long modified = mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids).and("count").gt(0)),
+                update, ChatUnreadCounter.class).getModifiedCount();
+        Set<String> changed = modified == ids.size() ? targets : changedUserIds(ids, op, modified);
+        incTotals(changed, -1);
+        log.debug("Unread counters decremented: roomId={}, targets={}, modified={}", roomId, ids.size(), modified);
+        return changed;
+    }
+
+    /**
+     * 읽음 처리: 워터마크를 readAt으로 이동하고, 카운터를 워터마크 이후에 도착한 증가분 수로 맞춤.
+     * 워터마크 이동과 카운터 초기화를 한 번의 pipeline update로 처리하므로
+     * 읽음 처리 도중 도착한 새 메시지의 증가가 0으로 덮어써져 사라지지 않습니다.
+     * 직전 count(prevCount)를 같은 update에서 남겨 두고, 변경량만큼 배지 합계에 반영합니다.
+     */
+    public void resetOnRead(Long roomId, String userId, LocalDateTime joinedAt, LocalDateTime readAt) {
+        Date watermark = toDate(truncate(readAt));
+        List<Document> pipeline = List.of(
+                new Document("$set", new Document("prevCount", new Document("$ifNull", Arrays.asList("$count", 0)))),
+                // 워터마크는 뒤로 가지 않음 ($max는 값이 없는 필드를 무시)
+                new Document("$set", new Document("roomId", roomId)
+                        .append("userId", userId)
+                        .append("joinedAt", toDate(truncate(joinedAt)))
+                        .append("readAt", new Document("$max", Arrays.asList("$readAt", watermark)))
+                        .append("updatedAt", new Date())),
+                new Document("$set", new Document("recent", new Document("$filter", new Document()
+                        .append("input", new Document("$ifNull", Arrays.asList("$recent", List.of())))
+                        .append("as", "t")
+                        .append("cond", new Document("$gt", Arrays.asList("$$t", "$readAt")))))),
+                new Document("$set", new Document("count", new Document("$size", "$recent"))));
+        Document after = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ChatUnreadCounter.class))
+                .findOneAndUpdate(Filters.eq("_id", ChatUnreadCounter.idOf(roomId, userId)), pipeline,
+                        new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        if (after != null) {
+            long delta = ((Number) after.get("count")).longValue() - ((Number) after.get("prevCount")).longValue();
+            incTotals(Map.of(userId, delta));
+        }
+    }
+
+    /**
+     * 카운터 값을 지정 (읽음 처리 시 0, 또는 재계산 값)
+     */
+    public void set(Long roomId, String userId, LocalDateTime joinedAt, long count) {
+        Query query = new Query(Criteria.where("_id").is(ChatUnreadCounter.idOf(roomId, userId)));
+        Update update = new Update()
+                .set("roomId", roomId)
+                .set("userId", userId)
+                .set("count", count)
+                .set("joinedAt", truncate(joinedAt))
+                .set("updatedAt", LocalDateTime.now());
+        ChatUnreadCounter previous = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false), ChatUnreadCounter.class);
+        incTotals(Map.of(userId, count - (previous != null ? previous.getCount() : 0)));
+    }
+
+    /**
+     * 한 사용자의 여러 채팅방 카운터를 한 번의 bulk upsert로 지정 (roomId → 재계산 값).
+     * previous는 직전에 조회한 카운터로, 재계산 값과의 차이를 배지 합계에 반영하는 데 사용
+     */
+    public void setAll(String userId, Map<Long, LocalDateTime> joinedAtByRoom, Map<Long, Long> counts,
+                       Map<Long, ChatUnreadCounter> previous) {
+        if (joinedAtByRoom.isEmpty()) {
+            return;
+        }
+        long delta = 0;
+        for (Long roomId : joinedAtByRoom.keySet()) {
+            ChatUnreadCounter counter = previous.get(roomId);
+            delta += counts.getOrDefault(roomId, 0L) - (counter != null ? counter.getCount() : 0);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatUnreadCounter.class);
+        LocalDateTime now = LocalDateTime.now();
+        joinedAtByRoom.forEach((roomId, joinedAt) -> bulk.upsert(
+                new Query(Criteria.where("_id").is(ChatUnreadCounter.idOf(roomId, userId))),
+                new Update()
+                        .set("roomId", roomId)
+                        .set("userId", userId)
+                        .set("count", counts.getOrDefault(roomId, 0L))
+                        .set("joinedAt", truncate(joinedAt))
+                        .set("updatedAt", now)));
+        bulk.execute();
+        incTotals(Map.of(userId, delta));
+    }
+
+    /**
+     * 사용자별 배지 합계 (userId → total). 합계 문서가 아직 없는 사용자는 결과에 포함하지 않음
+     */
+    public Map<String, Long> findTotals(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(userIds)), ChatUnreadTotal.class).stream()
+                .collect(Collectors.toMap(ChatUnreadTotal::getUserId, ChatUnreadTotal::getTotal, (a, b) -> a));
+    }
+
+    /**
+     * 합계 문서가 없을 때만 계산한 합계로 생성 (이미 있으면 그대로 둠)
+     */
+    public void initTotal(String userId, long total) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)),
+                new Update().setOnInsert("total", total).setOnInsert("updatedAt", LocalDateTime.now()),
+                ChatUnreadTotal.class);
+    }
+
+    /**
+     * 채팅방 목록 조회로 전체 카운터를 다시 계산한 경우 합계를 그 값으로 맞춤 (누락된 증감 보정)
+     */
+    public void syncTotal(String userId, long total) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)),
+                new Update().set("total", total).set("updatedAt", LocalDateTime.now()),
+                ChatUnreadTotal.class);
+    }
+
+    /**
+     * 카운터가 현재 참가 기간(joinedAt) 기준으로 계산된 값인지 확인
+     */
+    public boolean isCurrent(ChatUnreadCounter counter, LocalDateTime joinedAt) {
+        return counter != null && Objects.equals(counter.getJoinedAt(), truncate(joinedAt));
+    }
+
+    // 메시지 시각이 읽음 워터마크 이후인 카운터만 (워터마크가 없는 기존 카운터 포함)
+    private Criteria unreadAt(Criteria criteria, LocalDateTime messageTimestamp) {
+        if (messageTimestamp == null) {
+            return criteria;
+        }
+        return criteria.orOperator(
+                Criteria.where("readAt").exists(false),
+                Criteria.where("readAt").lt(truncate(messageTimestamp)));
+    }
+
+    // count 증가와 함께 메시지 시각을 recent에, update 식별자를 ops에 기록 (각각 최근 항목만 유지)
+    private Update countedUpdate(int amount, LocalDateTime messageTimestamp, String op) {
+        Update update = new Update().inc("count", amount).set("updatedAt", LocalDateTime.now());
+        if (messageTimestamp != null) {
+            Object[] timestamps = new Object[amount];
+            Arrays.fill(timestamps, truncate(messageTimestamp));
+            update.push("recent").slice(-RECENT_LIMIT).each(timestamps);
+        }
+        update.push("ops").slice(-OPS_LIMIT).each(op);
+        return update;
+    }
+
+    private static String newOp() {
+        return new ObjectId().toHexString();
+    }
+
+    // ids 중 op update로 변경된 카운터
+    private List<ChatUnreadCounter> changedCounters(Collection<String> ids, String op) {
+        Query query = new Query(Criteria.where("_id").in(ids).and("ops").is(op));
+        query.fields().include("roomId").include("userId");
+        return mongoTemplate.find(query, ChatUnreadCounter.class);
+    }
+
+    private Set<String> changedUserIds(Collection<String> ids, String op, long modified) {
+        if (modified == 0) {
+            return Collections.emptySet();
+        }
+        return changedCounters(ids, op).stream()
+                .map(ChatUnreadCounter::getUserId)
+                .collect(Collectors.toSet());
+    }
+
+    // 합계 문서가 있는 사용자만 증감 (없는 사용자는 처음 조회될 때 계산값으로 생성)
+    private void incTotals(Collection<String> userIds, long amount) {
+        if (userIds.isEmpty() || amount == 0) {
+            return;
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(userIds)),
+                new Update().inc("total", amount).set("updatedAt", LocalDateTime.now()), ChatUnreadTotal.class);
+    }
+
+    private void incTotals(Map<String, Long> deltaByUser) {
+        Map<String, Long> deltas = deltaByUser.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (deltas.size() == 1) {
+            deltas.forEach((userId, delta) -> incTotals(List.of(userId), delta));
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatUnreadTotal.class);
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((userId, delta) -> bulk.updateOne(new Query(Criteria.where("_id").is(userId)),
+                new Update().inc("total", delta).set("updatedAt", now)));
+        bulk.execute();
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return time != null ? Date.from(time.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
+
+    // Mongo Date는 밀리초 단위까지만 저장하므로 비교 기준도 밀리초로 맞춤
+    private LocalDateTime truncate(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+}
@@ -3,6 +3,7 @@ package kakao.login.service.implement;
 import kakao.login.entity.RefreshTokenEntity;
 import kakao.login.entity.UserEntity;
 import kakao.login.provider.JwtProvider;
+import kakao.login.provider.VerifiedTokenCache;
 import kakao.login.repository.RefreshTokenRepository;
 import kakao.login.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ public class RefreshTokenServiceImplement {
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository; // UserRepository 추가
     private final JwtProvider jwtProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
 
 
     // Set expiry time (e.g., 7 days)
@@ -27,10 +29,12 @@ public class RefreshTokenServiceImplement {
 
     public RefreshTokenServiceImplement(RefreshTokenRepository refreshTokenRepository,
                                         UserRepository userRepository,
-                                        JwtProvider jwtProvider) {
+                                        JwtProvider jwtProvider,
+                                        VerifiedTokenCache verifiedTokenCache) {
         this.refreshTokenRepository = refreshTokenRepository;
         this.userRepository = userRepository;
         this.jwtProvider = jwtProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Transactional
@@ -165,6 +169,9 @@ public class RefreshTokenServiceImplement {
                 token.setRevoked(true);
                 refreshTokenRepository.save(token);
             });
+
+            // 캐시된 access token 검증 결과 제거
+            verifiedTokenCache.invalidateUser(userId);
         }
     }
 }
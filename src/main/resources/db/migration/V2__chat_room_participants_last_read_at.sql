@@ -0,0 +1,10 @@
+-- 참가자별 읽음 워터마크
+-- ddl-auto=update로 이미 컬럼이 생성된 DB에서도 실행되도록 존재 여부를 확인 후 추가
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'chat_room_participants' AND COLUMN_NAME = 'last_read_at') = 0,
+    'ALTER TABLE chat_room_participants ADD COLUMN last_read_at DATETIME(6) NULL',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
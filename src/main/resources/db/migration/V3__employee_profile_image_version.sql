@@ -0,0 +1,10 @@
+-- 프로필 이미지 버전 (이미지 URL 캐시 키)
+-- 기존 employee.profile_image 컬럼은 EmployeeProfileImageMigration이 이관 후 비우며, 이 스크립트에서는 삭제하지 않음
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'employee' AND COLUMN_NAME = 'profile_image_version') = 0,
+    'ALTER TABLE employee ADD COLUMN profile_image_version VARCHAR(64) NULL',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,10 @@
+-- 직원 프로필 이미지 저장소 (썸네일/원본)
+CREATE TABLE IF NOT EXISTS employee_profile_image (
+    employee_id  BIGINT       NOT NULL,
+    thumbnail    LONGBLOB     NOT NULL,
+    full_image   LONGBLOB     NOT NULL,
+    content_type VARCHAR(50)  NOT NULL,
+    version      VARCHAR(64)  NOT NULL,
+    updated_at   DATETIME(6)  NULL,
+    PRIMARY KEY (employee_id)
+) ENGINE = InnoDB;
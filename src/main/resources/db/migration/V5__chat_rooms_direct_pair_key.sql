@@ -0,0 +1,28 @@
+-- 1:1 채팅방 직원 쌍 키와 유니크 키
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.COLUMNS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'chat_rooms' AND COLUMN_NAME = 'direct_pair_key') = 0,
+    'ALTER TABLE chat_rooms ADD COLUMN direct_pair_key VARCHAR(64) NULL',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 유니크 키 추가 전에 같은 키를 가진 채팅방이 있으면 가장 먼저 만들어진 방에만 키를 남김
+UPDATE chat_rooms r
+    JOIN (SELECT direct_pair_key, MIN(id) AS keep_id
+          FROM chat_rooms
+          WHERE direct_pair_key IS NOT NULL
+          GROUP BY direct_pair_key
+          HAVING COUNT(*) > 1) d ON r.direct_pair_key = d.direct_pair_key
+SET r.direct_pair_key = NULL
+WHERE r.id <> d.keep_id;
+
+SET @ddl = IF(
+    (SELECT COUNT(*) FROM information_schema.STATISTICS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'chat_rooms' AND INDEX_NAME = 'uk_chat_rooms_direct_pair_key') = 0,
+    'ALTER TABLE chat_rooms ADD CONSTRAINT uk_chat_rooms_direct_pair_key UNIQUE (direct_pair_key)',
+    'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
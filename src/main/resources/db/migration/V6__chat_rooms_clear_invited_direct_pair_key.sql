@@ -0,0 +1,9 @@
+-- 세 번째 참가자가 초대된 채팅방은 더 이상 1:1 채팅방이 아니므로 직원 쌍 키를 해제
+-- 이후에는 ChatRoom.addParticipant가 초대 시점에 키를 해제
+UPDATE chat_rooms r
+    JOIN (SELECT chat_room_id
+          FROM chat_room_participants
+          GROUP BY chat_room_id
+          HAVING COUNT(*) > 2) p ON r.id = p.chat_room_id
+SET r.direct_pair_key = NULL
+WHERE r.direct_pair_key IS NOT NULL;
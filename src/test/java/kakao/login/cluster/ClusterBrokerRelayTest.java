@@ -0,0 +1,176 @@
+package kakao.login.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.DataOutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 한 JVM 안에서 두 노드를 띄워 brokerChannel 메시지가 다른 노드로 전달되는지 검증합니다.
+ */
+class ClusterBrokerRelayTest {
+
+    private static final byte[] SECRET = "cluster-test-secret-0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable closeable : closeables) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    void chatTopicMessageIsRedeliveredOnPeerNodeOnly() throws Exception {
+        LoopbackClusterMessageBus.Hub hub = new LoopbackClusterMessageBus.Hub();
+        Node a = node(register(new LoopbackClusterMessageBus("a", hub)));
+        Node b = node(register(new LoopbackClusterMessageBus("b", hub)));
+
+        a.relay.preSend(brokerMessage("/topic/chat/42", "{\"content\":\"hi\"}"), a.channel);
+
+        Message<?> received = b.received.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(SimpMessageHeaderAccessor.getDestination(received.getHeaders())).isEqualTo("/topic/chat/42");
+        assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"content\":\"hi\"}");
+        assertThat(received.getHeaders().get(ClusterBrokerRelay.ORIGIN_HEADER)).isEqualTo("a");
+
+        // 다른 노드에서 받은 메시지는 다시 발행하지 않음
+        b.relay.preSend(received, b.channel);
+        assertThat(a.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void userDestinationIsForwardedUnresolved() throws Exception {
+        LoopbackClusterMessageBus.Hub hub = new LoopbackClusterMessageBus.Hub();
+        Node a = node(register(new LoopbackClusterMessageBus("a", hub)));
+        Node b = node(register(new LoopbackClusterMessageBus("b", hub)));
+
+        a.relay.preSend(brokerMessage("/user/kakao_1/queue/errors", "{}"), a.channel);
+
+        Message<?> received = b.received.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(SimpMessageHeaderAccessor.getDestination(received.getHeaders())).isEqualTo("/user/kakao_1/queue/errors");
+    }
+
+    @Test
+    void otherDestinationsStayLocal() throws Exception {
+        LoopbackClusterMessageBus.Hub hub = new LoopbackClusterMessageBus.Hub();
+        Node a = node(register(new LoopbackClusterMessageBus("a", hub)));
+        Node b = node(register(new LoopbackClusterMessageBus("b", hub)));
+
+        a.relay.preSend(brokerMessage("/topic/other", "{}"), a.channel);
+        // 세션별로 변환된 user 목적지는 각 노드에서 만들어지므로 전달하지 않음
+        a.relay.preSend(brokerMessage("/queue/errors-user1a2b", "{}"), a.channel);
+
+        assertThat(b.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void tcpBusDeliversToPeer() throws Exception {
+        TcpClusterMessageBus[] buses = tcpPair(SECRET, SECRET);
+        Node a = node(buses[0]);
+        Node b = node(buses[1]);
+        for (int i = 0; i < 3; i++) {
+            a.relay.preSend(brokerMessage("/topic/chat/7", "{\"seq\":" + i + "}"), a.channel);
+        }
+
+        // 발행 노드 기준 순서 유지
+        for (int i = 0; i < 3; i++) {
+            Message<?> received = b.received.poll(5, TimeUnit.SECONDS);
+            assertThat(received).isNotNull();
+            assertThat(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"seq\":" + i + "}");
+            assertThat(received.getHeaders().get(ClusterBrokerRelay.ORIGIN_HEADER)).isEqualTo("a");
+        }
+    }
+
+    @Test
+    void tcpBusRejectsPeerWithWrongSecret() throws Exception {
+        TcpClusterMessageBus[] buses = tcpPair("wrong-secret-wrong-secret".getBytes(StandardCharsets.UTF_8), SECRET);
+        Node a = node(buses[0]);
+        Node b = node(buses[1]);
+
+        a.relay.preSend(brokerMessage("/topic/chat/7", "{}"), a.channel);
+
+        assertThat(b.received.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void tcpBusIgnoresUnauthenticatedFrames() throws Exception {
+        TcpClusterMessageBus receiver = register(new TcpClusterMessageBus("b", "127.0.0.1", 0,
+                List.of(InetSocketAddress.createUnresolved("127.0.0.1", 1)), SECRET, 100));
+        receiver.start();
+        Node b = node(receiver);
+
+        // handshake 없이 MAGIC과 envelope만 보내는 연결
+        try (Socket socket = new Socket("127.0.0.1", receiver.getBoundPort())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(0x4B434C32);
+            new ClusterEnvelope("x", "/topic/chat/7", "application/json",
+                    "{}".getBytes(StandardCharsets.UTF_8)).writeTo(out);
+            out.flush();
+
+            assertThat(b.received.poll(1, TimeUnit.SECONDS)).isNull();
+        }
+    }
+
+    // 수신 노드의 peers에 송신 노드 주소를 포함 (수신 노드 포트는 미리 확보)
+    private TcpClusterMessageBus[] tcpPair(byte[] senderSecret, byte[] receiverSecret) throws Exception {
+        int receiverPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            receiverPort = probe.getLocalPort();
+        }
+        TcpClusterMessageBus sender = register(new TcpClusterMessageBus("a", "127.0.0.1", 0,
+                List.of(InetSocketAddress.createUnresolved("127.0.0.1", receiverPort)), senderSecret, 100));
+        sender.start();
+        TcpClusterMessageBus receiver = register(new TcpClusterMessageBus("b", "127.0.0.1", receiverPort,
+                List.of(InetSocketAddress.createUnresolved("127.0.0.1", sender.getBoundPort())), receiverSecret, 100));
+        receiver.start();
+        return new TcpClusterMessageBus[]{sender, receiver};
+    }
+
+    private <T extends AutoCloseable> T register(T closeable) {
+        closeables.add(closeable);
+        return closeable;
+    }
+
+    private static Node node(ClusterMessageBus bus) {
+        BlockingQueue<Message<?>> received = new LinkedBlockingQueue<>();
+        MessageChannel channel = (message, timeout) -> received.add(message);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("bus", bus);
+        beans.addBean("template", new SimpMessagingTemplate(channel));
+        ClusterBrokerRelay relay = new ClusterBrokerRelay(beans.getBeanProvider(ClusterMessageBus.class),
+                beans.getBeanProvider(SimpMessagingTemplate.class), List.of("/topic/chat/", "/user/"));
+        return new Node(relay, channel, received);
+    }
+
+    private static Message<byte[]> brokerMessage(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private record Node(ClusterBrokerRelay relay, MessageChannel channel, BlockingQueue<Message<?>> received) {
+    }
+}
@@ -0,0 +1,159 @@
+package kakao.login.config;
+
+import kakao.login.provider.JwtProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * clientInboundChannel 인증 인터셉터의 프레임 처리량(frames/sec per core) 비교.
+ * - before: 모든 프레임에서 nativeHeaders의 JWT를 검증하던 이전 방식
+ * - after: CONNECT에서만 검증하는 StompConnectAuthInterceptor
+ * 코어 수만큼의 스레드가 같은 SEND 프레임(Authorization 헤더 포함)을 반복 처리합니다.
+ * 실행: ./gradlew benchmark (기본 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+class StompInboundAuthBenchmark {
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long WARMUP_MS = 2_000;
+    private static final long MEASURE_MS = 5_000;
+
+    private final StompSessionExpiryRegistry registry = new StompSessionExpiryRegistry();
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void connectOnlyAuthenticationRaisesInboundFrameThroughput() throws Exception {
+        JwtProvider jwtProvider = jwtProvider();
+        String token = jwtProvider.create("benchmark-user", "ROLE_USER");
+        MessageChannel channel = mock(MessageChannel.class);
+
+        ChannelInterceptor before = new PerFrameAuthInterceptor(jwtProvider);
+        ChannelInterceptor after = new StompConnectAuthInterceptor(jwtProvider, registry);
+
+        // CONNECT에서는 두 방식 모두 user를 설정
+        assertThat(userOf(after.preSend(frame(StompCommand.CONNECT, token), channel))).isEqualTo("benchmark-user");
+        assertThat(userOf(before.preSend(frame(StompCommand.CONNECT, token), channel))).isEqualTo("benchmark-user");
+
+        double beforeRate = measure(before, token, channel);
+        double afterRate = measure(after, token, channel);
+        System.out.printf("STOMP inbound auth (%d threads): before %.0f frames/sec/core, after %.0f frames/sec/core (x%.1f)%n",
+                THREADS, beforeRate, afterRate, afterRate / beforeRate);
+
+        assertThat(afterRate).isGreaterThan(beforeRate);
+    }
+
+    // 스레드당 같은 세션의 SEND 프레임을 반복 처리해 코어당 초당 처리 프레임 수를 계산
+    private double measure(ChannelInterceptor interceptor, String token, MessageChannel channel) throws Exception {
+        run(interceptor, token, channel, WARMUP_MS);
+        return run(interceptor, token, channel, MEASURE_MS) * 1000.0 / MEASURE_MS / THREADS;
+    }
+
+    private long run(ChannelInterceptor interceptor, String token, MessageChannel channel, long durationMs) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Message<byte[]> message = frame(StompCommand.SEND, token);
+            results.add(executor.submit(() -> {
+                start.await();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+                long frames = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int n = 0; n < 100; n++) {
+                        interceptor.preSend(message, channel);
+                    }
+                    frames += 100;
+                }
+                return frames;
+            }));
+        }
+        start.countDown();
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get(durationMs + 30_000, TimeUnit.MILLISECONDS);
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String token) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("benchmark-session");
+        accessor.setDestination("/app/chat.send");
+        accessor.addNativeHeader("Authorization", "Bearer " + token);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage("{\"content\":\"hi\"}".getBytes(StandardCharsets.UTF_8),
+                accessor.getMessageHeaders());
+    }
+
+    private static String userOf(Message<?> message) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        return accessor != null && accessor.getUser() != null ? accessor.getUser().getName() : null;
+    }
+
+    private static JwtProvider jwtProvider() {
+        JwtProvider jwtProvider = new JwtProvider();
+        String secret = "benchmark-secret-key-benchmark-secret-key-0123456789";
+        ReflectionTestUtils.setField(jwtProvider, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtProvider, "refreshKey", secret);
+        ReflectionTestUtils.setField(jwtProvider, "accessTokenExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtProvider, "refreshTokenExpiration", 3_600_000L);
+        jwtProvider.init();
+        return jwtProvider;
+    }
+
+    /**
+     * 변경 전 인터셉터: 모든 프레임에서 토큰을 검증하고 user를 설정
+     */
+    private static final class PerFrameAuthInterceptor implements ChannelInterceptor {
+        private final JwtProvider jwtProvider;
+
+        private PerFrameAuthInterceptor(JwtProvider jwtProvider) {
+            this.jwtProvider = jwtProvider;
+        }
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            if (accessor != null) {
+                String token = StompConnectAuthInterceptor.extractTokenFromHeaders(accessor);
+                if (token != null) {
+                    String userId = jwtProvider.validate(token);
+                    if (userId != null) {
+                        accessor.setUser(new UsernamePasswordAuthenticationToken(userId, null,
+                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+                    }
+                }
+            }
+            return message;
+        }
+    }
+}
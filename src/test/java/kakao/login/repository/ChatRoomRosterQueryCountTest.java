@@ -0,0 +1,123 @@
+package kakao.login.repository;
+
+import kakao.login.entity.*;
+import kakao.login.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 채팅 경로에서 참가자 로스터를 읽을 때 실행되는 SQL 수를 검증합니다.
+ * 채팅방/참가자 수가 늘어나도 쿼리 수가 늘어나지 않아야 합니다 (N+1 방지).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:chat_roster;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=kakao.login.support.SqlStatementCounter"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ChatRoomRosterQueryCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    private List<EmployeeEntity> employees;
+
+    @BeforeEach
+    void setUp() {
+        DepartmentEntity department = new DepartmentEntity();
+        department.setDepartmentName("개발팀");
+        em.persist(department);
+
+        SectionEntity section = new SectionEntity();
+        section.setSectionName("1구역");
+        section.setDepartment(department);
+        em.persist(section);
+
+        employees = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            UserEntity user = new UserEntity();
+            user.setUserId("user" + i);
+            user.setRole("ROLE_USER");
+            em.persist(user);
+
+            EmployeeEntity employee = new EmployeeEntity();
+            employee.setUser(user);
+            employee.setName("직원" + i);
+            employee.setDepartment(department);
+            employee.setSection(section);
+            em.persist(employee);
+            employees.add(employee);
+        }
+    }
+
+    @Test
+    void findWithRosterByIdLoadsRosterInOneQuery() {
+        Long roomId = createGroupRoom("그룹", employees).getId();
+        em.flush();
+        em.clear();
+        SqlStatementCounter.reset();
+
+        ChatRoom room = chatRoomRepository.findWithRosterById(roomId).orElseThrow();
+        assertThat(room.hasActiveParticipant("user0")).isTrue();
+        assertThat(room.getActiveParticipants()).hasSize(employees.size());
+        room.getActiveParticipants().forEach(e -> {
+            e.getUser().getUserId();
+            e.getDepartment().getDepartmentName();
+            e.getSection().getSectionName();
+        });
+
+        assertThat(SqlStatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findWithRosterByParticipantUserIdDoesNotScaleWithRoomCount() {
+        for (int i = 1; i < employees.size(); i++) {
+            createDirectRoom(employees.get(0), employees.get(i));
+        }
+        createGroupRoom("그룹", employees);
+        em.flush();
+        em.clear();
+        SqlStatementCounter.reset();
+
+        List<ChatRoom> rooms = chatRoomRepository.findWithRosterByParticipantUserId("user0");
+        assertThat(rooms).hasSize(employees.size());
+        rooms.forEach(room -> {
+            assertThat(room.hasActiveParticipant("user0")).isTrue();
+            room.getDisplayNameFor("user0");
+            room.getActiveParticipants().forEach(e -> e.getUser().getUserId());
+        });
+
+        assertThat(SqlStatementCounter.count()).isEqualTo(1);
+    }
+
+    private ChatRoom createGroupRoom(String name, List<EmployeeEntity> members) {
+        ChatRoom room = new ChatRoom(name, members.get(0).getUser().getUserId(), true);
+        members.forEach(member -> room.addParticipant(member, false));
+        em.persist(room);
+        return room;
+    }
+
+    private ChatRoom createDirectRoom(EmployeeEntity a, EmployeeEntity b) {
+        ChatRoom room = new ChatRoom(null, a.getUser().getUserId(), false);
+        room.addParticipant(a, false);
+        room.addParticipant(b, false);
+        em.persist(room);
+        return room;
+    }
+}
@@ -0,0 +1,91 @@
+package kakao.login.service;
+
+import kakao.login.entity.ChatMessage;
+import kakao.login.entity.ChatRoom;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 채팅방 요약 write-behind 검증 (메시지 여러 건 → 채팅방당 한 행, 저장 전 조회는 메모리 요약 사용)
+ */
+class ChatRoomSummaryBufferTest {
+
+    @Test
+    void messagesInSameRoomAreCoalescedIntoOneBatchRow() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ChatRoomSummaryBuffer buffer = new ChatRoomSummaryBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), 500);
+
+        buffer.recordMessage(message(1L, "첫 번째", null));
+        buffer.recordMessage(message(1L, "두 번째", null));
+        buffer.recordMessage(message(2L, "", "image"));
+        buffer.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).hasSize(2);
+        assertThat(rows.getValue()).anySatisfy(row -> {
+            assertThat(row[2]).isEqualTo(1L);
+            assertThat(row[0]).isEqualTo("두 번째");
+        });
+        assertThat(rows.getValue()).anySatisfy(row -> {
+            assertThat(row[2]).isEqualTo(2L);
+            assertThat(row[0]).isEqualTo("📷 사진");
+        });
+
+        // 변경이 없으면 다음 flush는 쓰지 않음
+        buffer.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void overlayServesUnflushedSummaryAndTouchKeepsPreview() {
+        ChatRoomSummaryBuffer buffer = new ChatRoomSummaryBuffer(
+                mock(JdbcTemplate.class), mock(PlatformTransactionManager.class), 500);
+        ChatRoom room = new ChatRoom();
+        room.setId(3L);
+        room.setLastMessageContent("이전 메시지");
+        room.setLastActivity(LocalDateTime.now().minusHours(1));
+
+        buffer.recordMessage(message(3L, "새 메시지", null));
+        buffer.touch(3L);
+        buffer.overlay(room);
+
+        assertThat(room.getLastMessageContent()).isEqualTo("새 메시지");
+        assertThat(room.getLastActivity()).isAfter(LocalDateTime.now().minusMinutes(1));
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new org.springframework.dao.QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+        ChatRoomSummaryBuffer buffer = new ChatRoomSummaryBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), 500);
+
+        buffer.recordMessage(message(4L, "안녕하세요", null));
+        buffer.flush();
+        assertThat(buffer.getStats().get("pending")).isEqualTo(1);
+        buffer.flush();
+        assertThat(buffer.getStats().get("pending")).isEqualTo(0);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    private static ChatMessage message(Long roomId, String content, String attachmentType) {
+        ChatMessage message = new ChatMessage();
+        message.setRoomId(roomId);
+        message.setContent(content);
+        message.setAttachmentType(attachmentType);
+        return message;
+    }
+}
@@ -0,0 +1,82 @@
+package kakao.login.service;
+
+import kakao.login.entity.ChatMessage;
+import kakao.login.repository.ChatMessageRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * 날짜 구분 메시지 compare-and-set 검증 (동시 전송에도 채팅방·날짜당 한 번, 적재는 채팅방당 한 번)
+ */
+class DateSeparatorTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void concurrentSendersClaimSeparatorExactlyOnce() throws Exception {
+        ChatMessageRepository repository = mock(ChatMessageRepository.class);
+        when(repository.findTop2ByRoomIdOrderByTimestampDesc(anyLong())).thenReturn(List.of());
+        DateSeparatorTracker tracker = new DateSeparatorTracker(repository, 7);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return tracker.claim(1L, TODAY);
+            }));
+        }
+        start.countDown();
+        int claimed = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(5, TimeUnit.SECONDS)) {
+                claimed++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(claimed).isEqualTo(1);
+        assertThat(tracker.claim(1L, TODAY)).isFalse();
+        // 다음 날 첫 전송은 다시 삽입
+        assertThat(tracker.claim(1L, TODAY.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void roomWithMessageFromTodayNeedsNoSeparatorAndIsSeededOnce() {
+        ChatMessage last = new ChatMessage();
+        last.setTimestamp(LocalDateTime.of(TODAY, java.time.LocalTime.NOON));
+        ChatMessageRepository repository = mock(ChatMessageRepository.class);
+        when(repository.findTop2ByRoomIdOrderByTimestampDesc(2L)).thenReturn(List.of(last));
+        DateSeparatorTracker tracker = new DateSeparatorTracker(repository, 7);
+
+        assertThat(tracker.claim(2L, TODAY)).isFalse();
+        assertThat(tracker.claim(2L, TODAY)).isFalse();
+        verify(repository, times(1)).findTop2ByRoomIdOrderByTimestampDesc(2L);
+    }
+
+    @Test
+    void releasedClaimIsRetried() {
+        ChatMessageRepository repository = mock(ChatMessageRepository.class);
+        when(repository.findTop2ByRoomIdOrderByTimestampDesc(anyLong())).thenReturn(List.of());
+        DateSeparatorTracker tracker = new DateSeparatorTracker(repository, 7);
+
+        assertThat(tracker.claim(3L, TODAY)).isTrue();
+        tracker.release(3L, TODAY);
+        assertThat(tracker.claim(3L, TODAY)).isTrue();
+    }
+}
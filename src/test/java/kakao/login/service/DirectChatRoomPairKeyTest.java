@@ -0,0 +1,136 @@
+package kakao.login.service;
+
+import jakarta.persistence.PersistenceException;
+import kakao.login.entity.*;
+import kakao.login.repository.ChatRoomRepository;
+import kakao.login.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 1:1 채팅방 직원 쌍 키 검증 (키 조회, 유니크 제약, 생성/재사용, 초대 시 키 해제)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:chat_direct_pair;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false", // 마이그레이션 스크립트는 MySQL 전용
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=kakao.login.support.SqlStatementCounter"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ChatRoomService.class, ChatRoomSummaryBuffer.class})
+class DirectChatRoomPairKeyTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private ChatRoomService chatRoomService;
+
+    @MockitoBean
+    private UnreadCounterService unreadCounterService;
+
+    private List<EmployeeEntity> employees;
+
+    @BeforeEach
+    void setUp() {
+        DepartmentEntity department = new DepartmentEntity();
+        department.setDepartmentName("개발팀");
+        em.persist(department);
+
+        employees = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserEntity user = new UserEntity();
+            user.setUserId("user" + i);
+            user.setRole("ROLE_USER");
+            em.persist(user);
+
+            EmployeeEntity employee = new EmployeeEntity();
+            employee.setUser(user);
+            employee.setName("직원" + i);
+            employee.setDepartment(department);
+            em.persist(employee);
+            employees.add(employee);
+        }
+    }
+
+    @Test
+    void findByDirectPairKeyIsSingleQueryRegardlessOfArgumentOrder() {
+        ChatRoom room = createDirectRoom(employees.get(0), employees.get(1));
+        em.flush();
+        em.clear();
+        SqlStatementCounter.reset();
+
+        String key = ChatRoom.directPairKeyOf(employees.get(1).getId(), employees.get(0).getId());
+        assertThat(chatRoomRepository.findByDirectPairKey(key)).map(ChatRoom::getId).contains(room.getId());
+        assertThat(SqlStatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateDirectPairKeyIsRejected() {
+        createDirectRoom(employees.get(0), employees.get(1));
+        em.flush();
+
+        assertThatThrownBy(() -> {
+            createDirectRoom(employees.get(1), employees.get(0));
+            em.flush();
+        }).isInstanceOf(PersistenceException.class);
+    }
+
+    @Test
+    void directRoomIsCreatedOnceForEitherOrder() {
+        ChatRoom created = chatRoomService.getOrCreateDirectChatRoom("user0", "user1");
+        em.flush();
+        em.clear();
+
+        ChatRoom reused = chatRoomService.getOrCreateDirectChatRoom("user1", "user0");
+        assertThat(reused.getId()).isEqualTo(created.getId());
+        assertThat(reused.getActiveParticipants()).extracting(EmployeeEntity::getId)
+                .containsExactlyInAnyOrder(employees.get(0).getId(), employees.get(1).getId());
+    }
+
+    @Test
+    void invitingThirdParticipantReleasesPairKey() {
+        ChatRoom direct = chatRoomService.getOrCreateDirectChatRoom("user0", "user1");
+        chatRoomService.addUserToChatRoom(direct.getId(), "user2");
+        em.flush();
+        em.clear();
+
+        assertThat(chatRoomRepository.findById(direct.getId()).orElseThrow().getDirectPairKey()).isNull();
+
+        // 초대된 채팅방은 더 이상 두 직원의 1:1 채팅방이 아니므로 새 1:1 채팅방을 사용
+        ChatRoom next = chatRoomService.getOrCreateDirectChatRoom("user1", "user0");
+        assertThat(next.getId()).isNotEqualTo(direct.getId());
+        assertThat(next.getDirectPairKey())
+                .isEqualTo(ChatRoom.directPairKeyOf(employees.get(0).getId(), employees.get(1).getId()));
+        assertThat(next.getActiveParticipants()).extracting(EmployeeEntity::getId)
+                .containsExactlyInAnyOrder(employees.get(0).getId(), employees.get(1).getId());
+    }
+
+    private ChatRoom createDirectRoom(EmployeeEntity a, EmployeeEntity b) {
+        ChatRoom room = new ChatRoom(null, a.getUser().getUserId(), false);
+        room.setDirectPairKey(ChatRoom.directPairKeyOf(a.getId(), b.getId()));
+        room.addParticipant(a, false);
+        room.addParticipant(b, false);
+        em.persist(room);
+        return room;
+    }
+}
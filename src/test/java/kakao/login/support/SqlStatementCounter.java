@@ -0,0 +1,28 @@
+package kakao.login.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate가 실행하는 SQL 문 수를 세는 StatementInspector (테스트 전용).
+ * hibernate.session_factory.statement_inspector 속성으로 등록합니다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicLong COUNT = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static long count() {
+        return COUNT.get();
+    }
+}